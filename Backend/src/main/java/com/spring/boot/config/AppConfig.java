@@ -1,14 +1,24 @@
 package com.spring.boot.config;
 
+import com.spring.boot.config.hashing.CalibratedBCryptPasswordEncoder;
+import com.spring.boot.config.hashing.HashingPasswordEncoder;
+import com.spring.boot.helper.PasswordHashingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class AppConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AppConfig.class);
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public HashingPasswordEncoder passwordEncoder(PasswordHashingProperties passwordHashingProperties) {
+        CalibratedBCryptPasswordEncoder bCryptPasswordEncoder = passwordHashingProperties.getStrength() != null
+                ? new CalibratedBCryptPasswordEncoder(passwordHashingProperties.getStrength())
+                : CalibratedBCryptPasswordEncoder.calibrate(passwordHashingProperties.getTargetTime());
+        log.info("BCrypt strength: {}", bCryptPasswordEncoder.getStrength());
+        return new HashingPasswordEncoder(bCryptPasswordEncoder, passwordHashingProperties);
     }
 }
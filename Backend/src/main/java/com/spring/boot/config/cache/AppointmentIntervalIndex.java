@@ -0,0 +1,299 @@
+package com.spring.boot.config.cache;
+
+import com.spring.boot.helper.AppointmentIndexProperties;
+import com.spring.boot.model.Appointment;
+import com.spring.boot.repo.AppointmentRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Booked intervals per doctor and per patient, one sorted set per calendar day.
+ * A day is loaded from the database the first time it is asked for and then kept
+ * up to date by the appointment service, so an overlap check is a lookup in a
+ * {@link TreeSet} instead of a query and a scan. Days expire after a while so
+ * writes from other nodes are picked up eventually; the booking path still holds
+ * the row lock that makes the final decision.
+ */
+@Component
+public class AppointmentIntervalIndex {
+
+    private final AppointmentRepo appointmentRepo;
+    private final long ttlNanos;
+    private final int maxDays;
+
+    private final Map<DayKey, Day> days = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AppointmentIntervalIndex(AppointmentRepo appointmentRepo, AppointmentIndexProperties properties) {
+        this.appointmentRepo = appointmentRepo;
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.maxDays = properties.getMaxDays();
+    }
+
+    /**
+     * Returns the doctor's appointment that overlaps {@code [start, start + durationMinutes)},
+     * or {@code null} when the slot is free. {@code excludeIds} are skipped, for updates.
+     */
+    public Interval findDoctorConflict(Long doctorId, LocalDateTime start, int durationMinutes, Set<Long> excludeIds) {
+        return day(Owner.DOCTOR, doctorId, start.toLocalDate()).findConflict(start, durationMinutes, excludeIds);
+    }
+
+    public Interval findPatientConflict(Long patientId, LocalDateTime start, int durationMinutes, Set<Long> excludeIds) {
+        return day(Owner.PATIENT, patientId, start.toLocalDate()).findConflict(start, durationMinutes, excludeIds);
+    }
+
+    /**
+     * The doctor's intervals on the given day, ordered by start time.
+     */
+    public List<Interval> doctorDay(Long doctorId, LocalDate date) {
+        return day(Owner.DOCTOR, doctorId, date).snapshot();
+    }
+
+    public List<Interval> patientDay(Long patientId, LocalDate date) {
+        return day(Owner.PATIENT, patientId, date).snapshot();
+    }
+
+    /**
+     * Loads every missing or expired day of the doctor in {@code [from, to]} with a
+     * single range query, so a search over many days does not query day by day.
+     */
+    public void preloadDoctor(Long doctorId, LocalDate from, LocalDate to) {
+        loadRange(Owner.DOCTOR, doctorId, from, to, false);
+    }
+
+    public void preloadPatient(Long patientId, LocalDate from, LocalDate to) {
+        loadRange(Owner.PATIENT, patientId, from, to, false);
+    }
+
+    public void reloadPatientRange(Long patientId, LocalDate from, LocalDate to) {
+        loadRange(Owner.PATIENT, patientId, from, to, true);
+    }
+
+    /**
+     * Like {@link #reloadDoctorDay} for every day in {@code [from, to]}, with one query.
+     */
+    public void reloadDoctorRange(Long doctorId, LocalDate from, LocalDate to) {
+        loadRange(Owner.DOCTOR, doctorId, from, to, true);
+    }
+
+    /**
+     * Replaces the cached day with what the database holds now. Called by the booking
+     * path while it holds the doctor's row lock, where the database is authoritative.
+     */
+    public void reloadDoctorDay(Long doctorId, LocalDate date) {
+        ensureCapacity(1);
+        days.put(new DayKey(Owner.DOCTOR, doctorId, date), load(Owner.DOCTOR, doctorId, date, System.nanoTime()));
+    }
+
+    public void reloadPatientDay(Long patientId, LocalDate date) {
+        ensureCapacity(1);
+        days.put(new DayKey(Owner.PATIENT, patientId, date), load(Owner.PATIENT, patientId, date, System.nanoTime()));
+    }
+
+    public void add(Appointment appointment) {
+        Interval interval = Interval.of(appointment);
+        LocalDate date = appointment.getAppointmentDate().toLocalDate();
+        if (appointment.getDoctor() != null) {
+            Day day = days.get(new DayKey(Owner.DOCTOR, appointment.getDoctor().getDoctorId(), date));
+            if (day != null) {
+                day.add(interval);
+            }
+        }
+        if (appointment.getPatient() != null) {
+            Day day = days.get(new DayKey(Owner.PATIENT, appointment.getPatient().getPatientId(), date));
+            if (day != null) {
+                day.add(interval);
+            }
+        }
+    }
+
+    public void remove(Long appointmentId, Long doctorId, Long patientId, LocalDateTime start) {
+        LocalDate date = start.toLocalDate();
+        if (doctorId != null) {
+            Day day = days.get(new DayKey(Owner.DOCTOR, doctorId, date));
+            if (day != null) {
+                day.remove(appointmentId);
+            }
+        }
+        if (patientId != null) {
+            Day day = days.get(new DayKey(Owner.PATIENT, patientId, date));
+            if (day != null) {
+                day.remove(appointmentId);
+            }
+        }
+    }
+
+    public void invalidateDoctor(Long doctorId) {
+        days.keySet().removeIf(key -> key.owner() == Owner.DOCTOR && key.ownerId().equals(doctorId));
+    }
+
+    public void invalidatePatient(Long patientId) {
+        days.keySet().removeIf(key -> key.owner() == Owner.PATIENT && key.ownerId().equals(patientId));
+    }
+
+    public void invalidateAll() {
+        days.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${appointment-index.sweep-interval:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        days.values().removeIf(day -> day.isExpired(now, ttlNanos));
+    }
+
+    private Day day(Owner owner, Long ownerId, LocalDate date) {
+        DayKey key = new DayKey(owner, ownerId, date);
+        long now = System.nanoTime();
+        Day day = days.get(key);
+        if (day != null && !day.isExpired(now, ttlNanos)) {
+            return day;
+        }
+        ensureCapacity(1);
+        Day loaded = load(owner, ownerId, date, now);
+        days.put(key, loaded);
+        return loaded;
+    }
+
+    private void loadRange(Owner owner, Long ownerId, LocalDate from, LocalDate to, boolean force) {
+        long now = System.nanoTime();
+        Map<DayKey, Day> missing = new HashMap<>();
+        LocalDate first = null;
+        LocalDate last = null;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            DayKey key = new DayKey(owner, ownerId, date);
+            Day day = force ? null : days.get(key);
+            if (day == null || day.isExpired(now, ttlNanos)) {
+                missing.put(key, new Day(now));
+                first = first == null ? date : first;
+                last = date;
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        ensureCapacity(missing.size());
+        for (Object[] row : intervals(owner, ownerId, first, last)) {
+            Day day = missing.get(new DayKey(owner, ownerId, ((LocalDateTime) row[1]).toLocalDate()));
+            if (day != null) {
+                day.add(Interval.of(row));
+            }
+        }
+        days.putAll(missing);
+    }
+
+    private void ensureCapacity(int needed) {
+        if (days.size() + needed > maxDays) {
+            sweep();
+            if (days.size() + needed > maxDays) {
+                days.clear();
+            }
+        }
+    }
+
+    private Day load(Owner owner, Long ownerId, LocalDate date, long now) {
+        Day day = new Day(now);
+        for (Object[] row : intervals(owner, ownerId, date, date)) {
+            day.add(Interval.of(row));
+        }
+        return day;
+    }
+
+    // only the columns an interval needs, so loading a busy month does not hydrate its appointments
+    private List<Object[]> intervals(Owner owner, Long ownerId, LocalDate first, LocalDate last) {
+        LocalDateTime from = first.atStartOfDay();
+        LocalDateTime to = last.plusDays(1).atStartOfDay();
+        return owner == Owner.DOCTOR
+                ? appointmentRepo.findDoctorIntervals(ownerId, from, to)
+                : appointmentRepo.findPatientIntervals(ownerId, from, to);
+    }
+
+    private enum Owner { DOCTOR, PATIENT }
+
+    private record DayKey(Owner owner, Long ownerId, LocalDate date) {
+    }
+
+    /**
+     * A booked interval in minutes since midnight of its day, {@code end} exclusive.
+     */
+    public record Interval(Long appointmentId, int start, int end) {
+
+        private static final Comparator<Interval> ORDER = Comparator
+                .comparingInt(Interval::start)
+                .thenComparing(Interval::appointmentId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        static Interval of(Appointment appointment) {
+            int start = minuteOfDay(appointment.getAppointmentDate());
+            return new Interval(appointment.getAppointmentId(), start, start + appointment.getEffectiveDurationMinutes());
+        }
+
+        // a (id, date, duration) row
+        static Interval of(Object[] row) {
+            int start = minuteOfDay((LocalDateTime) row[1]);
+            int duration = row[2] == null ? Appointment.DEFAULT_DURATION_MINUTES : (Integer) row[2];
+            return new Interval((Long) row[0], start, start + duration);
+        }
+
+        static int minuteOfDay(LocalDateTime dateTime) {
+            return dateTime.getHour() * 60 + dateTime.getMinute();
+        }
+
+        public boolean startsAt(LocalDateTime dateTime) {
+            return start == minuteOfDay(dateTime);
+        }
+    }
+
+    private static final class Day {
+        private final long loadedAt;
+        private final TreeSet<Interval> intervals = new TreeSet<>(Interval.ORDER);
+        private final Map<Long, Interval> byId = new HashMap<>();
+        private int longest;
+
+        private Day(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        private boolean isExpired(long now, long ttlNanos) {
+            return now - loadedAt > ttlNanos;
+        }
+
+        private synchronized void add(Interval interval) {
+            Interval previous = interval.appointmentId() == null ? null : byId.put(interval.appointmentId(), interval);
+            if (previous != null) {
+                intervals.remove(previous);
+            }
+            intervals.add(interval);
+            longest = Math.max(longest, interval.end() - interval.start());
+        }
+
+        private synchronized void remove(Long appointmentId) {
+            Interval interval = byId.remove(appointmentId);
+            if (interval != null) {
+                intervals.remove(interval);
+            }
+        }
+
+        // nothing starting before start - longest can reach start, so only that window is visited
+        private synchronized Interval findConflict(LocalDateTime startTime, int durationMinutes, Set<Long> excludeIds) {
+            int start = Interval.minuteOfDay(startTime);
+            int end = start + durationMinutes;
+            Interval from = new Interval(null, start - longest, 0);
+            Interval to = new Interval(null, end, 0);
+            for (Interval interval : intervals.subSet(from, true, to, false)) {
+                if (interval.end() > start && !excludeIds.contains(interval.appointmentId())) {
+                    return interval;
+                }
+            }
+            return null;
+        }
+
+        private synchronized List<Interval> snapshot() {
+            return new ArrayList<>(intervals);
+        }
+    }
+}
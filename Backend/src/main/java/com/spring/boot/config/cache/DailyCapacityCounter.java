@@ -0,0 +1,139 @@
+package com.spring.boot.config.cache;
+
+import com.spring.boot.repo.AppointmentRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Appointments per (doctor, day): the daily capacity check and the load figures
+ * auto-assignment ranks doctors by. A day is counted from the database the first
+ * time it is asked for (one grouped query for all doctors of a day when ranking);
+ * after that bookings take and give back places with a compare-and-set, so a full
+ * day is refused without a query. Writes from other nodes and set-based statements
+ * are picked up by the periodic reconcile; the count under the doctor's row lock in
+ * BookingRules makes the final decision.
+ */
+@Component
+public class DailyCapacityCounter {
+
+    private final AppointmentRepo appointmentRepo;
+
+    private final Map<DayKey, AtomicInteger> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DailyCapacityCounter(AppointmentRepo appointmentRepo) {
+        this.appointmentRepo = appointmentRepo;
+    }
+
+    /**
+     * Takes {@code places} on the doctor's day if that keeps it within {@code capacity}.
+     */
+    public boolean tryAcquire(Long doctorId, LocalDate date, int capacity, int places) {
+        AtomicInteger counter = counter(doctorId, date);
+        while (true) {
+            int current = counter.get();
+            if (current + places > capacity) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + places)) {
+                return true;
+            }
+        }
+    }
+
+    // keeps a day that is already counted up to date, without counting new ones
+    public void addIfCounted(Long doctorId, LocalDate date, int places) {
+        AtomicInteger counter = counters.get(new DayKey(doctorId, date));
+        if (counter != null) {
+            counter.addAndGet(places);
+        }
+    }
+
+    /**
+     * Appointments of each doctor on {@code date}; doctors not counted yet are
+     * counted together with one grouped query.
+     */
+    public Map<Long, Integer> loadOn(LocalDate date, Collection<Long> doctorIds) {
+        Map<Long, Integer> loads = new HashMap<>();
+        boolean missing = false;
+        for (Long doctorId : doctorIds) {
+            AtomicInteger counter = counters.get(new DayKey(doctorId, date));
+            if (counter == null) {
+                missing = true;
+            } else {
+                loads.put(doctorId, counter.get());
+            }
+        }
+        if (!missing) {
+            return loads;
+        }
+        Map<Long, Integer> counted = countPerDoctor(date);
+        for (Long doctorId : doctorIds) {
+            if (!loads.containsKey(doctorId)) {
+                AtomicInteger seeded = new AtomicInteger(counted.getOrDefault(doctorId, 0));
+                AtomicInteger counter = counters.putIfAbsent(new DayKey(doctorId, date), seeded);
+                loads.put(doctorId, (counter != null ? counter : seeded).get());
+            }
+        }
+        return loads;
+    }
+
+    public void release(Long doctorId, LocalDate date, int places) {
+        AtomicInteger counter = counters.get(new DayKey(doctorId, date));
+        if (counter != null) {
+            counter.getAndUpdate(current -> Math.max(0, current - places));
+        }
+    }
+
+    public void invalidateDoctor(Long doctorId) {
+        counters.keySet().removeIf(key -> key.doctorId().equals(doctorId));
+    }
+
+    /**
+     * Drops past days and recounts the rest with one grouped query per day, so drift
+     * from other nodes, set-based statements and failed writes does not outlive one interval.
+     */
+    @Scheduled(fixedDelayString = "${daily-capacity.reconcile-interval:60000}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        counters.keySet().removeIf(key -> key.date().isBefore(today));
+        Map<LocalDate, Map<Long, Integer>> counted = new HashMap<>();
+        counters.forEach((key, counter) -> counter.set(
+                counted.computeIfAbsent(key.date(), this::countPerDoctor).getOrDefault(key.doctorId(), 0)));
+    }
+
+    private AtomicInteger counter(Long doctorId, LocalDate date) {
+        DayKey key = new DayKey(doctorId, date);
+        AtomicInteger counter = counters.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        AtomicInteger seeded = new AtomicInteger(count(key));
+        counter = counters.putIfAbsent(key, seeded);
+        return counter != null ? counter : seeded;
+    }
+
+    private Map<Long, Integer> countPerDoctor(LocalDate date) {
+        Map<Long, Integer> counted = new HashMap<>();
+        for (Object[] row : appointmentRepo.countPerDoctor(date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
+            counted.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return counted;
+    }
+
+    private int count(DayKey key) {
+        return (int) appointmentRepo.countDoctorWindow(key.doctorId(),
+                key.date().atStartOfDay(), key.date().plusDays(1).atStartOfDay());
+    }
+
+    private record DayKey(Long doctorId, LocalDate date) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.spring.boot.config.cache;
+
+import com.spring.boot.enums.DaysOfWeek;
+import com.spring.boot.model.Doctor;
+import com.spring.boot.repo.DoctorRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Doctors by weekday with that day's template hours, sorted by attend time, so
+ * finding who works in a time window is a walk over one short list instead of a
+ * query over every doctor. Built from one projection query on first use and
+ * rebuilt after any doctor is added, edited or removed; exception dates are not
+ * part of it, callers confirm a candidate's day with {@link EffectiveScheduleCache}.
+ */
+@Component
+public class DoctorAvailabilityIndex {
+
+    private final DoctorRepo doctorRepo;
+
+    private final SnapshotHolder<Map<DaysOfWeek, List<Entry>>> byDay = new SnapshotHolder<>(this::build);
+
+    @Autowired
+    public DoctorAvailabilityIndex(DoctorRepo doctorRepo) {
+        this.doctorRepo = doctorRepo;
+    }
+
+    /**
+     * Doctors whose template hours on {@code date}'s weekday overlap {@code [from, to)}.
+     */
+    public List<Entry> workingIn(LocalDate date, LocalTime from, LocalTime to) {
+        Map<DaysOfWeek, List<Entry>> snapshot = byDay.get();
+        int fromMinute = minuteOfDay(from);
+        int toMinute = minuteOfDay(to);
+        List<Entry> matches = new ArrayList<>();
+        for (Entry entry : snapshot.get(DaysOfWeek.valueOf(date.getDayOfWeek().name()))) {
+            // sorted by attend time, nobody after this one starts before the window ends
+            if (entry.attendMinute() >= toMinute) {
+                break;
+            }
+            if (entry.leaveMinute() > fromMinute) {
+                matches.add(entry);
+            }
+        }
+        return matches;
+    }
+
+    @Scheduled(fixedDelayString = "${schedule-cache.refresh-interval:600000}")
+    public void invalidate() {
+        byDay.invalidate();
+    }
+
+    private Map<DaysOfWeek, List<Entry>> build() {
+        Map<DaysOfWeek, List<Entry>> snapshot = new EnumMap<>(DaysOfWeek.class);
+        for (DaysOfWeek day : DaysOfWeek.values()) {
+            snapshot.put(day, new ArrayList<>());
+        }
+        for (Object[] row : doctorRepo.findScheduleRows()) {
+            Doctor doctor = DoctorRepo.scheduleOf(row);
+            for (DaysOfWeek day : DaysOfWeek.values()) {
+                if (doctor.worksOn(day)) {
+                    snapshot.get(day).add(new Entry(doctor.getDoctorId(),
+                            minuteOfDay(doctor.attendTimeOn(day)), minuteOfDay(doctor.leaveTimeOn(day)),
+                            doctor.isCapacityLimited() ? doctor.getDailyCapacity() : 0));
+                }
+            }
+        }
+        for (List<Entry> entries : snapshot.values()) {
+            entries.sort(Comparator.comparingInt(Entry::attendMinute).thenComparing(Entry::doctorId));
+        }
+        return snapshot;
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * A doctor's template hours on one weekday; {@code dailyCapacity} is 0 when unlimited.
+     */
+    public record Entry(Long doctorId, int attendMinute, int leaveMinute, int dailyCapacity) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.spring.boot.config.cache;
+
+import com.spring.boot.dto.DoctorDirectoryEntryDto;
+import com.spring.boot.mapper.DoctorMapper;
+import com.spring.boot.model.Doctor;
+import com.spring.boot.repo.DoctorRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The compact doctor list patients book from, built from one projection query on
+ * first use and rebuilt after any doctor is added, edited or removed. Its version
+ * is a hash of the rows it was built from, so it stays the same across restarts
+ * and rebuilds until a doctor actually changes, and a client holding that version
+ * can be told to keep its copy.
+ */
+@Component
+public class DoctorDirectoryCache {
+
+    private final DoctorRepo doctorRepo;
+    private final DoctorMapper doctorMapper;
+
+    private final SnapshotHolder<Snapshot> snapshot = new SnapshotHolder<>(this::build);
+
+    @Autowired
+    public DoctorDirectoryCache(DoctorRepo doctorRepo, DoctorMapper doctorMapper) {
+        this.doctorRepo = doctorRepo;
+        this.doctorMapper = doctorMapper;
+    }
+
+    public Snapshot snapshot() {
+        return snapshot.get();
+    }
+
+    @Scheduled(fixedDelayString = "${schedule-cache.refresh-interval:600000}")
+    public void invalidate() {
+        snapshot.invalidate();
+    }
+
+    private Snapshot build() {
+        List<DoctorDirectoryEntryDto> doctors = new ArrayList<>();
+        long hash = 1;
+        for (Object[] row : doctorRepo.findScheduleRows()) {
+            hash = 31 * hash + Arrays.deepHashCode(row);
+            Doctor doctor = DoctorRepo.scheduleOf(row);
+            doctors.add(doctorMapper.toDirectoryEntry(doctorMapper.toDto(doctor)));
+        }
+        return new Snapshot(Long.toHexString(hash), Collections.unmodifiableList(doctors));
+    }
+
+    /**
+     * The directory as of one build; {@code doctors} is shared and must not be changed.
+     */
+    public record Snapshot(String version, List<DoctorDirectoryEntryDto> doctors) {
+    }
+}
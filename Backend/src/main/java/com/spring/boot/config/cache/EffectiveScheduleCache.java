@@ -0,0 +1,86 @@
+package com.spring.boot.config.cache;
+
+import com.spring.boot.enums.DaysOfWeek;
+import com.spring.boot.model.Doctor;
+import com.spring.boot.model.DoctorScheduleException;
+import com.spring.boot.repo.DoctorScheduleExceptionRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-doctor effective schedule: the weekly template (working days and each
+ * day's hours) merged with the doctor's upcoming exception dates. Only the
+ * exceptions are cached: they are read once, on first use, and kept until one of
+ * them is edited, so booking checks never query the exceptions table. The weekly
+ * template is taken from the {@link Doctor} passed in on every call, so a caller
+ * holding a fresh doctor, such as the booking path under its row lock, never sees
+ * hours cached from an older copy.
+ */
+@Component
+public class EffectiveScheduleCache {
+
+    // an invalidated doctor's holder is dropped, so a load still running on it is not kept
+    private final Map<Long, SnapshotHolder<Map<LocalDate, WorkingHours>>> overrides = new ConcurrentHashMap<>();
+
+    private final DoctorScheduleExceptionRepo scheduleExceptionRepo;
+
+    @Autowired
+    public EffectiveScheduleCache(DoctorScheduleExceptionRepo scheduleExceptionRepo) {
+        this.scheduleExceptionRepo = scheduleExceptionRepo;
+    }
+
+    /**
+     * The doctor's hours on {@code date}, or {@code null} when the doctor does not work that day.
+     */
+    public WorkingHours hoursOn(Doctor doctor, LocalDate date) {
+        Map<LocalDate, WorkingHours> exceptions = overrides
+                .computeIfAbsent(doctor.getDoctorId(), doctorId -> new SnapshotHolder<>(() -> load(doctorId)))
+                .get();
+        return exceptions.containsKey(date) ? exceptions.get(date) : weeklyHoursOn(doctor, date);
+    }
+
+    /**
+     * The doctor's weekly template for {@code date}'s day of the week, ignoring exceptions.
+     */
+    public static WorkingHours weeklyHoursOn(Doctor doctor, LocalDate date) {
+        DaysOfWeek day = DaysOfWeek.valueOf(date.getDayOfWeek().name());
+        return doctor.worksOn(day) ? new WorkingHours(doctor.attendTimeOn(day), doctor.leaveTimeOn(day)) : null;
+    }
+
+    public void invalidate(Long doctorId) {
+        SnapshotHolder<Map<LocalDate, WorkingHours>> exceptions = overrides.remove(doctorId);
+        if (exceptions != null) {
+            exceptions.invalidate();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${schedule-cache.refresh-interval:600000}")
+    public void invalidateAll() {
+        overrides.keySet().forEach(this::invalidate);
+    }
+
+    // upcoming exception dates, null on the ones the doctor is off
+    private Map<LocalDate, WorkingHours> load(Long doctorId) {
+        List<DoctorScheduleException> exceptions = scheduleExceptionRepo
+                .findByDoctorDoctorIdAndExceptionDateGreaterThanEqualOrderByExceptionDate(doctorId, LocalDate.now());
+        Map<LocalDate, WorkingHours> byDate = new HashMap<>();
+        for (DoctorScheduleException exception : exceptions) {
+            byDate.put(exception.getExceptionDate(), Boolean.TRUE.equals(exception.getAvailable())
+                    ? new WorkingHours(exception.getAttendTime(), exception.getLeaveTime())
+                    : null);
+        }
+        return Collections.unmodifiableMap(byDate);
+    }
+
+    public record WorkingHours(LocalTime attendTime, LocalTime leaveTime) {
+    }
+}
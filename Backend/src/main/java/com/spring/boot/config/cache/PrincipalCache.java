@@ -0,0 +1,140 @@
+package com.spring.boot.config.cache;
+
+import com.spring.boot.dto.CacheStatsDto;
+import com.spring.boot.dto.UserDto;
+import com.spring.boot.helper.PrincipalCacheProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Bounded, TTL based cache of authenticated principals keyed by username,
+ * so the filter chain does not reload the user graph on every request.
+ * Entries are kept in access order, so the least recently used one is dropped
+ * in constant time when the cache is full. Like {@link SnapshotHolder}, a load
+ * that raced with an invalidation is handed to its caller but not kept.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Map<String, Entry> entries;
+
+    private final long ttlNanos;
+    private final int maxSize;
+
+    // bumped on every invalidation, so a principal loaded before an edit is not kept; guarded by this
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public PrincipalCache(PrincipalCacheProperties properties) {
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.maxSize = properties.getMaxSize();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                boolean full = size() > maxSize;
+                if (full) {
+                    evictions.increment();
+                }
+                return full;
+            }
+        };
+    }
+
+    // the cached principal, or the one loader returns, cached unless an invalidation ran meanwhile
+    public UserDto get(String username, Function<String, UserDto> loader) {
+        long seen;
+        synchronized (this) {
+            UserDto cached = cached(username);
+            if (cached != null) {
+                return cached;
+            }
+            seen = generation;
+        }
+        UserDto loaded = loader.apply(username);
+        if (loaded != null && maxSize > 0) {
+            synchronized (this) {
+                if (generation == seen) {
+                    entries.put(username, new Entry(loaded, System.nanoTime() + ttlNanos));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized void invalidate(String username) {
+        if (username != null) {
+            generation++;
+            entries.remove(username);
+        }
+    }
+
+    public void invalidateUser(Long userId) {
+        invalidateIf(user -> Objects.equals(user.getUserId(), userId));
+    }
+
+    public void invalidateDoctor(Long doctorId) {
+        invalidateIf(user -> user.getDoctor() != null
+                && Objects.equals(user.getDoctor().getDoctorId(), doctorId));
+    }
+
+    public void invalidatePatient(Long patientId) {
+        invalidateIf(user -> user.getPatient() != null
+                && Objects.equals(user.getPatient().getPatientId(), patientId));
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized CacheStatsDto getStats() {
+        return new CacheStatsDto(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    // guarded by this
+    private UserDto cached(String username) {
+        Entry entry = entries.get(username);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(username);
+            evictions.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.user;
+    }
+
+    private synchronized void invalidateIf(Predicate<UserDto> predicate) {
+        generation++;
+        entries.values().removeIf(entry -> predicate.test(entry.user));
+    }
+
+    private static final class Entry {
+        private final UserDto user;
+        private final long expiresAt;
+
+        private Entry(UserDto user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.spring.boot.config.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A value built from the database on first use and again on the first use after
+ * every {@link #invalidate()}. Readers take the current value without locking;
+ * builds are serialized, and a build that raced with an invalidation is handed to
+ * its caller but not kept, so an edit is never hidden behind a value read before it.
+ */
+final class SnapshotHolder<T> {
+
+    private final Supplier<T> builder;
+
+    // null until first use and after every invalidation
+    private volatile T value;
+    // bumped on every invalidation, so a build that raced with an edit is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    SnapshotHolder(Supplier<T> builder) {
+        this.builder = builder;
+    }
+
+    T get() {
+        T current = value;
+        return current != null ? current : build();
+    }
+
+    void invalidate() {
+        generation.incrementAndGet();
+        value = null;
+    }
+
+    private synchronized T build() {
+        T current = value;
+        if (current != null) {
+            return current;
+        }
+        long seen = generation.get();
+        current = builder.get();
+        if (generation.get() == seen) {
+            value = current;
+        }
+        return current;
+    }
+}
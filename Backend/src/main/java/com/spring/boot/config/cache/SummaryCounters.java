@@ -0,0 +1,187 @@
+package com.spring.boot.config.cache;
+
+import com.spring.boot.dto.AdminSummaryDto;
+import com.spring.boot.dto.DoctorDirectoryEntryDto;
+import com.spring.boot.dto.DoctorSummaryDto;
+import com.spring.boot.helper.PageCursor;
+import com.spring.boot.repo.AppointmentRepo;
+import com.spring.boot.repo.DoctorRepo;
+import com.spring.boot.repo.PatientRepo;
+import com.spring.boot.repo.PrescriptionRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The figures of the admin summary, kept in memory so the dashboard never reads
+ * whole tables: row totals, appointments per doctor, and appointments per doctor
+ * on each day of the current week. They are counted from the database on first
+ * use; after that the services add and take away as they write, and set-based
+ * statements whose rows are not known mark them stale instead. The periodic
+ * reconcile recounts everything, so drift from other nodes and races with the
+ * recount do not outlive one interval.
+ */
+@Component
+public class SummaryCounters {
+
+    private final DoctorRepo doctorRepo;
+    private final PatientRepo patientRepo;
+    private final AppointmentRepo appointmentRepo;
+    private final PrescriptionRepo prescriptionRepo;
+    private final DoctorDirectoryCache doctorDirectoryCache;
+
+    private final AtomicLong doctors = new AtomicLong();
+    private final AtomicLong patients = new AtomicLong();
+    private final AtomicLong appointments = new AtomicLong();
+    private final AtomicLong prescriptions = new AtomicLong();
+    private final Map<Long, AtomicLong> appointmentsByDoctor = new ConcurrentHashMap<>();
+    // only days of the week starting at weekStart
+    private final Map<DayKey, AtomicLong> appointmentsByDoctorDay = new ConcurrentHashMap<>();
+
+    // null until the first count
+    private volatile LocalDate weekStart;
+    private volatile LocalDateTime reconciledAt;
+    private volatile boolean stale = true;
+
+    @Autowired
+    public SummaryCounters(DoctorRepo doctorRepo, PatientRepo patientRepo, AppointmentRepo appointmentRepo,
+                           PrescriptionRepo prescriptionRepo, DoctorDirectoryCache doctorDirectoryCache) {
+        this.doctorRepo = doctorRepo;
+        this.patientRepo = patientRepo;
+        this.appointmentRepo = appointmentRepo;
+        this.prescriptionRepo = prescriptionRepo;
+        this.doctorDirectoryCache = doctorDirectoryCache;
+    }
+
+    public AdminSummaryDto getSummary() {
+        LocalDate today = LocalDate.now();
+        if (stale || !currentWeekStart(today).equals(weekStart)) {
+            reconcile();
+        }
+        LocalDate start = weekStart;
+
+        Map<Long, long[]> dayCounts = new HashMap<>();
+        appointmentsByDoctorDay.forEach((key, counter) -> {
+            long[] counts = dayCounts.computeIfAbsent(key.doctorId(), id -> new long[2]);
+            long count = counter.get();
+            counts[1] += count;
+            if (key.date().equals(today)) {
+                counts[0] += count;
+            }
+        });
+
+        long appointmentsToday = 0;
+        long appointmentsThisWeek = 0;
+        List<DoctorSummaryDto> perDoctor = new ArrayList<>();
+        for (DoctorDirectoryEntryDto doctor : doctorDirectoryCache.snapshot().doctors()) {
+            AtomicLong total = appointmentsByDoctor.get(doctor.getDoctorId());
+            long[] counts = dayCounts.getOrDefault(doctor.getDoctorId(), new long[2]);
+            appointmentsToday += counts[0];
+            appointmentsThisWeek += counts[1];
+            perDoctor.add(new DoctorSummaryDto(doctor.getDoctorId(), doctor.getDoctorName(),
+                    total == null ? 0 : total.get(), counts[0], counts[1]));
+        }
+        return new AdminSummaryDto(doctors.get(), patients.get(), appointments.get(), prescriptions.get(),
+                appointmentsToday, start, appointmentsThisWeek, perDoctor, reconciledAt);
+    }
+
+    public void appointmentAdded(Long doctorId, LocalDateTime date) {
+        appointmentChanged(doctorId, date, 1);
+    }
+
+    public void appointmentRemoved(Long doctorId, LocalDateTime date) {
+        appointmentChanged(doctorId, date, -1);
+    }
+
+    public void addDoctors(int delta) {
+        doctors.addAndGet(delta);
+    }
+
+    public void addPatients(int delta) {
+        patients.addAndGet(delta);
+    }
+
+    public void addPrescriptions(int delta) {
+        prescriptions.addAndGet(delta);
+    }
+
+    // for writes whose rows are not known here (set-based statements, cascades); the next read recounts
+    public void markStale() {
+        stale = true;
+    }
+
+    /**
+     * Recounts everything once it has been counted at all: the four totals, one grouped
+     * query for the per-doctor totals and one per day of the current week.
+     */
+    @Scheduled(fixedDelayString = "${admin-summary.reconcile-interval:60000}")
+    public void reconcileIfCounted() {
+        if (weekStart != null) {
+            reconcile();
+        }
+    }
+
+    private synchronized void reconcile() {
+        // cleared first, so a write marking it stale during the recount is not lost
+        stale = false;
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDate start = currentWeekStart(startedAt.toLocalDate());
+
+        doctors.set(doctorRepo.count());
+        patients.set(patientRepo.count());
+        appointments.set(appointmentRepo.count());
+        prescriptions.set(prescriptionRepo.count());
+
+        Map<Long, Long> totals = new HashMap<>();
+        for (Object[] row : appointmentRepo.countPerDoctor(PageCursor.OPEN_FROM, PageCursor.OPEN_TO)) {
+            totals.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        appointmentsByDoctor.keySet().retainAll(totals.keySet());
+        totals.forEach((doctorId, count) ->
+                appointmentsByDoctor.computeIfAbsent(doctorId, id -> new AtomicLong()).set(count));
+
+        Map<DayKey, Long> days = new HashMap<>();
+        for (int i = 0; i < 7; i++) {
+            LocalDate date = start.plusDays(i);
+            for (Object[] row : appointmentRepo.countPerDoctor(date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
+                days.put(new DayKey((Long) row[0], date), ((Number) row[1]).longValue());
+            }
+        }
+        appointmentsByDoctorDay.keySet().retainAll(days.keySet());
+        days.forEach((key, count) ->
+                appointmentsByDoctorDay.computeIfAbsent(key, k -> new AtomicLong()).set(count));
+
+        weekStart = start;
+        reconciledAt = startedAt;
+    }
+
+    private void appointmentChanged(Long doctorId, LocalDateTime date, int delta) {
+        appointments.addAndGet(delta);
+        if (doctorId == null) {
+            return;
+        }
+        appointmentsByDoctor.computeIfAbsent(doctorId, id -> new AtomicLong()).addAndGet(delta);
+        LocalDate start = weekStart;
+        LocalDate day = date.toLocalDate();
+        if (start != null && !day.isBefore(start) && day.isBefore(start.plusDays(7))) {
+            appointmentsByDoctorDay.computeIfAbsent(new DayKey(doctorId, day), key -> new AtomicLong()).addAndGet(delta);
+        }
+    }
+
+    private static LocalDate currentWeekStart(LocalDate today) {
+        return today.with(DayOfWeek.MONDAY);
+    }
+
+    private record DayKey(Long doctorId, LocalDate date) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.spring.boot.config.cache;
+
+import com.spring.boot.repo.DoctorRepo;
+import com.spring.boot.repo.PatientRepo;
+import com.spring.boot.repo.UserRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hashed sets of the values that must be unique on signup (username, email,
+ * phones, patient name). A miss is a definite "not taken" and skips the lookup
+ * query; a hit may be a hash collision or a deleted row, so it is confirmed
+ * against the database. The database constraints stay the source of truth for
+ * rows written by other nodes between two rebuilds.
+ */
+@Component
+public class UniquenessIndex {
+
+    private final UserRepo userRepo;
+    private final PatientRepo patientRepo;
+    private final DoctorRepo doctorRepo;
+
+    private volatile Index index;
+    private volatile Index building;
+
+    @Autowired
+    public UniquenessIndex(UserRepo userRepo, PatientRepo patientRepo, DoctorRepo doctorRepo) {
+        this.userRepo = userRepo;
+        this.patientRepo = patientRepo;
+        this.doctorRepo = doctorRepo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${uniqueness-index.rebuild-interval:600000}", initialDelayString = "${uniqueness-index.rebuild-interval:600000}")
+    public void rebuild() {
+        Index fresh = new Index();
+        building = fresh;
+        addAll(fresh.usernames, userRepo.findAllUsernames());
+        addAll(fresh.emails, userRepo.findAllEmails());
+        addAll(fresh.patientPhones, patientRepo.findAllPatientPhones());
+        addAll(fresh.patientNames, patientRepo.findAllPatientNames());
+        addAll(fresh.doctorPhones, doctorRepo.findAllDoctorPhones());
+        addAll(fresh.doctorNames, doctorRepo.findAllDoctorNames());
+        index = fresh;
+        building = null;
+    }
+
+    public boolean isUsernameTaken(String username) {
+        Index current = index;
+        return (current == null || current.usernames.contains(hash(username))) && userRepo.existsByUsername(username);
+    }
+
+    public boolean isEmailTaken(String email) {
+        Index current = index;
+        return (current == null || current.emails.contains(hash(email))) && userRepo.existsByEmail(email);
+    }
+
+    public boolean isPatientPhoneTaken(String phone) {
+        Index current = index;
+        return (current == null || current.patientPhones.contains(hash(phone))) && patientRepo.existsByPatientPhone(phone);
+    }
+
+    public boolean isPatientNameTaken(String patientName) {
+        Index current = index;
+        return (current == null || current.patientNames.contains(hash(patientName)))
+                && patientRepo.findPatientByPatientName(patientName).isPresent();
+    }
+
+    public boolean isDoctorPhoneTaken(String phone) {
+        Index current = index;
+        return (current == null || current.doctorPhones.contains(hash(phone))) && doctorRepo.existsByDoctorPhone(phone);
+    }
+
+    public void recordUser(String username, String email) {
+        for (Index current : targets()) {
+            add(current.usernames, username);
+            add(current.emails, email);
+        }
+    }
+
+    public void recordPatient(String patientName, String phone) {
+        for (Index current : targets()) {
+            add(current.patientNames, patientName);
+            add(current.patientPhones, phone);
+        }
+    }
+
+    public boolean isDoctorNameTaken(String doctorName) {
+        Index current = index;
+        return (current == null || current.doctorNames.contains(hash(doctorName))) && doctorRepo.existsByDoctorName(doctorName);
+    }
+
+    public void recordDoctor(String doctorName, String phone) {
+        for (Index current : targets()) {
+            add(current.doctorNames, doctorName);
+            add(current.doctorPhones, phone);
+        }
+    }
+
+    // writes that race with a rebuild go to both copies so the swap cannot lose them
+    private List<Index> targets() {
+        Index current = index;
+        Index next = building;
+        if (next == null || next == current) {
+            return current == null ? List.of() : List.of(current);
+        }
+        return current == null ? List.of(next) : List.of(current, next);
+    }
+
+    private static void addAll(Set<Long> set, List<String> values) {
+        for (String value : values) {
+            add(set, value);
+        }
+    }
+
+    private static void add(Set<Long> set, String value) {
+        if (value != null) {
+            set.add(hash(value));
+        }
+    }
+
+    // 64-bit FNV-1a, collisions only cost a confirming query
+    private static long hash(String value) {
+        if (value == null) {
+            return 0L;
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static final class Index {
+        private final Set<Long> usernames = ConcurrentHashMap.newKeySet();
+        private final Set<Long> emails = ConcurrentHashMap.newKeySet();
+        private final Set<Long> patientPhones = ConcurrentHashMap.newKeySet();
+        private final Set<Long> patientNames = ConcurrentHashMap.newKeySet();
+        private final Set<Long> doctorPhones = ConcurrentHashMap.newKeySet();
+        private final Set<Long> doctorNames = ConcurrentHashMap.newKeySet();
+    }
+}
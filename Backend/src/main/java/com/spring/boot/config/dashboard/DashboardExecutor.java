@@ -0,0 +1,89 @@
+package com.spring.boot.config.dashboard;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The small pool the dashboard endpoints read their lists on, so one request's
+ * queries run side by side. Each task gets a read-only transaction of its own, as
+ * pool threads have no open session. When the queue is full, or the reads take
+ * longer than {@code dashboard.timeout}, the call fails fast with
+ * {@code server.busy}, like password hashing does.
+ */
+@Component
+public class DashboardExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final long timeoutNanos;
+
+    @Autowired
+    public DashboardExecutor(PlatformTransactionManager transactionManager,
+                             @Value("${dashboard.threads:4}") int threads,
+                             @Value("${dashboard.queue-capacity:64}") int queueCapacity,
+                             @Value("${dashboard.timeout:5s}") Duration timeout) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.timeoutNanos = timeout.toNanos();
+
+        int poolSize = Math.max(1, threads);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    throw new RejectedExecutionException("server.busy");
+                });
+    }
+
+    /**
+     * Runs {@code task} on the pool in a read-only transaction; entities must be
+     * mapped inside it.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> task.get()), executor);
+    }
+
+    /**
+     * Waits for all the tasks, rethrowing the first failure as it was thrown.
+     */
+    public void await(CompletableFuture<?>... tasks) {
+        try {
+            CompletableFuture.allOf(tasks).get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new RejectedExecutionException("server.busy");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("server.busy");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
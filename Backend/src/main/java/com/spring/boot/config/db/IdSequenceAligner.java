@@ -0,0 +1,89 @@
+package com.spring.boot.config.db;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Entities used to take their ids from IDENTITY columns and now draw them from
+ * pooled sequences (allocation 50), which lets Hibernate batch inserts. On a
+ * database created before the switch the new sequences would start below the
+ * existing ids and the columns would still refuse explicit ids, so on Oracle this
+ * drops the identity property and moves each sequence past the largest id once,
+ * before the first insert. Other databases are left alone.
+ */
+@Component
+public class IdSequenceAligner {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String[]> SEQUENCES = List.of(
+            new String[]{"USERS", "USER_ID", "USERS_SEQ"},
+            new String[]{"DOCTOR", "DOCTOR_ID", "DOCTOR_SEQ"},
+            new String[]{"PATIENT", "PATIENT_ID", "PATIENT_SEQ"},
+            new String[]{"APPOINTMENT", "APPOINTMENT_ID", "APPOINTMENT_SEQ"},
+            new String[]{"PRESCRIPTION", "PRESCRIPTION_ID", "PRESCRIPTION_SEQ"},
+            new String[]{"REFRESH_SESSIONS", "SESSION_ID", "REFRESH_SESSIONS_SEQ"}
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final boolean enabled;
+
+    // the EntityManagerFactory is only here so schema update has created the sequences first
+    @Autowired
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate, DataSource dataSource, EntityManagerFactory entityManagerFactory,
+                             @Value("${id-sequences.align-on-startup:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void align() throws SQLException {
+        if (!enabled || !isOracle()) {
+            return;
+        }
+        for (String[] sequence : SEQUENCES) {
+            String table = sequence[0];
+            String idColumn = sequence[1];
+            String sequenceName = sequence[2];
+
+            Integer identity = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM user_tab_identity_cols WHERE table_name = ? AND column_name = ?",
+                    Integer.class, table, idColumn);
+            if (identity != null && identity > 0) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " MODIFY " + idColumn + " DROP IDENTITY");
+                log.info("Dropped identity from {}.{}", table, idColumn);
+            }
+
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table, Long.class);
+            List<Long> lastNumber = jdbcTemplate.queryForList(
+                    "SELECT last_number FROM user_sequences WHERE sequence_name = ?", Long.class, sequenceName);
+            // the pooled optimizer hands out (value - 49 .. value), so the whole first block must clear maxId
+            long start = (maxId == null ? 0 : maxId) + ALLOCATION_SIZE + 1;
+            if (!lastNumber.isEmpty() && maxId != null && maxId > 0 && lastNumber.get(0) < start) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequenceName + " RESTART START WITH " + start);
+                log.info("Moved {} to {} past existing ids", sequenceName, start);
+            }
+        }
+    }
+
+    private boolean isOracle() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getDatabaseProductName().toLowerCase().contains("oracle");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.spring.boot.config.db;
+
+import com.spring.boot.enums.DaysOfWeek;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Working days used to live in the doctor_working_days collection table and now
+ * live in doctor.working_days_mask. On a database created before the switch this
+ * fills the mask of every doctor that has none yet from the old table, once, before
+ * the first request. The old table is left in place.
+ */
+@Component
+public class WorkingDaysMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkingDaysMigrator.class);
+
+    private static final String OLD_TABLE = "DOCTOR_WORKING_DAYS";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    // the EntityManagerFactory is only here so schema update has added the mask column first
+    @Autowired
+    public WorkingDaysMigrator(JdbcTemplate jdbcTemplate, DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void migrate() throws SQLException {
+        if (!oldTableExists()) {
+            return;
+        }
+        StringBuilder bits = new StringBuilder("CASE w.working_days");
+        for (DaysOfWeek day : DaysOfWeek.values()) {
+            bits.append(" WHEN '").append(day.name()).append("' THEN ").append(1 << day.ordinal());
+        }
+        bits.append(" ELSE 0 END");
+
+        int migrated = jdbcTemplate.update(
+                "UPDATE doctor d SET working_days_mask = (SELECT COALESCE(SUM(DISTINCT " + bits + "), 0)"
+                        + " FROM doctor_working_days w WHERE w.doctor_id = d.doctor_id)"
+                        + " WHERE d.working_days_mask IS NULL");
+        if (migrated > 0) {
+            log.info("Moved working days of {} doctors into working_days_mask", migrated);
+        }
+    }
+
+    private boolean oldTableExists() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String name : new String[]{OLD_TABLE, OLD_TABLE.toLowerCase()}) {
+                try (ResultSet tables = metaData.getTables(null, connection.getSchema(), name, new String[]{"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
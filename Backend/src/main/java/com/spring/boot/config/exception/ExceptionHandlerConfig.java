@@ -3,6 +3,8 @@ package com.spring.boot.config.exception;
 import com.spring.boot.helper.MessageResponse;
 import com.spring.boot.service.impl.BundleMessageService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -11,6 +13,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class ExceptionHandlerConfig {
@@ -24,6 +27,24 @@ public class ExceptionHandlerConfig {
 
     }
 
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<MessageResponse> handleDataIntegrityViolationException(DataIntegrityViolationException exception) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(bundleMessageService.getMessage("data.already.exists"));
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<MessageResponse> handleTooManyRequestsException(TooManyRequestsException exception) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(bundleMessageService.getMessage(exception.getMessage()));
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<MessageResponse> handleRejectedExecutionException(RejectedExecutionException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(bundleMessageService.getMessage("server.busy"));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<List<MessageResponse>> handleRuntimeException(MethodArgumentNotValidException exception){
 
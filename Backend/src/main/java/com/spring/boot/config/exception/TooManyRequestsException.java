@@ -0,0 +1,8 @@
+package com.spring.boot.config.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
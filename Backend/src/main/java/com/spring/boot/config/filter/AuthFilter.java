@@ -1,6 +1,7 @@
 package com.spring.boot.config.filter;
 
 import com.spring.boot.config.jwt.TokenHandler;
+import com.spring.boot.config.security.CallerIdentity;
 import com.spring.boot.repo.UserRepo;
 import com.spring.boot.dto.UserDto;
 import com.spring.boot.model.User;
@@ -48,6 +49,9 @@ public class AuthFilter extends OncePerRequestFilter {
                         List.of(new SimpleGrantedAuthority("ROLE_" + userDto.getRole().toUpperCase().trim()));
                 UsernamePasswordAuthenticationToken auth =
                         new UsernamePasswordAuthenticationToken(userDto, null, roles);
+                auth.setDetails(new CallerIdentity(userDto.getUserId(),
+                        userDto.getDoctor() != null ? userDto.getDoctor().getDoctorId() : null,
+                        userDto.getPatient() != null ? userDto.getPatient().getPatientId() : null));
                 System.out.println("Roles in token: " + roles);
                 SecurityContextHolder.getContext().setAuthentication(auth);
                 System.out.println("Auth set: " + auth.getPrincipal() + " | Roles: " + roles);
@@ -74,6 +78,6 @@ public class AuthFilter extends OncePerRequestFilter {
         System.out.println("shouldNotFilter: " + request.getRequestURI());
         System.out.println("Passed security config: " + request.getRequestURI());
 
-        return uri.startsWith("/auth/");
+        return uri.startsWith("/auth/") && !uri.equals("/auth/logout");
     }
 }
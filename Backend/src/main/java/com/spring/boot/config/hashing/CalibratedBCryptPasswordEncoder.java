@@ -0,0 +1,91 @@
+package com.spring.boot.config.hashing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder whose work factor is picked on the current hardware, so one
+ * hash costs about the configured target time wherever the app is deployed.
+ * The cost never drops below 10, even where that takes longer than the target.
+ * Any stored hash with a different cost is reported as needing an upgrade.
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(CalibratedBCryptPasswordEncoder.class);
+
+    // OWASP's minimum; slower hardware gets a slower hash rather than a weaker one
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+    private static final int RUNS_PER_STRENGTH = 5;
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$.{53}$");
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return false;
+        }
+        return Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    public static CalibratedBCryptPasswordEncoder calibrate(Duration targetTime) {
+        long target = targetTime.toNanos();
+        String sample = "calibration-sample";
+
+        // warm up the JIT so the first measurement is not inflated
+        new BCryptPasswordEncoder(MIN_STRENGTH).encode(sample);
+
+        int strength = MIN_STRENGTH;
+        long previous = 0;
+        long elapsed = time(strength, sample);
+        while (elapsed < target && strength < MAX_STRENGTH) {
+            previous = elapsed;
+            strength++;
+            elapsed = time(strength, sample);
+        }
+        // each step doubles the cost, keep whichever of the last two is closer to the target
+        if (strength > MIN_STRENGTH && elapsed >= target
+                && (double) elapsed / target > (double) target / Math.max(1, previous)) {
+            strength--;
+            elapsed = previous;
+        }
+        if (strength == MIN_STRENGTH) {
+            log.warn("BCrypt strength {} is the floor: a hash takes {} ms against a target of {} ms",
+                    strength, elapsed / 1_000_000, targetTime.toMillis());
+        }
+        return new CalibratedBCryptPasswordEncoder(strength);
+    }
+
+    // the median of several hashes, so one GC pause or descheduling does not pick the cost
+    private static long time(int strength, String sample) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long[] runs = new long[RUNS_PER_STRENGTH];
+        for (int i = 0; i < runs.length; i++) {
+            long start = System.nanoTime();
+            encoder.encode(sample);
+            runs[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(runs);
+        return runs[runs.length / 2];
+    }
+}
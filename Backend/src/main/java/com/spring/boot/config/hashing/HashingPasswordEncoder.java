@@ -0,0 +1,122 @@
+package com.spring.boot.config.hashing;
+
+import com.spring.boot.dto.HashingStatsDto;
+import com.spring.boot.helper.PasswordHashingProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the (deliberately slow) password hashing on its own bounded pool instead of
+ * the request threads. When the queue is full the call fails fast with
+ * {@code server.busy} so a login burst cannot starve the rest of the API.
+ */
+public class HashingPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+    private final int queueCapacity;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+
+    public HashingPasswordEncoder(PasswordEncoder delegate, PasswordHashingProperties properties) {
+        this.delegate = delegate;
+        this.timeoutNanos = properties.getTimeout().toNanos();
+        this.queueCapacity = properties.getQueueCapacity();
+
+        int threads = Math.max(1, properties.getThreads());
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("server.busy");
+                });
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * The underlying encoder, for bulk jobs that bring their own threads and must not
+     * compete with logins for the bounded queue.
+     */
+    public PasswordEncoder getDelegate() {
+        return delegate;
+    }
+
+    public HashingStatsDto getStats() {
+        long count = completed.sum();
+        return new HashingStatsDto(
+                executor.getQueue().size(),
+                queueCapacity,
+                executor.getActiveCount(),
+                count,
+                rejected.sum(),
+                count == 0 ? 0 : waitNanos.sum() / 1_000_000.0 / count,
+                count == 0 ? 0 : hashNanos.sum() / 1_000_000.0 / count,
+                maxHashNanos.get() / 1_000_000.0);
+    }
+
+    private <T> T submit(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future = executor.submit(() -> {
+            long startedAt = System.nanoTime();
+            try {
+                return task.call();
+            } finally {
+                long elapsed = System.nanoTime() - startedAt;
+                waitNanos.add(startedAt - submittedAt);
+                hashNanos.add(elapsed);
+                maxHashNanos.accumulate(elapsed);
+                completed.increment();
+            }
+        });
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RejectedExecutionException("server.busy");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("server.busy");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
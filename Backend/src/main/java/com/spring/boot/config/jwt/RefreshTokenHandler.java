@@ -0,0 +1,116 @@
+package com.spring.boot.config.jwt;
+
+import com.spring.boot.dto.DoctorDto;
+import com.spring.boot.dto.PatientDto;
+import com.spring.boot.dto.UserDto;
+import com.spring.boot.helper.JwtToken;
+import com.spring.boot.model.RefreshSession;
+import com.spring.boot.service.SessionStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Issues opaque refresh tokens and redeems them for a new access token.
+ * Only a SHA-256 of the token is stored, and everything needed to mint the
+ * access token is kept on the session, so a refresh costs one store lookup
+ * instead of a password check.
+ */
+@Component
+public class RefreshTokenHandler {
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final Duration refreshTime;
+
+    private final SessionStore sessionStore;
+
+    private final TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    public RefreshTokenHandler(JwtToken jwtToken, SessionStore sessionStore, TokenVersionRegistry tokenVersionRegistry) {
+        this.refreshTime = jwtToken.getRefreshTime();
+        this.sessionStore = sessionStore;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+    }
+
+    public String createRefreshToken(UserDto userDto) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshSession session = new RefreshSession();
+        session.setTokenHash(hash(refreshToken));
+        session.setUserId(userDto.getUserId());
+        session.setUsername(userDto.getUsername());
+        session.setRole(userDto.getRole());
+        session.setDoctorId(userDto.getDoctor() != null ? userDto.getDoctor().getDoctorId() : null);
+        session.setPatientId(userDto.getPatient() != null ? userDto.getPatient().getPatientId() : null);
+        session.setTokenVersion(tokenVersionRegistry.currentVersion(userDto.getUserId()));
+        session.setExpiresAt(Instant.now().plus(refreshTime));
+        sessionStore.save(session);
+
+        return refreshToken;
+    }
+
+    /**
+     * Redeems the refresh token and returns the principal it was issued for, or
+     * {@code null} if it is unknown, expired or revoked. The token cannot be used again.
+     */
+    public UserDto redeem(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return null;
+        }
+        RefreshSession session = sessionStore.consume(hash(refreshToken)).orElse(null);
+        if (session == null || session.getExpiresAt().isBefore(Instant.now())) {
+            return null;
+        }
+        int version = session.getTokenVersion() == null ? 0 : session.getTokenVersion();
+        if (!tokenVersionRegistry.isCurrent(session.getUserId(), version)) {
+            return null;
+        }
+
+        UserDto userDto = new UserDto();
+        userDto.setUserId(session.getUserId());
+        userDto.setUsername(session.getUsername());
+        userDto.setRole(session.getRole());
+        if (session.getDoctorId() != null) {
+            DoctorDto doctor = new DoctorDto();
+            doctor.setDoctorId(session.getDoctorId());
+            userDto.setDoctor(doctor);
+        }
+        if (session.getPatientId() != null) {
+            PatientDto patient = new PatientDto();
+            patient.setPatientId(session.getPatientId());
+            userDto.setPatient(patient);
+        }
+        return userDto;
+    }
+
+    public void revokeUser(Long userId) {
+        sessionStore.revokeUser(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${token.purge-interval:300000}")
+    public void purgeExpired() {
+        sessionStore.purgeExpired(Instant.now());
+    }
+
+    private static String hash(String refreshToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.spring.boot.config.jwt;
 
+import com.spring.boot.config.cache.PrincipalCache;
+import com.spring.boot.dto.DoctorDto;
+import com.spring.boot.dto.PatientDto;
 import com.spring.boot.dto.UserDto;
 import com.spring.boot.helper.JwtToken;
 import com.spring.boot.service.UserService;
@@ -7,6 +10,7 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.hibernate.validator.internal.util.stereotypes.Lazy;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,7 +21,7 @@ import java.security.Key;
 import java.time.Duration;
 import java.util.Date;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
@@ -26,36 +30,61 @@ public class TokenHandler {
 
     private Duration time;
 
-    private JwtBuilder jwtBuilder;
+    private boolean stateless;
 
-    private JwtParser jwtParser;
+    // immutable, shared by every thread; a builder is created per token
+    private final Key key;
+
+    private final SignatureAlgorithm algorithm;
+
+    private final Map<String, Object> header;
+
+    private final JwtParser jwtParser;
 
     private UserService userService;
 
+    private PrincipalCache principalCache;
+
+    private TokenVersionRegistry tokenVersionRegistry;
+
 
     @Autowired
-    public TokenHandler( JwtToken jwtToken,UserService userService){
+    public TokenHandler( JwtToken jwtToken,UserService userService,PrincipalCache principalCache,
+                         TokenVersionRegistry tokenVersionRegistry){
         this.userService = userService;
+        this.principalCache = principalCache;
+        this.tokenVersionRegistry = tokenVersionRegistry;
 
         this.secret = jwtToken.getSecret();
         this.time = jwtToken.getTime();
+        this.stateless = jwtToken.isStateless();
 
-        Key key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-        jwtBuilder = Jwts.builder().signWith(key);
-        jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.algorithm = SignatureAlgorithm.forSigningKey(key);
+        this.header = Map.of("typ", "JWT", "alg", algorithm.getValue());
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     public String createToken(UserDto userDto){
         Date issueData = new Date(); // 1/11/2025
         Date expiryData = Date.from(issueData.toInstant().plus(time)); // 1/12/2025
 
-        jwtBuilder.setSubject(userDto.getUsername());
-        jwtBuilder.setIssuedAt(issueData);
-        jwtBuilder.setExpiration(expiryData);
-        String role = userDto.getRole();
-        jwtBuilder.claim("role", role);
+        JwtBuilder jwtBuilder = Jwts.builder()
+                .setHeaderParams(header)
+                .setSubject(userDto.getUsername())
+                .setIssuedAt(issueData)
+                .setExpiration(expiryData)
+                .claim("role", userDto.getRole())
+                .claim("uid", userDto.getUserId())
+                .claim("ver", tokenVersionRegistry.currentVersion(userDto.getUserId()));
+        if (userDto.getDoctor() != null) {
+            jwtBuilder.claim("doctorId", userDto.getDoctor().getDoctorId());
+        }
+        if (userDto.getPatient() != null) {
+            jwtBuilder.claim("patientId", userDto.getPatient().getPatientId());
+        }
 
-        return jwtBuilder.compact();
+        return jwtBuilder.signWith(key, algorithm).compact();
     }
 
     public UserDto validateToken(String token){
@@ -69,18 +98,49 @@ public class TokenHandler {
             Date expiryData = claims.getExpiration();
             String userName = claims.getSubject();
 
-            UserDto userDto = userService.getUserByUsername(userName);
-
-
             boolean isActiveToken = expiryData.after(issueData) &&  expiryData.after(new Date());
+            if (!isActiveToken) {
+                return null;
+            }
 
-            if (isActiveToken && Objects.nonNull(userDto)) {
-                return userDto;
+            Long userId = claims.get("uid", Long.class);
+            Integer version = claims.get("ver", Integer.class);
+            if (userId != null && !tokenVersionRegistry.isCurrent(userId, version == null ? 0 : version)) {
+                return null;
             }
 
-            return null;
+            if (stateless && userId != null) {
+                return fromClaims(claims, userId);
+            }
+
+            return principalCache.get(userName, username -> {
+                UserDto userDto = userService.getUserByUsername(username);
+                userDto.setPassword(null);
+                return userDto;
+            });
         } catch (Exception exception) {
             return null;
         }
     }
+
+    private UserDto fromClaims(Claims claims, Long userId) {
+        UserDto userDto = new UserDto();
+        userDto.setUserId(userId);
+        userDto.setUsername(claims.getSubject());
+        userDto.setRole(claims.get("role", String.class));
+
+        Long doctorId = claims.get("doctorId", Long.class);
+        if (doctorId != null) {
+            DoctorDto doctor = new DoctorDto();
+            doctor.setDoctorId(doctorId);
+            userDto.setDoctor(doctor);
+        }
+        Long patientId = claims.get("patientId", Long.class);
+        if (patientId != null) {
+            PatientDto patient = new PatientDto();
+            patient.setPatientId(patientId);
+            userDto.setPatient(patient);
+        }
+        return userDto;
+    }
 }
@@ -0,0 +1,75 @@
+package com.spring.boot.config.jwt;
+
+import com.spring.boot.repo.UserRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of every user's token version. A token is only accepted while
+ * the version it was minted with is still the current one, so bumping the
+ * version (logout) or removing the user revokes all of their tokens.
+ * The map is re-read from the database in the background, which bounds how
+ * long a revocation made on another node takes to be seen here.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    // cached for user ids that have no row, until the next refresh; real versions start at 0
+    private static final Integer NO_USER = -1;
+
+    private final UserRepo userRepo;
+
+    private volatile Map<Long, Integer> versions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TokenVersionRegistry(UserRepo userRepo) {
+        this.userRepo = userRepo;
+    }
+
+    public int currentVersion(Long userId) {
+        Integer version = versions.get(userId);
+        return version == null || NO_USER.equals(version) ? 0 : version;
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        if (userId == null) {
+            return false;
+        }
+        Integer version = versions.get(userId);
+        if (version == null) {
+            // unknown here: a user created after the last refresh or one that was deleted
+            version = userRepo.findTokenVersion(userId).map(v -> v == null ? 0 : v).orElse(NO_USER);
+            versions.put(userId, version);
+        }
+        return !NO_USER.equals(version) && version == tokenVersion;
+    }
+
+    public void register(Long userId, Integer tokenVersion) {
+        versions.put(userId, tokenVersion == null ? 0 : tokenVersion);
+    }
+
+    public void revoke(Long userId) {
+        userRepo.incrementTokenVersion(userId);
+        userRepo.findTokenVersion(userId).ifPresent(v -> register(userId, v));
+    }
+
+    public void remove(Long userId) {
+        versions.put(userId, NO_USER);
+    }
+
+    @Scheduled(fixedDelayString = "${token.version-refresh:30000}")
+    public void refresh() {
+        List<Object[]> rows = userRepo.findAllTokenVersions();
+        Map<Long, Integer> fresh = new ConcurrentHashMap<>(Math.max(16, rows.size() * 2));
+        for (Object[] row : rows) {
+            fresh.put((Long) row[0], Objects.isNull(row[1]) ? 0 : ((Number) row[1]).intValue());
+        }
+        versions = fresh;
+    }
+}
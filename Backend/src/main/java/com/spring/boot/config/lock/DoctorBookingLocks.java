@@ -0,0 +1,52 @@
+package com.spring.boot.config.lock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks striped by doctor id. Bookings for the same doctor on this
+ * node queue here instead of each holding a connection while waiting on the
+ * doctor's row lock, and bookings for different doctors rarely share a stripe.
+ * The row lock is still what serializes bookings across nodes.
+ */
+@Component
+public class DoctorBookingLocks {
+
+    private final Lock[] stripes;
+    private final long timeoutNanos;
+
+    @Autowired
+    public DoctorBookingLocks(@Value("${booking.lock-stripes:64}") int stripes,
+                              @Value("${booking.lock-timeout:5s}") Duration timeout) {
+        int count = Integer.highestOneBit(Math.max(1, stripes));
+        this.stripes = new Lock[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * Acquires the doctor's stripe, or throws {@code server.busy} if it cannot be
+     * had within the timeout. The caller must unlock the returned lock.
+     */
+    public Lock lock(Long doctorId) {
+        Lock lock = stripes[Long.hashCode(doctorId * 0x9E3779B97F4A7C15L) & (stripes.length - 1)];
+        try {
+            if (!lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new RejectedExecutionException("server.busy");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("server.busy");
+        }
+        return lock;
+    }
+}
@@ -0,0 +1,16 @@
+package com.spring.boot.config.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable ids of the authenticated caller, resolved once per request in
+ * the auth filter and attached to the authentication as its details.
+ */
+@Getter
+@AllArgsConstructor
+public class CallerIdentity {
+    private final Long userId;
+    private final Long doctorId;
+    private final Long patientId;
+}
@@ -0,0 +1,89 @@
+package com.spring.boot.config.security;
+
+import com.spring.boot.model.Patient;
+import com.spring.boot.repo.AppointmentRepo;
+import com.spring.boot.repo.PatientRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Ownership checks for {@code @PreAuthorize}, e.g.
+ * {@code @ownership.isPatient(#patientId)}. They compare path variables with the
+ * ids carried by the caller's token; only the checks on requests that carry no
+ * doctor or patient id (a series, a patient named in the body) read the database.
+ */
+@Component("ownership")
+public class OwnershipGuard {
+
+    private final AppointmentRepo appointmentRepo;
+    private final PatientRepo patientRepo;
+
+    @Autowired
+    public OwnershipGuard(AppointmentRepo appointmentRepo, PatientRepo patientRepo) {
+        this.appointmentRepo = appointmentRepo;
+        this.patientRepo = patientRepo;
+    }
+
+    public boolean isPatient(Long patientId) {
+        CallerIdentity caller = currentCaller();
+        return caller != null && caller.getPatientId() != null && Objects.equals(caller.getPatientId(), patientId);
+    }
+
+    public boolean isDoctor(Long doctorId) {
+        CallerIdentity caller = currentCaller();
+        return caller != null && caller.getDoctorId() != null && Objects.equals(caller.getDoctorId(), doctorId);
+    }
+
+    /**
+     * True when the patient a booking names resolves, the way the booking path
+     * resolves it, to the caller's own patient record.
+     */
+    public boolean isPatientNamed(String patientName) {
+        CallerIdentity caller = currentCaller();
+        if (caller == null || caller.getPatientId() == null || patientName == null) {
+            return false;
+        }
+        return patientRepo.findPatientByPatientName(patientName)
+                .map(Patient::getPatientId)
+                .filter(patientId -> patientId.equals(caller.getPatientId()))
+                .isPresent();
+    }
+
+    /**
+     * True when every upcoming occurrence of the series is the caller's own
+     * appointment as a patient; an unknown series is left to the service to refuse.
+     */
+    public boolean isSeriesPatient(String seriesId) {
+        CallerIdentity caller = currentCaller();
+        if (caller == null || caller.getPatientId() == null) {
+            return false;
+        }
+        return seriesParties(seriesId).stream().allMatch(party -> Objects.equals(party[1], caller.getPatientId()));
+    }
+
+    public boolean isSeriesDoctor(String seriesId) {
+        CallerIdentity caller = currentCaller();
+        if (caller == null || caller.getDoctorId() == null) {
+            return false;
+        }
+        return seriesParties(seriesId).stream().allMatch(party -> Objects.equals(party[0], caller.getDoctorId()));
+    }
+
+    private List<Object[]> seriesParties(String seriesId) {
+        return appointmentRepo.findSeriesParties(seriesId, LocalDateTime.now());
+    }
+
+    private CallerIdentity currentCaller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getDetails() instanceof CallerIdentity caller) {
+            return caller;
+        }
+        return null;
+    }
+}
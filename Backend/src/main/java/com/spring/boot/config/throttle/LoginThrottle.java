@@ -0,0 +1,145 @@
+package com.spring.boot.config.throttle;
+
+import com.spring.boot.config.exception.TooManyRequestsException;
+import com.spring.boot.helper.LoginThrottleProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets for login attempts, one per username and one per client address.
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be
+ * full again (GCRA), so taking a token is one CAS and never blocks. Buckets are
+ * spread over a fixed number of bounded stripes and dropped once they have fully
+ * refilled; a full stripe gives up its oldest bucket, which keeps memory bounded
+ * under a spray of random usernames without locking new usernames out.
+ */
+@Component
+public class LoginThrottle {
+
+    private final boolean enabled;
+
+    private final long usernameInterval;
+    private final long usernameTolerance;
+    private final long ipInterval;
+    private final long ipTolerance;
+
+    private final int maxEntriesPerStripe;
+    private final Map<String, AtomicLong>[] stripes;
+
+    @Autowired
+    @SuppressWarnings("unchecked")
+    public LoginThrottle(LoginThrottleProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.usernameInterval = properties.getUsernameRefill().toNanos();
+        this.usernameTolerance = usernameInterval * Math.max(0, properties.getUsernameBurst() - 1);
+        this.ipInterval = properties.getIpRefill().toNanos();
+        this.ipTolerance = ipInterval * Math.max(0, properties.getIpBurst() - 1);
+        this.maxEntriesPerStripe = properties.getMaxEntriesPerStripe();
+
+        int count = Integer.highestOneBit(Math.max(1, properties.getStripes()));
+        this.stripes = new Map[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Takes one token from both the username and the address bucket, or throws
+     * {@code login.too.many.attempts} without touching the database or the encoder.
+     * Both buckets are checked before either is charged, so an attempt refused by
+     * one does not cost a token of the other.
+     */
+    public void acquire(String username, String remoteAddress) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        String ipKey = "ip:" + remoteAddress;
+        String userKey = "u:" + (username == null ? "" : username.trim().toLowerCase(Locale.ROOT));
+        AtomicLong ipBucket = bucket(ipKey, now);
+        AtomicLong userBucket = bucket(userKey, now);
+        if (!allows(ipBucket, now, ipTolerance)
+                || !allows(userBucket, now, usernameTolerance)) {
+            throw new TooManyRequestsException("login.too.many.attempts");
+        }
+        if (!tryAcquire(ipBucket, now, ipInterval, ipTolerance)) {
+            throw new TooManyRequestsException("login.too.many.attempts");
+        }
+        if (!tryAcquire(userBucket, now, usernameInterval, usernameTolerance)) {
+            // lost to a concurrent attempt on the same username; give the address its token back
+            ipBucket.addAndGet(-ipInterval);
+            throw new TooManyRequestsException("login.too.many.attempts");
+        }
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        Map<String, AtomicLong> stripe = stripeFor(key);
+        AtomicLong bucket = stripe.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.size() >= maxEntriesPerStripe) {
+            evictIdle(stripe, now);
+            if (stripe.size() >= maxEntriesPerStripe) {
+                // never fail closed on a full stripe: drop the bucket nearest to refilled instead
+                evictOldest(stripe);
+            }
+        }
+        return stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private static boolean allows(AtomicLong bucket, long now, long tolerance) {
+        return Math.max(bucket.get() - now, 0) <= tolerance;
+    }
+
+    private static boolean tryAcquire(AtomicLong bucket, long now, long interval, long tolerance) {
+        while (true) {
+            long theoreticalArrival = bucket.get();
+            long next = Math.max(theoreticalArrival - now, 0) + now + interval;
+            if (next - now > tolerance + interval) {
+                return false;
+            }
+            if (bucket.compareAndSet(theoreticalArrival, next)) {
+                return true;
+            }
+        }
+    }
+
+    private Map<String, AtomicLong> stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static void evictIdle(Map<String, AtomicLong> stripe, long now) {
+        stripe.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    private static void evictOldest(Map<String, AtomicLong> stripe) {
+        String oldestKey = null;
+        long oldest = Long.MAX_VALUE;
+        for (Map.Entry<String, AtomicLong> entry : stripe.entrySet()) {
+            long theoreticalArrival = entry.getValue().get();
+            if (oldestKey == null || theoreticalArrival - oldest < 0) {
+                oldestKey = entry.getKey();
+                oldest = theoreticalArrival;
+            }
+        }
+        if (oldestKey != null) {
+            stripe.remove(oldestKey);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${login-throttle.sweep-interval:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        for (Map<String, AtomicLong> stripe : stripes) {
+            evictIdle(stripe, now);
+        }
+    }
+}
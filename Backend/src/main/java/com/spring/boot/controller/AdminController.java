@@ -0,0 +1,55 @@
+package com.spring.boot.controller;
+
+import com.spring.boot.config.cache.PrincipalCache;
+import com.spring.boot.config.cache.SummaryCounters;
+import com.spring.boot.config.hashing.HashingPasswordEncoder;
+import com.spring.boot.dto.AdminSummaryDto;
+import com.spring.boot.dto.CacheStatsDto;
+import com.spring.boot.dto.HashingStatsDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "http://localhost:5174/")
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    private final PrincipalCache principalCache;
+    private final HashingPasswordEncoder passwordEncoder;
+    private final SummaryCounters summaryCounters;
+
+    @Autowired
+    public AdminController(PrincipalCache principalCache, HashingPasswordEncoder passwordEncoder,
+                           SummaryCounters summaryCounters) {
+        this.principalCache = principalCache;
+        this.passwordEncoder = passwordEncoder;
+        this.summaryCounters = summaryCounters;
+    }
+
+    @GetMapping("/metrics/principal-cache")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<CacheStatsDto> getPrincipalCacheStats() {
+        return ResponseEntity.ok().body(principalCache.getStats());
+    }
+
+    @DeleteMapping("/metrics/principal-cache")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<Void> clearPrincipalCache() {
+        principalCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/metrics/password-hashing")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<HashingStatsDto> getPasswordHashingStats() {
+        return ResponseEntity.ok().body(passwordEncoder.getStats());
+    }
+
+    @GetMapping("/summary")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<AdminSummaryDto> getSummary() {
+        return ResponseEntity.ok().body(summaryCounters.getSummary());
+    }
+}
@@ -1,30 +1,66 @@
 package com.spring.boot.controller;
 
 import com.spring.boot.dto.AppointmentDto;
+import com.spring.boot.dto.AppointmentSeriesDto;
+import com.spring.boot.dto.AutoBookingDto;
+import com.spring.boot.dto.BulkReportDto;
+import com.spring.boot.dto.CursorPageDto;
+import com.spring.boot.dto.FreeSlotDto;
+import com.spring.boot.dto.ScheduleChangeDto;
 import com.spring.boot.model.Appointment;
+import com.spring.boot.service.AppointmentImportService;
+import com.spring.boot.service.AppointmentSeriesService;
 import com.spring.boot.service.AppointmentService;
+import com.spring.boot.service.AutoBookingService;
+import com.spring.boot.service.SlotService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @CrossOrigin(origins = "http://localhost:5174/")
 @RestController
 public class AppointmentController {
     private AppointmentService appointmentService;
+    private SlotService slotService;
+    private AppointmentImportService appointmentImportService;
+    private AppointmentSeriesService appointmentSeriesService;
+    private AutoBookingService autoBookingService;
 
     @Autowired
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService, SlotService slotService,
+                                 AppointmentImportService appointmentImportService,
+                                 AppointmentSeriesService appointmentSeriesService,
+                                 AutoBookingService autoBookingService) {
         this.appointmentService = appointmentService;
+        this.slotService = slotService;
+        this.appointmentImportService = appointmentImportService;
+        this.appointmentSeriesService = appointmentSeriesService;
+        this.autoBookingService = autoBookingService;
     }
 
     @GetMapping("/appointments")
     @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<CursorPageDto<AppointmentDto>> getAppointmentsPage(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                             @RequestParam(required = false) Long doctorId,
+                                                                             @RequestParam(required = false) Long patientId,
+                                                                             @RequestParam(required = false) String sort,
+                                                                             @RequestParam(required = false) String cursor,
+                                                                             @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok().body(appointmentService.getAppointmentsPage(from, to, doctorId, patientId, sort, cursor, size));
+    }
+
+    @GetMapping(value = "/appointments", params = "unpaged=true")
+    @PreAuthorize("hasAnyRole('ADMIN')")
     public ResponseEntity<List<AppointmentDto>> getAppointments() {
         return ResponseEntity.ok().body(appointmentService.getAppointments());
     }
@@ -36,17 +72,38 @@ public class AppointmentController {
     }
 
     @GetMapping("/appointment/patient/{patientId}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR','PATIENT')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR') or (hasAnyRole('PATIENT') and @ownership.isPatient(#patientId))")
     public ResponseEntity<List<AppointmentDto>> getAppointmentPatientId(@PathVariable Long patientId) {
         return ResponseEntity.ok().body(appointmentService.getAppointmentsByPatientId(patientId));
     }
 
     @GetMapping("/appointments/doctor/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    @PreAuthorize("hasAnyRole('ADMIN') or (hasAnyRole('DOCTOR') and @ownership.isDoctor(#id))")
     public ResponseEntity<List<AppointmentDto>> getAppointmentByDoctorId(@PathVariable Long id) {
         return ResponseEntity.ok().body(appointmentService.getAppointmentsByDoctorId(id));
     }
 
+    @GetMapping("/appointments/doctor/{doctorId}/free-slots")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR' , 'PATIENT')")
+    public ResponseEntity<List<FreeSlotDto>> getFreeSlots(@PathVariable Long doctorId,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                          @RequestParam(required = false) Integer count,
+                                                          @RequestParam(required = false) Integer duration) {
+        return ResponseEntity.ok().body(slotService.findFreeSlots(doctorId, from, to, count, duration));
+    }
+
+    @PutMapping("/appointments/doctor/{doctorId}/shift")
+    @PreAuthorize("hasAnyRole('ADMIN') or (hasAnyRole('DOCTOR') and @ownership.isDoctor(#doctorId))")
+    public ResponseEntity<ScheduleChangeDto> shiftDoctorAppointments(@PathVariable Long doctorId, @RequestBody ScheduleChangeDto changeDto) {
+        return ResponseEntity.ok().body(appointmentService.shiftDoctorAppointments(doctorId, changeDto));
+    }
+
+    @PostMapping("/appointments/doctor/{doctorId}/cancel")
+    @PreAuthorize("hasAnyRole('ADMIN') or (hasAnyRole('DOCTOR') and @ownership.isDoctor(#doctorId))")
+    public ResponseEntity<ScheduleChangeDto> cancelDoctorAppointments(@PathVariable Long doctorId, @RequestBody ScheduleChangeDto changeDto) {
+        return ResponseEntity.ok().body(appointmentService.cancelDoctorAppointments(doctorId, changeDto));
+    }
 
     @PostMapping("/appointment/add")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR' , 'PATIENT')")
@@ -54,6 +111,40 @@ public class AppointmentController {
         return ResponseEntity.created(new URI("/appointment/add")).body(appointmentService.addAppointment(appointmentDto));
     }
 
+    @PostMapping("/appointment/auto")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR') or (hasAnyRole('PATIENT') and @ownership.isPatientNamed(#autoBookingDto.patientName))")
+    public ResponseEntity<AppointmentDto> addAppointmentToAnyDoctor(@RequestBody AutoBookingDto autoBookingDto) throws URISyntaxException {
+        return ResponseEntity.created(new URI("/appointment/auto")).body(autoBookingService.bookLeastLoaded(autoBookingDto));
+    }
+
+    @PostMapping("/appointment/add/bulk")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<BulkReportDto> addAppointments(@RequestBody List<AppointmentDto> appointmentDtos) {
+        return ResponseEntity.ok().body(appointmentImportService.addAppointments(appointmentDtos));
+    }
+
+    @PostMapping("/appointment/series")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR' , 'PATIENT')")
+    public ResponseEntity<AppointmentSeriesDto> addSeries(@RequestBody AppointmentSeriesDto seriesDto) throws URISyntaxException {
+        AppointmentSeriesDto created = appointmentSeriesService.addSeries(seriesDto);
+        return ResponseEntity.created(new URI("/appointment/series/" + created.getSeriesId())).body(created);
+    }
+
+    @PutMapping("/appointment/series/{seriesId}")
+    @PreAuthorize("hasAnyRole('ADMIN') or (hasAnyRole('DOCTOR') and @ownership.isSeriesDoctor(#seriesId))" +
+            " or (hasAnyRole('PATIENT') and @ownership.isSeriesPatient(#seriesId))")
+    public ResponseEntity<AppointmentSeriesDto> updateSeries(@PathVariable String seriesId, @RequestBody AppointmentSeriesDto seriesDto) {
+        return ResponseEntity.ok().body(appointmentSeriesService.updateSeries(seriesId, seriesDto));
+    }
+
+    @DeleteMapping("/appointment/series/{seriesId}")
+    @PreAuthorize("hasAnyRole('ADMIN') or (hasAnyRole('DOCTOR') and @ownership.isSeriesDoctor(#seriesId))" +
+            " or (hasAnyRole('PATIENT') and @ownership.isSeriesPatient(#seriesId))")
+    public ResponseEntity<Void> deleteSeries(@PathVariable String seriesId) {
+        appointmentSeriesService.deleteSeries(seriesId);
+        return ResponseEntity.ok().build();
+    }
+
     @PutMapping("/appointment/update")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR' , 'PATIENT')")
     public ResponseEntity<AppointmentDto> updateAppointment(@RequestBody AppointmentDto appointmentDto){
@@ -1,11 +1,14 @@
 package com.spring.boot.controller;
 
+import com.spring.boot.config.throttle.LoginThrottle;
 import com.spring.boot.controller.vm.LoginRequestVM;
 import com.spring.boot.controller.vm.LoginResponseVM;
+import com.spring.boot.controller.vm.RefreshRequestVM;
 import com.spring.boot.dto.UserDto;
 import com.spring.boot.model.User;
 import com.spring.boot.service.AuthService;
 import com.spring.boot.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.SystemException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,6 +30,8 @@ public class AuthController {
     private AuthService authService;
     @Autowired
     private UserService userService;
+    @Autowired
+    private LoginThrottle loginThrottle;
 
 
 
@@ -38,10 +43,23 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponseVM> login(@RequestBody @Valid LoginRequestVM loginRequestVM) throws SystemException{
+    public ResponseEntity<LoginResponseVM> login(@RequestBody @Valid LoginRequestVM loginRequestVM,
+                                                 HttpServletRequest request) throws SystemException{
+        loginThrottle.acquire(loginRequestVM.getUsername(), request.getRemoteAddr());
         return ResponseEntity.ok(authService.login(loginRequestVM));
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponseVM> refresh(@RequestBody RefreshRequestVM refreshRequestVM) {
+        return ResponseEntity.ok(authService.refresh(refreshRequestVM));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal UserDto userDto) {
+        authService.logout(userDto);
+        return ResponseEntity.noContent().build();
+    }
+
 
 
 }
@@ -1,22 +1,34 @@
 package com.spring.boot.controller;
 
+import com.spring.boot.dto.BulkReportDto;
+import com.spring.boot.dto.CursorPageDto;
+import com.spring.boot.dto.DoctorDashboardDto;
 import com.spring.boot.dto.DoctorDto;
+import com.spring.boot.dto.DoctorScheduleExceptionDto;
 import com.spring.boot.dto.PatientDto;
 import com.spring.boot.dto.UserDto;
 import com.spring.boot.model.Appointment;
 import com.spring.boot.model.Doctor;
 import com.spring.boot.model.Patient;
+import com.spring.boot.service.DoctorDashboardService;
+import com.spring.boot.service.DoctorScheduleService;
 import com.spring.boot.service.DoctorService;
+import com.spring.boot.service.UserProvisioningService;
 import com.spring.boot.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.SystemException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @CrossOrigin(origins = "http://localhost:5174/")
@@ -24,16 +36,34 @@ import java.util.List;
 public class DoctorController {
 
     private final UserService userService;
+    private final UserProvisioningService userProvisioningService;
+    private final DoctorScheduleService doctorScheduleService;
+    private final DoctorDashboardService doctorDashboardService;
     public DoctorService doctorService;
 
     @Autowired
-    public DoctorController(DoctorService doctorService, UserService userService) {
+    public DoctorController(DoctorService doctorService, UserService userService,
+                            UserProvisioningService userProvisioningService,
+                            DoctorScheduleService doctorScheduleService,
+                            DoctorDashboardService doctorDashboardService) {
         this.doctorService = doctorService;
         this.userService = userService;
+        this.userProvisioningService = userProvisioningService;
+        this.doctorScheduleService = doctorScheduleService;
+        this.doctorDashboardService = doctorDashboardService;
     }
 
     @GetMapping("/doctors")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR' , 'PATIENT')")
+    public ResponseEntity<CursorPageDto<DoctorDto>> getDoctorsPage(@RequestParam(required = false) String name,
+                                                                   @RequestParam(required = false) String sort,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok().body(doctorService.getDoctorsPage(name, sort, cursor, size));
+    }
+
+    @GetMapping(value = "/doctors", params = "unpaged=true")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR' , 'PATIENT')")
     public ResponseEntity<List<DoctorDto>> getDoctors() {
         return ResponseEntity.ok().body(doctorService.getDoctors());
     }
@@ -69,18 +99,68 @@ public class DoctorController {
         return ResponseEntity.ok().body(doctorService.getDoctorByName(doctorName));
     }
 
+    @GetMapping("/doctor/{doctorId}/exceptions")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR' , 'PATIENT')")
+    public ResponseEntity<List<DoctorScheduleExceptionDto>> getScheduleExceptions(@PathVariable Long doctorId) {
+        return ResponseEntity.ok().body(doctorScheduleService.getExceptions(doctorId));
+    }
+
+    @PostMapping("/doctor/{doctorId}/exceptions")
+    @PreAuthorize("hasAnyRole('ADMIN') or (hasAnyRole('DOCTOR') and @ownership.isDoctor(#doctorId))")
+    public ResponseEntity<DoctorScheduleExceptionDto> addScheduleException(@PathVariable Long doctorId,
+                                                                           @RequestBody DoctorScheduleExceptionDto exceptionDto) throws URISyntaxException {
+        DoctorScheduleExceptionDto created = doctorScheduleService.addException(doctorId, exceptionDto);
+        return ResponseEntity.created(new URI("/doctor/" + doctorId + "/exceptions/" + created.getExceptionId())).body(created);
+    }
+
+    @PutMapping("/doctor/{doctorId}/exceptions/{exceptionId}")
+    @PreAuthorize("hasAnyRole('ADMIN') or (hasAnyRole('DOCTOR') and @ownership.isDoctor(#doctorId))")
+    public ResponseEntity<DoctorScheduleExceptionDto> updateScheduleException(@PathVariable Long doctorId, @PathVariable Long exceptionId,
+                                                                              @RequestBody DoctorScheduleExceptionDto exceptionDto) {
+        return ResponseEntity.ok().body(doctorScheduleService.updateException(doctorId, exceptionId, exceptionDto));
+    }
+
+    @DeleteMapping("/doctor/{doctorId}/exceptions/{exceptionId}")
+    @PreAuthorize("hasAnyRole('ADMIN') or (hasAnyRole('DOCTOR') and @ownership.isDoctor(#doctorId))")
+    public ResponseEntity<Void> deleteScheduleException(@PathVariable Long doctorId, @PathVariable Long exceptionId) {
+        doctorScheduleService.deleteException(doctorId, exceptionId);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{doctorId}/appointments")
-    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    @PreAuthorize("hasAnyRole('ADMIN') or (hasAnyRole('DOCTOR') and @ownership.isDoctor(#doctorId))")
     public ResponseEntity<List<Appointment>> getDoctorAppointments(@PathVariable Long doctorId) {
         return ResponseEntity.ok().body(doctorService.getAppointmentsForDoctor(doctorId));
     }
 
     @GetMapping("/{doctorId}/patients")
-    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    @PreAuthorize("hasAnyRole('ADMIN') or (hasAnyRole('DOCTOR') and @ownership.isDoctor(#doctorId))")
     public ResponseEntity<List<PatientDto>> getDoctorPatients(@PathVariable Long doctorId) {
         return ResponseEntity.ok().body(doctorService.getPatientsForDoctor(doctorId));
     }
 
+    @GetMapping("/doctor/{doctorId}/dashboard")
+    @PreAuthorize("hasAnyRole('ADMIN') or (hasAnyRole('DOCTOR') and @ownership.isDoctor(#doctorId))")
+    public ResponseEntity<DoctorDashboardDto> getDashboard(@PathVariable Long doctorId,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        return ResponseEntity.ok().body(doctorDashboardService.getDashboard(doctorId, since));
+    }
+
+    @GetMapping("/admin/users")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<CursorPageDto<UserDto>> getUsersPage(@RequestParam(required = false) String role,
+                                                               @RequestParam(required = false) String sort,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok().body(userService.getUsersPage(role, sort, cursor, size));
+    }
+
+    @GetMapping(value = "/admin/users", params = "unpaged=true")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<List<UserDto>> getUsers() {
+        return ResponseEntity.ok().body(userService.getAllUsers());
+    }
+
     @PostMapping("/admin/add/user")
     @PreAuthorize("hasAnyRole('ADMIN')")
     public ResponseEntity<UserDto> adminAddUser(@RequestBody @Valid UserDto userDto) throws SystemException {
@@ -88,6 +168,18 @@ public class DoctorController {
 
     }
 
+    @PostMapping(value = "/admin/add/users", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<BulkReportDto> adminAddUsers(@RequestBody List<UserDto> userDtos) {
+        return ResponseEntity.ok().body(userProvisioningService.addUsers(userDtos));
+    }
+
+    @PostMapping(value = "/admin/add/users", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<BulkReportDto> adminAddUsersStream(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok().body(userProvisioningService.addUsers(request.getInputStream()));
+    }
+
 
 
 
@@ -0,0 +1,61 @@
+package com.spring.boot.controller;
+
+import com.spring.boot.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+@CrossOrigin(origins = "http://localhost:5174/")
+@RestController
+public class ExportController {
+
+    private ExportService exportService;
+
+    @Autowired
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/appointments/export")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(@RequestParam(required = false) String format,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                    @RequestParam(required = false) Long doctorId,
+                                                                    @RequestParam(required = false) Long patientId) {
+        return attachment("appointments", format, exportService.exportAppointments(format, from, to, doctorId, patientId));
+    }
+
+    @GetMapping("/prescriptions/export")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportPrescriptions(@RequestParam(required = false) String format,
+                                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                     @RequestParam(required = false) Long doctorId,
+                                                                     @RequestParam(required = false) Long patientId) {
+        return attachment("prescriptions", format, exportService.exportPrescriptions(format, from, to, doctorId, patientId));
+    }
+
+    @GetMapping("/patients/export")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportPatients(@RequestParam(required = false) String format,
+                                                                @RequestParam(required = false) String status) {
+        return attachment("patients", format, exportService.exportPatients(format, status));
+    }
+
+    private ResponseEntity<StreamingResponseBody> attachment(String name, String format, StreamingResponseBody body) {
+        String contentType = exportService.contentType(format);
+        String extension = contentType.equals("text/csv") ? "csv" : "ndjson";
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + extension + "\"")
+                .body(body);
+    }
+}
@@ -1,6 +1,9 @@
 package com.spring.boot.controller;
 
+import com.spring.boot.dto.CursorPageDto;
 import com.spring.boot.dto.PatientDto;
+import com.spring.boot.dto.PatientHomeDto;
+import com.spring.boot.service.PatientHomeService;
 import com.spring.boot.service.PatientService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,17 +20,37 @@ import java.util.List;
 @RestController
 public class PatientController {
     PatientService patientService;
+    PatientHomeService patientHomeService;
     @Autowired
-    public PatientController(PatientService patientService) {
+    public PatientController(PatientService patientService, PatientHomeService patientHomeService) {
         this.patientService = patientService;
+        this.patientHomeService = patientHomeService;
     }
 
     @GetMapping("/patients")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<CursorPageDto<PatientDto>> getPatientsPage(@RequestParam(required = false) String status,
+                                                                     @RequestParam(required = false) String gender,
+                                                                     @RequestParam(required = false) String name,
+                                                                     @RequestParam(required = false) String sort,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(patientService.getPatientsPage(status, gender, name, sort, cursor, size));
+    }
+
+    @GetMapping(value = "/patients", params = "unpaged=true")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
     public ResponseEntity<List<PatientDto>> getAllPatients() {
         return ResponseEntity.ok(patientService.getAllPatients());
     }
 
+    @GetMapping("/patient/{patientId}/home")
+    @PreAuthorize("hasAnyRole('ADMIN') or (hasAnyRole('PATIENT') and @ownership.isPatient(#patientId))")
+    public ResponseEntity<PatientHomeDto> getHome(@PathVariable Long patientId,
+                                                  @RequestParam(required = false) String directoryVersion) {
+        return ResponseEntity.ok(patientHomeService.getHome(patientId, directoryVersion));
+    }
+
     @PostMapping("/patient/add")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR' , 'PATIENT')")
     public ResponseEntity<PatientDto> addPatient(@RequestBody @Valid PatientDto patientDto) throws URISyntaxException {
@@ -48,7 +71,7 @@ public class PatientController {
     }
 
     @GetMapping("/patients/doctor/{doctorId}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    @PreAuthorize("hasAnyRole('ADMIN') or (hasAnyRole('DOCTOR') and @ownership.isDoctor(#doctorId))")
     public ResponseEntity<List<PatientDto>> getAllPatientsOfDoctor(@PathVariable Long doctorId) {
         List<PatientDto> patients = patientService.getAllPatientsByDoctorId(doctorId);
         return ResponseEntity.ok(patients);
@@ -1,15 +1,18 @@
 package com.spring.boot.controller;
 
+import com.spring.boot.dto.CursorPageDto;
 import com.spring.boot.dto.PrescriptionDto;
 import com.spring.boot.service.PrescriptionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @CrossOrigin(origins = "http://localhost:5174/")
@@ -26,6 +29,18 @@ public class PrescriptionController {
 
     @GetMapping("/prescriptions")
     @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<CursorPageDto<PrescriptionDto>> getPrescriptionsPage(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                               @RequestParam(required = false) Long doctorId,
+                                                                               @RequestParam(required = false) Long patientId,
+                                                                               @RequestParam(required = false) String sort,
+                                                                               @RequestParam(required = false) String cursor,
+                                                                               @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(prescriptionService.getPrescriptionsPage(from, to, doctorId, patientId, sort, cursor, size));
+    }
+
+    @GetMapping(value = "/prescriptions", params = "unpaged=true")
+    @PreAuthorize("hasAnyRole('ADMIN')")
     public ResponseEntity<List<PrescriptionDto>> getAllPrescriptions() {
         return ResponseEntity.ok(prescriptionService.GetAllPrescriptions());
     }
@@ -37,13 +52,13 @@ public class PrescriptionController {
     }
 
     @GetMapping("/prescriptions/doctor/{doctorId}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    @PreAuthorize("hasAnyRole('ADMIN') or (hasAnyRole('DOCTOR') and @ownership.isDoctor(#doctorId))")
     public ResponseEntity<List<PrescriptionDto>> getByDoctor(@PathVariable Long doctorId) {
         return ResponseEntity.ok(prescriptionService.findPrescriptionsByDoctorId(doctorId));
     }
 
     @GetMapping("/prescriptions/patient/{patientId}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR' , 'PATIENT')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR') or (hasAnyRole('PATIENT') and @ownership.isPatient(#patientId))")
     public ResponseEntity<List<PrescriptionDto>> getByPatient(@PathVariable Long patientId) {
         return ResponseEntity.ok(prescriptionService.findPrescriptionsByPatientId(patientId));
     }
@@ -12,5 +12,6 @@ public class LoginResponseVM {
 
     String token;
     private UserDto user;
+    private String refreshToken;
 
 }
@@ -0,0 +1,12 @@
+package com.spring.boot.controller.vm;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+public class RefreshRequestVM {
+
+    String refreshToken;
+
+}
@@ -0,0 +1,28 @@
+package com.spring.boot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AdminSummaryDto {
+    private long doctors;
+    private long patients;
+    private long appointments;
+    private long prescriptions;
+    private long appointmentsToday;
+    // the week runs Monday to Sunday
+    private LocalDate weekStart;
+    private long appointmentsThisWeek;
+    private List<DoctorSummaryDto> perDoctor;
+    // when the counters were last recounted from the database
+    private LocalDateTime reconciledAt;
+}
@@ -21,6 +21,8 @@ public class AppointmentDto {
     private String doctorName;
     private String patientName;
     private LocalDateTime appointmentDate;
+    private Integer durationMinutes;
+    private String seriesId;
 
 
 
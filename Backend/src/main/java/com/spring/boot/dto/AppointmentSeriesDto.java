@@ -0,0 +1,30 @@
+package com.spring.boot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.spring.boot.enums.RecurrenceUnit;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AppointmentSeriesDto {
+
+    private String seriesId;
+    private String doctorName;
+    private String patientName;
+    private LocalDateTime firstAppointmentDate;
+    private Integer durationMinutes;
+    private Integer every;
+    private RecurrenceUnit unit;
+    private Integer occurrences;
+    private List<AppointmentDto> appointments;
+
+}
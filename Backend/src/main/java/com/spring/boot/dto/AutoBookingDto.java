@@ -0,0 +1,24 @@
+package com.spring.boot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AutoBookingDto {
+
+    private String patientName;
+    // the appointment starts and ends inside [from, to], on one day
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Integer durationMinutes;
+
+}
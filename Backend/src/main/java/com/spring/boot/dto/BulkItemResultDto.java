@@ -0,0 +1,21 @@
+package com.spring.boot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.spring.boot.helper.MessageResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResultDto {
+    private int index;
+    private String reference;
+    private boolean success;
+    private Long id;
+    private MessageResponse error;
+}
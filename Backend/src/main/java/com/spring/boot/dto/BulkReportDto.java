@@ -0,0 +1,31 @@
+package com.spring.boot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkReportDto {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private long elapsedMillis;
+    private List<BulkItemResultDto> items = new ArrayList<>();
+
+    public void add(BulkItemResultDto item) {
+        items.add(item);
+        total++;
+        if (item.isSuccess()) {
+            succeeded++;
+        } else {
+            failed++;
+        }
+    }
+}
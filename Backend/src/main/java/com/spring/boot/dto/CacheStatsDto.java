@@ -0,0 +1,17 @@
+package com.spring.boot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheStatsDto {
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long size;
+}
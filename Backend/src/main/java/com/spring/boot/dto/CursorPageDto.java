@@ -0,0 +1,22 @@
+package com.spring.boot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageDto<T> {
+
+    private List<T> items;
+    // send back as ?cursor= for the next page; absent on the last page
+    private String nextCursor;
+
+}
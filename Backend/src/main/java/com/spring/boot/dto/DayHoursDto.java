@@ -0,0 +1,23 @@
+package com.spring.boot.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DayHoursDto {
+
+    @JsonFormat(pattern = "HH:mm:ss")
+    private LocalTime attendTime;
+
+    @JsonFormat(pattern = "HH:mm:ss")
+    private LocalTime leaveTime;
+
+}
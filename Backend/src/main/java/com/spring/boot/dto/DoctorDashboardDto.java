@@ -0,0 +1,33 @@
+package com.spring.boot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DoctorDashboardDto {
+
+    // send back as ?since= on the next refresh
+    private LocalDateTime serverTime;
+
+    // with ?since= these hold only the rows that changed
+    private List<AppointmentDto> todayAppointments;
+    private List<AppointmentDto> upcomingAppointments;
+    private List<PatientDto> patients;
+    private List<PrescriptionDto> recentPrescriptions;
+
+    // only with ?since=: everything currently on the dashboard, anything else was removed
+    private List<Long> appointmentIds;
+    private List<Long> patientIds;
+    private List<Long> prescriptionIds;
+
+}
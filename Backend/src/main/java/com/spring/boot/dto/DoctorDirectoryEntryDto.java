@@ -0,0 +1,38 @@
+package com.spring.boot.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.spring.boot.enums.DaysOfWeek;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+// a doctor as the booking form lists them: no phone, user or capacity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DoctorDirectoryEntryDto {
+
+    private Long doctorId;
+
+    private String doctorName;
+
+    @JsonFormat(pattern = "HH:mm:ss")
+    private LocalTime attendTime;
+
+    @JsonFormat(pattern = "HH:mm:ss")
+    private LocalTime leaveTime;
+
+    private List<DaysOfWeek> workingDays;
+
+    // only the working days whose hours differ from attendTime/leaveTime
+    private Map<DaysOfWeek, DayHoursDto> weeklyHours;
+
+}
@@ -11,6 +11,7 @@ import lombok.Setter;
 
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @Setter
@@ -38,4 +39,10 @@ public class DoctorDto {
     @NotBlank
     private List<DaysOfWeek> workingDays;
 
+    // optional, null or 0 means no limit
+    private Integer dailyCapacity;
+
+    // optional, only for working days whose hours differ from attendTime/leaveTime
+    private Map<DaysOfWeek, DayHoursDto> weeklyHours;
+
 }
@@ -0,0 +1,36 @@
+package com.spring.boot.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DoctorScheduleExceptionDto {
+
+    private Long exceptionId;
+
+    private Long doctorId;
+
+    private LocalDate exceptionDate;
+
+    private Boolean available;
+
+    @JsonFormat(pattern = "HH:mm:ss")
+    private LocalTime attendTime;
+
+    @JsonFormat(pattern = "HH:mm:ss")
+    private LocalTime leaveTime;
+
+    private String reason;
+
+}
@@ -0,0 +1,18 @@
+package com.spring.boot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DoctorSummaryDto {
+    private Long doctorId;
+    private String doctorName;
+    private long appointments;
+    private long appointmentsToday;
+    private long appointmentsThisWeek;
+}
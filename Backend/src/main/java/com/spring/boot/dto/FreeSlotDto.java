@@ -0,0 +1,20 @@
+package com.spring.boot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FreeSlotDto {
+
+    private Long doctorId;
+    private LocalDateTime appointmentDate;
+    private Integer durationMinutes;
+
+}
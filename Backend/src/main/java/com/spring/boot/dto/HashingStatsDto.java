@@ -0,0 +1,21 @@
+package com.spring.boot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class HashingStatsDto {
+    private int queueDepth;
+    private int queueCapacity;
+    private int activeThreads;
+    private long completed;
+    private long rejected;
+    private double averageWaitMillis;
+    private double averageHashMillis;
+    private double maxHashMillis;
+}
@@ -0,0 +1,25 @@
+package com.spring.boot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PatientHomeDto {
+
+    private List<AppointmentDto> upcomingAppointments;
+    private List<PrescriptionDto> recentPrescriptions;
+
+    // send back as ?directoryVersion=; doctors is left out while it still matches
+    private String directoryVersion;
+    private List<DoctorDirectoryEntryDto> doctors;
+
+}
@@ -0,0 +1,25 @@
+package com.spring.boot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ScheduleChangeDto {
+
+    private Long doctorId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Integer shiftMinutes;
+    private Integer affected;
+    private Integer skipped;
+
+}
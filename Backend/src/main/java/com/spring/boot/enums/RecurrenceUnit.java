@@ -0,0 +1,5 @@
+package com.spring.boot.enums;
+
+public enum RecurrenceUnit {
+    DAYS, WEEKS
+}
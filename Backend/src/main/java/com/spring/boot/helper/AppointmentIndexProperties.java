@@ -0,0 +1,20 @@
+package com.spring.boot.helper;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "appointment-index")
+public class AppointmentIndexProperties {
+
+    private Duration ttl = Duration.ofMinutes(10);
+    private int maxDays = 50_000;
+
+
+}
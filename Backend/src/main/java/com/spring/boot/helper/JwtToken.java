@@ -15,6 +15,8 @@ public class JwtToken {
 
     private String secret;
     private Duration time;
+    private boolean stateless;
+    private Duration refreshTime = Duration.ofDays(14);
 
 
 }
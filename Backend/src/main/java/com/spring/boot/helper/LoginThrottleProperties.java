@@ -0,0 +1,28 @@
+package com.spring.boot.helper;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "login-throttle")
+public class LoginThrottleProperties {
+
+    private boolean enabled = true;
+
+    private int usernameBurst = 5;
+    private Duration usernameRefill = Duration.ofSeconds(20);
+
+    private int ipBurst = 20;
+    private Duration ipRefill = Duration.ofSeconds(3);
+
+    private int stripes = 16;
+    private int maxEntriesPerStripe = 4096;
+
+
+}
@@ -0,0 +1,125 @@
+package com.spring.boot.helper;
+
+import com.spring.boot.dto.CursorPageDto;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset paging for the list endpoints. A page is the rows after the last one
+ * the client saw, by (sort key, id), so the database seeks on an index instead of
+ * skipping OFFSET rows; the cursor is that last (sort key, id), opaque to clients.
+ * One row more than the page size is fetched to know whether there is a next page.
+ */
+public final class PageCursor {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 200;
+
+    // open ends of a date range, inside what every supported database can store
+    public static final LocalDateTime OPEN_FROM = LocalDateTime.of(1900, 1, 1, 0, 0);
+    public static final LocalDateTime OPEN_TO = LocalDateTime.of(3000, 1, 1, 0, 0);
+
+    private PageCursor() {
+    }
+
+    public static int resolveSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        if (size < 1 || size > MAX_SIZE) {
+            throw new RuntimeException("page.size.invalid");
+        }
+        return size;
+    }
+
+    public static void checkRange(LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new RuntimeException("page.range.invalid");
+        }
+    }
+
+    // the first page only, plus one row to detect a next page
+    public static Pageable firstRows(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    /**
+     * {@code field} sorts ascending, {@code -field} descending; null means ascending.
+     */
+    public static boolean isDescending(String sort, String field) {
+        if (sort == null || sort.equals(field)) {
+            return false;
+        }
+        if (sort.equals("-" + field)) {
+            return true;
+        }
+        throw new RuntimeException("page.sort.invalid");
+    }
+
+    // a LIKE pattern matching values that start with {@code value}, escaped with '\'
+    public static String prefix(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    public static Long decodeId(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(decode(cursor));
+        } catch (IllegalArgumentException exception) {
+            throw new RuntimeException("page.cursor.invalid");
+        }
+    }
+
+    public static DateKey decodeDate(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            String[] parts = decode(cursor).split("\\|", 2);
+            return new DateKey(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (RuntimeException exception) {
+            throw new RuntimeException("page.cursor.invalid");
+        }
+    }
+
+    public static String encodeId(Long id) {
+        return encode(String.valueOf(id));
+    }
+
+    public static String encodeDate(LocalDateTime date, Long id) {
+        return encode(date + "|" + id);
+    }
+
+    /**
+     * Maps the fetched rows to a page, dropping the extra row and pointing the
+     * cursor at the last row kept.
+     */
+    public static <E, D> CursorPageDto<D> page(List<E> rows, int size, Function<E, D> mapper, Function<E, String> cursorOf) {
+        boolean more = rows.size() > size;
+        List<E> kept = more ? rows.subList(0, size) : rows;
+        return new CursorPageDto<>(kept.stream().map(mapper).toList(),
+                more ? cursorOf.apply(kept.get(kept.size() - 1)) : null);
+    }
+
+    private static String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+
+    public record DateKey(LocalDateTime date, Long id) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.spring.boot.helper;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "password-hashing")
+public class PasswordHashingProperties {
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 64;
+    private Duration timeout = Duration.ofSeconds(5);
+    private Duration targetTime = Duration.ofMillis(80);
+    private Integer strength;
+
+
+}
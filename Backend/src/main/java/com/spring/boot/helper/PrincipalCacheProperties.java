@@ -0,0 +1,20 @@
+package com.spring.boot.helper;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "principal-cache")
+public class PrincipalCacheProperties {
+
+    private Duration ttl = Duration.ofMinutes(5);
+    private int maxSize = 10_000;
+
+
+}
@@ -11,6 +11,7 @@ import java.util.List;
 @Mapper(componentModel = "spring")
 public interface AppointmentMapper {
     @Mapping(target = "doctor", ignore = true)
+    @Mapping(target = "lastModified", ignore = true)
     Appointment toEntity(AppointmentDto appointmentDto);
 
     @Mapping(source = "doctor.doctorName", target = "doctorName")
@@ -1,16 +1,54 @@
 package com.spring.boot.mapper;
 
+import com.spring.boot.dto.DayHoursDto;
+import com.spring.boot.dto.DoctorDirectoryEntryDto;
 import com.spring.boot.dto.DoctorDto;
+import com.spring.boot.enums.DaysOfWeek;
 import com.spring.boot.model.Doctor;
+import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 @Mapper(componentModel = "spring")
 public interface DoctorMapper {
+    // the mask and packed hours are filled from workingDays and weeklyHours
+    @Mapping(target = "workingDaysMask", ignore = true)
+    @Mapping(target = "dayHours", ignore = true)
+    @Mapping(target = "scheduleExceptions", ignore = true)
     Doctor toEntity(DoctorDto doctorDto);
+    @Mapping(target = "weeklyHours", ignore = true)
     DoctorDto toDto(Doctor doctor);
     List<DoctorDto> toDto(List<Doctor> doctors);
     List<Doctor> toEntity(List<DoctorDto> doctorDtos);
+    DoctorDirectoryEntryDto toDirectoryEntry(DoctorDto doctorDto);
+
+    // only the days that differ from attendTime/leaveTime are listed
+    @AfterMapping
+    default void weeklyHoursToDto(Doctor doctor, @MappingTarget DoctorDto doctorDto) {
+        Map<DaysOfWeek, DayHoursDto> weeklyHours = new EnumMap<>(DaysOfWeek.class);
+        for (DaysOfWeek day : DaysOfWeek.values()) {
+            if (doctor.hasOwnHours(day)) {
+                weeklyHours.put(day, new DayHoursDto(doctor.attendTimeOn(day), doctor.leaveTimeOn(day)));
+            }
+        }
+        doctorDto.setWeeklyHours(weeklyHours.isEmpty() ? null : weeklyHours);
+    }
+
+    @AfterMapping
+    default void weeklyHoursToEntity(DoctorDto doctorDto, @MappingTarget Doctor doctor) {
+        applyWeeklyHours(doctorDto, doctor);
+    }
+
+    static void applyWeeklyHours(DoctorDto doctorDto, Doctor doctor) {
+        if (doctorDto.getWeeklyHours() == null) {
+            return;
+        }
+        doctorDto.getWeeklyHours().forEach((day, hours) -> doctor.setHoursOn(day,
+                hours == null ? null : hours.getAttendTime(), hours == null ? null : hours.getLeaveTime()));
+    }
 }
@@ -0,0 +1,19 @@
+package com.spring.boot.mapper;
+
+import com.spring.boot.dto.DoctorScheduleExceptionDto;
+import com.spring.boot.model.DoctorScheduleException;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface DoctorScheduleExceptionMapper {
+    @Mapping(source = "doctor.doctorId", target = "doctorId")
+    DoctorScheduleExceptionDto toDto(DoctorScheduleException scheduleException);
+
+    List<DoctorScheduleExceptionDto> toDto(List<DoctorScheduleException> scheduleExceptions);
+
+    @Mapping(target = "doctor", ignore = true)
+    DoctorScheduleException toEntity(DoctorScheduleExceptionDto scheduleExceptionDto);
+}
@@ -11,6 +11,7 @@ import java.util.List;
 @Mapper(componentModel = "spring")
 public interface PatientMapper {
 
+    @Mapping(target = "lastModified", ignore = true)
     Patient toEntity(PatientDto patientDto);
 
     PatientDto toDto(Patient patient);
@@ -22,6 +22,7 @@ public interface PrescriptionMapper {
 
     @Mapping(source = "dateIssued", target = "prescriptionDate")
     @Mapping(source = "notes", target = "prescriptionNotes")
+    @Mapping(target = "lastModified", ignore = true)
     Prescription toEntity(PrescriptionDto prescriptionDto);
 
     List<Prescription> toEntity(List<PrescriptionDto> prescriptionDtos);
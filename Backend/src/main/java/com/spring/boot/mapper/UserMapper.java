@@ -23,7 +23,8 @@ public interface UserMapper {
     // DTO -> Entity
     @Mappings({
             @Mapping(target = "patient", ignore = true),
-            @Mapping(target = "doctor", ignore = true)
+            @Mapping(target = "doctor", ignore = true),
+            @Mapping(target = "tokenVersion", ignore = true)
     })
     User toEntity(UserDto userDto);
 
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
@@ -15,14 +16,37 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_appointment_doctor_slot", columnNames = {"doctor_id", "appointment_date"}),
+        indexes = {
+                @Index(name = "idx_appointment_series_id", columnList = "series_id"),
+                // keyset paging over all appointments and per patient
+                @Index(name = "idx_appointment_date", columnList = "appointment_date, appointment_id"),
+                @Index(name = "idx_appointment_patient_date", columnList = "patient_id, appointment_date"),
+                // changes since a doctor dashboard's last refresh
+                @Index(name = "idx_appointment_doctor_modified", columnList = "doctor_id, last_modified")
+        })
 public class Appointment {
 
+    public static final int DEFAULT_DURATION_MINUTES = 30;
+    public static final int MIN_DURATION_MINUTES = 5;
+    public static final int MAX_DURATION_MINUTES = 480;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_seq")
+    @SequenceGenerator(name = "appointment_seq", sequenceName = "appointment_seq", allocationSize = 50)
     private Long appointmentId;
 
     private LocalDateTime appointmentDate;
 
+    private Integer durationMinutes;
+
+    @Column(length = 36)
+    private String seriesId;
+
+    // set on every insert and update; bulk JPQL updates set it themselves
+    @UpdateTimestamp
+    private LocalDateTime lastModified;
+
 
     private String patientName;
 
@@ -36,6 +60,10 @@ public class Appointment {
     @JsonBackReference
     private Patient patient;
 
+    public int getEffectiveDurationMinutes() {
+        return durationMinutes == null ? DEFAULT_DURATION_MINUTES : durationMinutes;
+    }
+
 
 
 
@@ -9,6 +9,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Getter
@@ -18,8 +19,11 @@ import java.util.List;
 @Entity
 public class Doctor {
 
+    private static final int DAY_HOURS_BYTES = 4 * 7;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "doctor_seq")
+    @SequenceGenerator(name = "doctor_seq", sequenceName = "doctor_seq", allocationSize = 50)
     private Long doctorId;
 
     @Column(unique = true, nullable = false)
@@ -43,13 +47,89 @@ public class Doctor {
     @JsonManagedReference
     private List<Prescription> prescriptions;
 
-    @ElementCollection(targetClass = DaysOfWeek.class)
-    @CollectionTable(name = "doctor_working_days", joinColumns = @JoinColumn(name = "doctor_id"))
-    @Enumerated(EnumType.STRING)
-    private List<DaysOfWeek> workingDays;
+    @OneToMany(mappedBy = "doctor", cascade = CascadeType.REMOVE)
+    @JsonManagedReference
+    private List<DoctorScheduleException> scheduleExceptions;
+
+    // bit i set = works on DaysOfWeek.values()[i]; read with the doctor row instead of a collection table
+    @Column(name = "working_days_mask")
+    private Integer workingDaysMask;
+
+    // optional hours per weekday, 4 bytes each in DaysOfWeek order: attend minute and leave minute
+    // as unsigned shorts. A day left at 0/0 uses attendTime/leaveTime.
+    @Column(name = "day_hours", length = DAY_HOURS_BYTES)
+    private byte[] dayHours;
+
+    // most appointments per day; null or 0 means no limit
+    private Integer dailyCapacity;
 
     @OneToOne
     @JoinColumn(name = "user_id")
     private User user;
 
+    public List<DaysOfWeek> getWorkingDays() {
+        List<DaysOfWeek> days = new ArrayList<>();
+        for (DaysOfWeek day : DaysOfWeek.values()) {
+            if (worksOn(day)) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    public void setWorkingDays(List<DaysOfWeek> workingDays) {
+        if (workingDays == null) {
+            this.workingDaysMask = null;
+            return;
+        }
+        int mask = 0;
+        for (DaysOfWeek day : workingDays) {
+            if (day != null) {
+                mask |= 1 << day.ordinal();
+            }
+        }
+        this.workingDaysMask = mask;
+    }
+
+    public boolean isCapacityLimited() {
+        return dailyCapacity != null && dailyCapacity > 0;
+    }
+
+    public boolean worksOn(DaysOfWeek day) {
+        return workingDaysMask != null && (workingDaysMask & (1 << day.ordinal())) != 0;
+    }
+
+    public boolean hasOwnHours(DaysOfWeek day) {
+        return dayHours != null && dayHours.length == DAY_HOURS_BYTES
+                && (minuteAt(day, 0) != 0 || minuteAt(day, 2) != 0);
+    }
+
+    public LocalTime attendTimeOn(DaysOfWeek day) {
+        return hasOwnHours(day) ? LocalTime.ofSecondOfDay(minuteAt(day, 0) * 60L) : attendTime;
+    }
+
+    public LocalTime leaveTimeOn(DaysOfWeek day) {
+        return hasOwnHours(day) ? LocalTime.ofSecondOfDay(minuteAt(day, 2) * 60L) : leaveTime;
+    }
+
+    /**
+     * Gives {@code day} its own hours, or puts it back on attendTime/leaveTime when either is null.
+     */
+    public void setHoursOn(DaysOfWeek day, LocalTime attend, LocalTime leave) {
+        byte[] hours = dayHours != null && dayHours.length == DAY_HOURS_BYTES ? dayHours.clone() : new byte[DAY_HOURS_BYTES];
+        int offset = day.ordinal() * 4;
+        int attendMinute = attend == null || leave == null ? 0 : attend.getHour() * 60 + attend.getMinute();
+        int leaveMinute = attend == null || leave == null ? 0 : leave.getHour() * 60 + leave.getMinute();
+        hours[offset] = (byte) (attendMinute >>> 8);
+        hours[offset + 1] = (byte) attendMinute;
+        hours[offset + 2] = (byte) (leaveMinute >>> 8);
+        hours[offset + 3] = (byte) leaveMinute;
+        // a new array, so Hibernate sees the change
+        this.dayHours = hours;
+    }
+
+    private int minuteAt(DaysOfWeek day, int position) {
+        int offset = day.ordinal() * 4 + position;
+        return ((dayHours[offset] & 0xFF) << 8) | (dayHours[offset + 1] & 0xFF);
+    }
 }
@@ -0,0 +1,49 @@
+package com.spring.boot.model;
+
+import com.fasterxml.jackson.annotation.JsonBackReference;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One date on which a doctor's weekly template does not apply: either a day off
+ * ({@code available = false}) or a day worked with its own hours, which covers
+ * both changed hours on a working day and an extra shift on a day off.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "doctor_schedule_exception",
+        uniqueConstraints = @UniqueConstraint(name = "uk_schedule_exception_doctor_date",
+                columnNames = {"doctor_id", "exception_date"}))
+public class DoctorScheduleException {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schedule_exception_seq")
+    @SequenceGenerator(name = "schedule_exception_seq", sequenceName = "schedule_exception_seq", allocationSize = 50)
+    private Long exceptionId;
+
+    @ManyToOne
+    @JoinColumn(name = "doctor_id", nullable = false)
+    @JsonBackReference
+    private Doctor doctor;
+
+    @Column(name = "exception_date", nullable = false)
+    private LocalDate exceptionDate;
+
+    @Column(nullable = false)
+    private Boolean available;
+
+    private LocalTime attendTime;
+
+    private LocalTime leaveTime;
+
+    private String reason;
+}
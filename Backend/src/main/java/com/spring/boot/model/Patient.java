@@ -6,7 +6,9 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Getter
@@ -14,9 +16,15 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+// filters of the paged patient list
+@Table(indexes = {
+        @Index(name = "idx_patient_status", columnList = "patient_status, patient_id"),
+        @Index(name = "idx_patient_name", columnList = "patient_name")
+})
 public class Patient {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_seq")
+    @SequenceGenerator(name = "patient_seq", sequenceName = "patient_seq", allocationSize = 50)
     private Long patientId;
 
     @Column(nullable = false)
@@ -34,6 +42,9 @@ public class Patient {
     @Column(nullable = false)
     private String patientStatus;
 
+    @UpdateTimestamp
+    private LocalDateTime lastModified;
+
     @OneToMany(mappedBy = "patient")
     @JsonManagedReference
     private List<Appointment> appointments;
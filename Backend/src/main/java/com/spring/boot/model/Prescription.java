@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,16 +16,26 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-
+// keyset paging over all prescriptions, per doctor and per patient; changes per doctor
+@Table(indexes = {
+        @Index(name = "idx_prescription_date", columnList = "prescription_date, prescription_id"),
+        @Index(name = "idx_prescription_doctor_date", columnList = "doctor_id, prescription_date"),
+        @Index(name = "idx_prescription_patient_date", columnList = "patient_id, prescription_date"),
+        @Index(name = "idx_prescription_doctor_modified", columnList = "doctor_id, last_modified")
+})
 public class Prescription {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "prescription_seq")
+    @SequenceGenerator(name = "prescription_seq", sequenceName = "prescription_seq", allocationSize = 50)
     private Long PrescriptionId;
 
     private LocalDateTime prescriptionDate;
 
     private String prescriptionNotes;
 
+    @UpdateTimestamp
+    private LocalDateTime lastModified;
+
     @ManyToOne
     @JoinColumn(name = "doctor_id" ,nullable = false)
     @JsonBackReference
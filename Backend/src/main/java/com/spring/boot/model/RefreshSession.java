@@ -0,0 +1,47 @@
+package com.spring.boot.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "refresh_sessions", indexes = {
+        @Index(name = "idx_refresh_sessions_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_refresh_sessions_user_id", columnList = "user_id")
+})
+public class RefreshSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_sessions_seq")
+    @SequenceGenerator(name = "refresh_sessions_seq", sequenceName = "refresh_sessions_seq", allocationSize = 50)
+    private Long sessionId;
+
+    @Column(name = "token_hash", unique = true, nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String username;
+
+    private String role;
+
+    private Long doctorId;
+
+    private Long patientId;
+
+    private Integer tokenVersion;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+}
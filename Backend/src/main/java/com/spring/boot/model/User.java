@@ -13,10 +13,11 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_role", columnList = "role, user_id"))
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long userId;
 
     @Column(unique = true, nullable = false)
@@ -30,6 +31,8 @@ public class User {
 
     private String role;
 
+    private Integer tokenVersion = 0;
+
     @OneToOne(mappedBy = "user",fetch = FetchType.EAGER)
     private Doctor doctor;
 
@@ -1,15 +1,20 @@
 package com.spring.boot.repo;
 
 import com.spring.boot.model.Appointment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AppointmentRepo extends JpaRepository<Appointment,Long> {
+public interface AppointmentRepo extends JpaRepository<Appointment,Long>, AppointmentWindowQueries {
     List<Appointment> findByDoctorDoctorId(Long doctorId);
     List<Appointment> findByPatientPatientId(Long doctorId);
 
@@ -23,6 +28,94 @@ public interface AppointmentRepo extends JpaRepository<Appointment,Long> {
             LocalDateTime endDate
     );
     List<Appointment> findByPatientPatientIdAndAppointmentDateAfter(Long patientId, LocalDateTime dateTime);
+    List<Appointment> findByPatientPatientIdAndAppointmentDateBetween(
+            Long patientId,
+            LocalDateTime startDate,
+            LocalDateTime endDate
+    );
+    List<Appointment> findBySeriesIdAndAppointmentDateAfterOrderByAppointmentDate(String seriesId, LocalDateTime dateTime);
+    boolean existsBySeriesId(String seriesId);
+
+    // who the occurrences a series edit or delete would touch belong to
+    @Query("SELECT DISTINCT a.doctor.doctorId, a.patient.patientId FROM Appointment a " +
+            "WHERE a.seriesId = :seriesId AND a.appointmentDate > :after")
+    List<Object[]> findSeriesParties(@Param("seriesId") String seriesId, @Param("after") LocalDateTime after);
+
+    // a doctor dashboard's window: (id, lastModified) of the first rows, in keyset order
+    @Query("SELECT a.appointmentId, a.lastModified FROM Appointment a WHERE a.doctor.doctorId = :doctorId " +
+            "AND a.appointmentDate >= :from AND a.appointmentDate < :to " +
+            "ORDER BY a.appointmentDate, a.appointmentId")
+    List<Object[]> findVersionsInWindow(@Param("doctorId") Long doctorId,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to,
+                                        Pageable pageable);
+
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.doctor JOIN FETCH a.patient " +
+            "WHERE a.appointmentId IN :ids ORDER BY a.appointmentDate, a.appointmentId")
+    List<Appointment> findAllFetched(@Param("ids") Collection<Long> ids);
+
+    // a doctor's distinct patients, latest appointment first, with the latest change to the patient or to one of their appointments
+    @Query("SELECT p.patientId, p.lastModified, MAX(a.lastModified) FROM Appointment a JOIN a.patient p " +
+            "WHERE a.doctor.doctorId = :doctorId GROUP BY p.patientId, p.lastModified " +
+            "ORDER BY MAX(a.appointmentDate) DESC, p.patientId")
+    List<Object[]> findPatientVersions(@Param("doctorId") Long doctorId, Pageable pageable);
+
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.doctor.doctorId = :doctorId " +
+            "AND a.appointmentDate >= :from AND a.appointmentDate < :to")
+    long countDoctorWindow(@Param("doctorId") Long doctorId,
+                           @Param("from") LocalDateTime from,
+                           @Param("to") LocalDateTime to);
+
+    @Query("SELECT a.doctor.doctorId, COUNT(a) FROM Appointment a " +
+            "WHERE a.appointmentDate >= :from AND a.appointmentDate < :to GROUP BY a.doctor.doctorId")
+    List<Object[]> countPerDoctor(@Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to);
+
+    // (id, date, duration) of the doctor's appointments starting in [from, to), for the interval index
+    @Query("SELECT a.appointmentId, a.appointmentDate, a.durationMinutes FROM Appointment a " +
+            "WHERE a.doctor.doctorId = :doctorId AND a.appointmentDate >= :from AND a.appointmentDate < :to")
+    List<Object[]> findDoctorIntervals(@Param("doctorId") Long doctorId,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+
+    @Query("SELECT a.appointmentId, a.appointmentDate, a.durationMinutes FROM Appointment a " +
+            "WHERE a.patient.patientId = :patientId AND a.appointmentDate >= :from AND a.appointmentDate < :to")
+    List<Object[]> findPatientIntervals(@Param("patientId") Long patientId,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
+
+    // (id, doctorId, patientId, date, duration) of the doctor's or the patient's appointments starting in [from, to)
+    @Query("SELECT a.appointmentId, a.doctor.doctorId, a.patient.patientId, a.appointmentDate, a.durationMinutes " +
+            "FROM Appointment a WHERE (a.doctor.doctorId = :doctorId OR a.patient.patientId = :patientId) " +
+            "AND a.appointmentDate >= :from AND a.appointmentDate < :to")
+    List<Object[]> findOverlapCandidates(@Param("doctorId") Long doctorId,
+                                         @Param("patientId") Long patientId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
+
+    @Query("SELECT a FROM Appointment a WHERE a.doctor.doctorId = :doctorId " +
+            "AND a.appointmentDate >= :from AND a.appointmentDate < :to")
+    List<Appointment> findDoctorWindow(@Param("doctorId") Long doctorId,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.appointmentDate = a.appointmentDate + :minutes minute, a.lastModified = :now " +
+            "WHERE a.doctor.doctorId = :doctorId AND a.appointmentDate >= :from AND a.appointmentDate < :to")
+    int shiftDoctorWindow(@Param("doctorId") Long doctorId,
+                          @Param("from") LocalDateTime from,
+                          @Param("to") LocalDateTime to,
+                          @Param("minutes") long minutes,
+                          @Param("now") LocalDateTime now);
+
+    // appointments that already have a prescription are kept
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Appointment a WHERE a.doctor.doctorId = :doctorId " +
+            "AND a.appointmentDate >= :from AND a.appointmentDate < :to " +
+            "AND NOT EXISTS (SELECT p FROM Prescription p WHERE p.appointment = a)")
+    int cancelDoctorWindow(@Param("doctorId") Long doctorId,
+                           @Param("from") LocalDateTime from,
+                           @Param("to") LocalDateTime to);
 
 
 
@@ -0,0 +1,21 @@
+package com.spring.boot.repo;
+
+import com.spring.boot.model.Appointment;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+// keyset pages by (appointmentDate, appointmentId); the first page starts after (from, 0) or before (to, 0)
+public interface AppointmentWindowQueries {
+
+    List<Appointment> findPageAfter(LocalDateTime afterDate, Long afterId, LocalDateTime to,
+                                    Long doctorId, Long patientId, Pageable pageable);
+
+    List<Appointment> findPageBefore(LocalDateTime beforeDate, Long beforeId, LocalDateTime from,
+                                     Long doctorId, Long patientId, Pageable pageable);
+
+    // for exports; needs a transaction
+    Stream<Appointment> streamWindow(LocalDateTime from, LocalDateTime to, Long doctorId, Long patientId);
+}
@@ -0,0 +1,39 @@
+package com.spring.boot.repo;
+
+import com.spring.boot.model.Appointment;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+class AppointmentWindowQueriesImpl extends KeysetWindowQueries<Appointment> implements AppointmentWindowQueries {
+
+    AppointmentWindowQueriesImpl() {
+        super(Appointment.class, "appointmentDate", "appointmentId");
+    }
+
+    @Override
+    protected void fetchAssociations(Root<Appointment> root) {
+        root.fetch("doctor");
+        root.fetch("patient");
+    }
+
+    @Override
+    public List<Appointment> findPageAfter(LocalDateTime afterDate, Long afterId, LocalDateTime to,
+                                           Long doctorId, Long patientId, Pageable pageable) {
+        return pageAfter(afterDate, afterId, to, doctorId, patientId, pageable);
+    }
+
+    @Override
+    public List<Appointment> findPageBefore(LocalDateTime beforeDate, Long beforeId, LocalDateTime from,
+                                            Long doctorId, Long patientId, Pageable pageable) {
+        return pageBefore(beforeDate, beforeId, from, doctorId, patientId, pageable);
+    }
+
+    @Override
+    public Stream<Appointment> streamWindow(LocalDateTime from, LocalDateTime to, Long doctorId, Long patientId) {
+        return window(from, to, doctorId, patientId);
+    }
+}
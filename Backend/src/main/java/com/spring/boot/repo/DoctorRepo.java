@@ -1,12 +1,65 @@
 package com.spring.boot.repo;
 
 import com.spring.boot.model.Doctor;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DoctorRepo extends JpaRepository<Doctor,Long> {
     Optional<Doctor> findDoctorByDoctorName(String doctorName);
+    List<Doctor> findByDoctorNameIn(Collection<String> doctorNames);
+    boolean existsByDoctorPhone(String doctorPhone);
+    boolean existsByDoctorName(String doctorName);
+
+    @Query("SELECT d.doctorPhone FROM Doctor d")
+    List<String> findAllDoctorPhones();
+
+    @Query("SELECT d.doctorName FROM Doctor d")
+    List<String> findAllDoctorNames();
+
+    // keyset pages by doctorId; name is a PageCursor.prefix pattern
+    @Query("SELECT d FROM Doctor d LEFT JOIN FETCH d.user WHERE d.doctorId > :afterId " +
+            "AND (:name IS NULL OR d.doctorName LIKE :name ESCAPE '\\') " +
+            "ORDER BY d.doctorId")
+    List<Doctor> findPageAfter(@Param("afterId") Long afterId, @Param("name") String name, Pageable pageable);
+
+    @Query("SELECT d FROM Doctor d LEFT JOIN FETCH d.user WHERE d.doctorId < :beforeId " +
+            "AND (:name IS NULL OR d.doctorName LIKE :name ESCAPE '\\') " +
+            "ORDER BY d.doctorId DESC")
+    List<Doctor> findPageBefore(@Param("beforeId") Long beforeId, @Param("name") String name, Pageable pageable);
+
+    // what the doctor directory and availability index are built from, without loading each doctor's user
+    @Query("SELECT d.doctorId, d.doctorName, d.workingDaysMask, d.dayHours, d.attendTime, d.leaveTime, d.dailyCapacity " +
+            "FROM Doctor d ORDER BY d.doctorName, d.doctorId")
+    List<Object[]> findScheduleRows();
+
+    // a detached doctor from a findScheduleRows row, only to decode the mask and the per-day hours
+    static Doctor scheduleOf(Object[] row) {
+        Doctor doctor = new Doctor();
+        doctor.setDoctorId((Long) row[0]);
+        doctor.setDoctorName((String) row[1]);
+        doctor.setWorkingDaysMask((Integer) row[2]);
+        doctor.setDayHours((byte[]) row[3]);
+        doctor.setAttendTime((LocalTime) row[4]);
+        doctor.setLeaveTime((LocalTime) row[5]);
+        doctor.setDailyCapacity((Integer) row[6]);
+        return doctor;
+    }
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("SELECT d FROM Doctor d WHERE d.doctorId = :doctorId")
+    Optional<Doctor> findByIdForUpdate(@Param("doctorId") Long doctorId);
 }
@@ -0,0 +1,16 @@
+package com.spring.boot.repo;
+
+import com.spring.boot.model.DoctorScheduleException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DoctorScheduleExceptionRepo extends JpaRepository<DoctorScheduleException, Long> {
+    List<DoctorScheduleException> findByDoctorDoctorIdAndExceptionDateGreaterThanEqualOrderByExceptionDate(Long doctorId, LocalDate from);
+    Optional<DoctorScheduleException> findByExceptionIdAndDoctorDoctorId(Long exceptionId, Long doctorId);
+    boolean existsByDoctorDoctorIdAndExceptionDate(Long doctorId, LocalDate exceptionDate);
+}
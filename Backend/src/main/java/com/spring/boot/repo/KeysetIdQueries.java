@@ -0,0 +1,85 @@
+package com.spring.boot.repo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keyset pages and export streams over an id ordered table, with the optional
+ * filters built per call like {@link KeysetWindowQueries}: a filter that was not
+ * given is left out of the statement rather than written as
+ * {@code (? IS NULL OR column = ?)}.
+ */
+abstract class KeysetIdQueries<T> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Class<T> type;
+    private final String idAttribute;
+
+    protected KeysetIdQueries(Class<T> type, String idAttribute) {
+        this.type = type;
+        this.idAttribute = idAttribute;
+    }
+
+    // the associations each row is mapped with
+    protected abstract void fetchAssociations(Root<T> root);
+
+    // rows after afterId, in ascending order
+    protected List<T> pageAfter(Long afterId, Filter<T> filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        fetchAssociations(root);
+        Path<Long> id = root.get(idAttribute);
+
+        List<Predicate> where = filter.where(cb, root);
+        where.add(cb.greaterThan(id, afterId));
+        query.where(where.toArray(Predicate[]::new)).orderBy(cb.asc(id));
+        return entityManager.createQuery(query).setMaxResults(pageable.getPageSize()).getResultList();
+    }
+
+    // rows before beforeId, in descending order
+    protected List<T> pageBefore(Long beforeId, Filter<T> filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        fetchAssociations(root);
+        Path<Long> id = root.get(idAttribute);
+
+        List<Predicate> where = filter.where(cb, root);
+        where.add(cb.lessThan(id, beforeId));
+        query.where(where.toArray(Predicate[]::new)).orderBy(cb.desc(id));
+        return entityManager.createQuery(query).setMaxResults(pageable.getPageSize()).getResultList();
+    }
+
+    // for exports: read in rounds of 500 rows, without dirty-checking snapshots; needs a transaction
+    protected Stream<T> stream(Filter<T> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        fetchAssociations(root);
+
+        List<Predicate> where = filter.where(cb, root);
+        query.where(where.toArray(Predicate[]::new)).orderBy(cb.asc(root.get(idAttribute)));
+        return entityManager.createQuery(query)
+                .setHint("org.hibernate.fetchSize", 500)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream();
+    }
+
+    // the predicates for the filters that were given; the list is added to afterwards
+    @FunctionalInterface
+    protected interface Filter<T> {
+        List<Predicate> where(CriteriaBuilder cb, Root<T> root);
+    }
+}
@@ -0,0 +1,105 @@
+package com.spring.boot.repo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keyset pages and export streams over a (date, id) ordered table, filtered by
+ * doctor and patient. The statement is built per call with only the filters that
+ * were given, so the database sees a plain {@code doctor_id = ?} it can use the
+ * index for, instead of a {@code (? IS NULL OR doctor_id = ?)} it cannot.
+ */
+abstract class KeysetWindowQueries<T> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Class<T> type;
+    private final String dateAttribute;
+    private final String idAttribute;
+
+    protected KeysetWindowQueries(Class<T> type, String dateAttribute, String idAttribute) {
+        this.type = type;
+        this.dateAttribute = dateAttribute;
+        this.idAttribute = idAttribute;
+    }
+
+    // the associations each row is mapped with
+    protected abstract void fetchAssociations(Root<T> root);
+
+    // rows after (afterDate, afterId) and before to, in ascending order
+    protected List<T> pageAfter(LocalDateTime afterDate, Long afterId, LocalDateTime to,
+                                Long doctorId, Long patientId, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        fetchAssociations(root);
+        Path<LocalDateTime> date = root.get(dateAttribute);
+        Path<Long> id = root.get(idAttribute);
+
+        List<Predicate> where = parties(cb, root, doctorId, patientId);
+        where.add(cb.lessThan(date, to));
+        where.add(cb.or(cb.greaterThan(date, afterDate),
+                cb.and(cb.equal(date, afterDate), cb.greaterThan(id, afterId))));
+        query.where(where.toArray(Predicate[]::new)).orderBy(cb.asc(date), cb.asc(id));
+        return entityManager.createQuery(query).setMaxResults(pageable.getPageSize()).getResultList();
+    }
+
+    // rows before (beforeDate, beforeId) and from on, in descending order
+    protected List<T> pageBefore(LocalDateTime beforeDate, Long beforeId, LocalDateTime from,
+                                 Long doctorId, Long patientId, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        fetchAssociations(root);
+        Path<LocalDateTime> date = root.get(dateAttribute);
+        Path<Long> id = root.get(idAttribute);
+
+        List<Predicate> where = parties(cb, root, doctorId, patientId);
+        where.add(cb.greaterThanOrEqualTo(date, from));
+        where.add(cb.or(cb.lessThan(date, beforeDate),
+                cb.and(cb.equal(date, beforeDate), cb.lessThan(id, beforeId))));
+        query.where(where.toArray(Predicate[]::new)).orderBy(cb.desc(date), cb.desc(id));
+        return entityManager.createQuery(query).setMaxResults(pageable.getPageSize()).getResultList();
+    }
+
+    // for exports: read in rounds of 500 rows, without dirty-checking snapshots; needs a transaction
+    protected Stream<T> window(LocalDateTime from, LocalDateTime to, Long doctorId, Long patientId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        fetchAssociations(root);
+        Path<LocalDateTime> date = root.get(dateAttribute);
+
+        List<Predicate> where = parties(cb, root, doctorId, patientId);
+        where.add(cb.greaterThanOrEqualTo(date, from));
+        where.add(cb.lessThan(date, to));
+        query.where(where.toArray(Predicate[]::new)).orderBy(cb.asc(date), cb.asc(root.get(idAttribute)));
+        return entityManager.createQuery(query)
+                .setHint("org.hibernate.fetchSize", 500)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream();
+    }
+
+    private static List<Predicate> parties(CriteriaBuilder cb, Root<?> root, Long doctorId, Long patientId) {
+        List<Predicate> where = new ArrayList<>();
+        if (doctorId != null) {
+            where.add(cb.equal(root.get("doctor").get("doctorId"), doctorId));
+        }
+        if (patientId != null) {
+            where.add(cb.equal(root.get("patient").get("patientId"), patientId));
+        }
+        return where;
+    }
+}
@@ -0,0 +1,19 @@
+package com.spring.boot.repo;
+
+import com.spring.boot.model.Patient;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// patients with their user, filtered only by what was given
+public interface PatientQueries {
+
+    // keyset pages by patientId; name is a PageCursor.prefix pattern
+    List<Patient> findPageAfter(Long afterId, String status, String gender, String name, Pageable pageable);
+
+    List<Patient> findPageBefore(Long beforeId, String status, String gender, String name, Pageable pageable);
+
+    // for exports, like AppointmentWindowQueries.streamWindow; needs a transaction
+    Stream<Patient> streamByStatus(String status);
+}
@@ -0,0 +1,54 @@
+package com.spring.boot.repo;
+
+import com.spring.boot.model.Patient;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+class PatientQueriesImpl extends KeysetIdQueries<Patient> implements PatientQueries {
+
+    PatientQueriesImpl() {
+        super(Patient.class, "patientId");
+    }
+
+    @Override
+    protected void fetchAssociations(Root<Patient> root) {
+        root.fetch("user", JoinType.LEFT);
+    }
+
+    @Override
+    public List<Patient> findPageAfter(Long afterId, String status, String gender, String name, Pageable pageable) {
+        return pageAfter(afterId, filter(status, gender, name), pageable);
+    }
+
+    @Override
+    public List<Patient> findPageBefore(Long beforeId, String status, String gender, String name, Pageable pageable) {
+        return pageBefore(beforeId, filter(status, gender, name), pageable);
+    }
+
+    @Override
+    public Stream<Patient> streamByStatus(String status) {
+        return stream(filter(status, null, null));
+    }
+
+    private static Filter<Patient> filter(String status, String gender, String name) {
+        return (cb, root) -> {
+            List<Predicate> where = new ArrayList<>();
+            if (status != null) {
+                where.add(cb.equal(root.get("patientStatus"), status));
+            }
+            if (gender != null) {
+                where.add(cb.equal(root.get("patientGender"), gender));
+            }
+            if (name != null) {
+                where.add(cb.like(root.get("patientName"), name, '\\'));
+            }
+            return where;
+        };
+    }
+}
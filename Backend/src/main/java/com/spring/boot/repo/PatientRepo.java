@@ -4,14 +4,26 @@ import com.spring.boot.dto.PatientDto;
 import com.spring.boot.model.Doctor;
 import com.spring.boot.model.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PatientRepo extends JpaRepository<Patient,Long> {
+public interface PatientRepo extends JpaRepository<Patient,Long>, PatientQueries {
     Optional<Patient> findPatientByPatientName(String patientName);
+    List<Patient> findByPatientNameIn(Collection<String> patientNames);
+    boolean existsByPatientPhone(String patientPhone);
 
+    @Query("SELECT p.patientPhone FROM Patient p")
+    List<String> findAllPatientPhones();
 
+    @Query("SELECT p.patientName FROM Patient p")
+    List<String> findAllPatientNames();
+
+    @Query("SELECT p FROM Patient p LEFT JOIN FETCH p.user WHERE p.patientId IN :ids ORDER BY p.patientId")
+    List<Patient> findAllFetched(@Param("ids") Collection<Long> ids);
 }
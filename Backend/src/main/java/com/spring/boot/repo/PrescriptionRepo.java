@@ -1,17 +1,29 @@
 package com.spring.boot.repo;
 
 import com.spring.boot.model.Prescription;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface PrescriptionRepo extends JpaRepository<Prescription,Long> {
+public interface PrescriptionRepo extends JpaRepository<Prescription,Long>, PrescriptionWindowQueries {
     List<Prescription> findByDoctorDoctorId(Long doctorId);
     List<Prescription> findByPatientPatientId(Long patientId);
     List<Prescription> findByAppointmentAppointmentId(Long appointmentId);
 
+    // like AppointmentRepo.findVersionsInWindow, newest first
+    @Query("SELECT p.PrescriptionId, p.lastModified FROM Prescription p WHERE p.doctor.doctorId = :doctorId " +
+            "ORDER BY p.prescriptionDate DESC, p.PrescriptionId DESC")
+    List<Object[]> findLatestVersions(@Param("doctorId") Long doctorId, Pageable pageable);
 
+    @Query("SELECT p FROM Prescription p JOIN FETCH p.doctor JOIN FETCH p.patient LEFT JOIN FETCH p.appointment " +
+            "WHERE p.PrescriptionId IN :ids ORDER BY p.prescriptionDate DESC, p.PrescriptionId DESC")
+    List<Prescription> findAllFetched(@Param("ids") Collection<Long> ids);
 
 }
@@ -0,0 +1,21 @@
+package com.spring.boot.repo;
+
+import com.spring.boot.model.Prescription;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+// keyset pages by (prescriptionDate, PrescriptionId), like AppointmentWindowQueries
+public interface PrescriptionWindowQueries {
+
+    List<Prescription> findPageAfter(LocalDateTime afterDate, Long afterId, LocalDateTime to,
+                                     Long doctorId, Long patientId, Pageable pageable);
+
+    List<Prescription> findPageBefore(LocalDateTime beforeDate, Long beforeId, LocalDateTime from,
+                                      Long doctorId, Long patientId, Pageable pageable);
+
+    // for exports; needs a transaction
+    Stream<Prescription> streamWindow(LocalDateTime from, LocalDateTime to, Long doctorId, Long patientId);
+}
@@ -0,0 +1,41 @@
+package com.spring.boot.repo;
+
+import com.spring.boot.model.Prescription;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+class PrescriptionWindowQueriesImpl extends KeysetWindowQueries<Prescription> implements PrescriptionWindowQueries {
+
+    PrescriptionWindowQueriesImpl() {
+        super(Prescription.class, "prescriptionDate", "PrescriptionId");
+    }
+
+    @Override
+    protected void fetchAssociations(Root<Prescription> root) {
+        root.fetch("doctor");
+        root.fetch("patient");
+        root.fetch("appointment", JoinType.LEFT);
+    }
+
+    @Override
+    public List<Prescription> findPageAfter(LocalDateTime afterDate, Long afterId, LocalDateTime to,
+                                            Long doctorId, Long patientId, Pageable pageable) {
+        return pageAfter(afterDate, afterId, to, doctorId, patientId, pageable);
+    }
+
+    @Override
+    public List<Prescription> findPageBefore(LocalDateTime beforeDate, Long beforeId, LocalDateTime from,
+                                             Long doctorId, Long patientId, Pageable pageable) {
+        return pageBefore(beforeDate, beforeId, from, doctorId, patientId, pageable);
+    }
+
+    @Override
+    public Stream<Prescription> streamWindow(LocalDateTime from, LocalDateTime to, Long doctorId, Long patientId) {
+        return window(from, to, doctorId, patientId);
+    }
+}
@@ -0,0 +1,28 @@
+package com.spring.boot.repo;
+
+import com.spring.boot.model.RefreshSession;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefreshSessionRepo extends JpaRepository<RefreshSession,Long> {
+    Optional<RefreshSession> findByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("DELETE FROM RefreshSession s WHERE s.sessionId = :sessionId")
+    int deleteBySessionId(Long sessionId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshSession s WHERE s.userId = :userId")
+    int deleteByUserId(Long userId);
+
+    @Query("SELECT s.sessionId FROM RefreshSession s WHERE s.expiresAt < :now ORDER BY s.expiresAt")
+    List<Long> findExpiredIds(Instant now, Pageable pageable);
+}
@@ -0,0 +1,14 @@
+package com.spring.boot.repo;
+
+import com.spring.boot.model.User;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+// keyset pages by userId, with the user's doctor and patient, filtered by role only when one is given
+public interface UserQueries {
+
+    List<User> findPageAfter(Long afterId, String role, Pageable pageable);
+
+    List<User> findPageBefore(Long beforeId, String role, Pageable pageable);
+}
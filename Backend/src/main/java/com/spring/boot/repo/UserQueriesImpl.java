@@ -0,0 +1,43 @@
+package com.spring.boot.repo;
+
+import com.spring.boot.model.User;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class UserQueriesImpl extends KeysetIdQueries<User> implements UserQueries {
+
+    UserQueriesImpl() {
+        super(User.class, "userId");
+    }
+
+    @Override
+    protected void fetchAssociations(Root<User> root) {
+        root.fetch("doctor", JoinType.LEFT);
+        root.fetch("patient", JoinType.LEFT);
+    }
+
+    @Override
+    public List<User> findPageAfter(Long afterId, String role, Pageable pageable) {
+        return pageAfter(afterId, filter(role), pageable);
+    }
+
+    @Override
+    public List<User> findPageBefore(Long beforeId, String role, Pageable pageable) {
+        return pageBefore(beforeId, filter(role), pageable);
+    }
+
+    private static Filter<User> filter(String role) {
+        return (cb, root) -> {
+            List<Predicate> where = new ArrayList<>();
+            if (role != null) {
+                where.add(cb.equal(root.get("role"), role));
+            }
+            return where;
+        };
+    }
+}
@@ -2,21 +2,41 @@ package com.spring.boot.repo;
 
 import com.spring.boot.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepo extends JpaRepository<User,Long> {
+public interface UserRepo extends JpaRepository<User,Long>, UserQueries {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
+    boolean existsByEmail(String email);
+
+    @Query("SELECT u.username FROM User u")
+    List<String> findAllUsernames();
+
+    @Query("SELECT u.email FROM User u")
+    List<String> findAllEmails();
     @Query("""
        SELECT u FROM User u
        LEFT JOIN FETCH u.doctor d
        LEFT JOIN FETCH u.patient p
-       LEFT JOIN FETCH d.workingDays
        WHERE u.username = :username
        """)
     Optional<User> findUserWithDetails(String username);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.userId = :userId")
+    Optional<Integer> findTokenVersion(Long userId);
+
+    @Query("SELECT u.userId, u.tokenVersion FROM User u")
+    List<Object[]> findAllTokenVersions();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = COALESCE(u.tokenVersion, 0) + 1 WHERE u.userId = :userId")
+    int incrementTokenVersion(Long userId);
 }
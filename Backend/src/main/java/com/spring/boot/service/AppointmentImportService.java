@@ -0,0 +1,10 @@
+package com.spring.boot.service;
+
+import com.spring.boot.dto.AppointmentDto;
+import com.spring.boot.dto.BulkReportDto;
+
+import java.util.List;
+
+public interface AppointmentImportService {
+    BulkReportDto addAppointments(List<AppointmentDto> appointmentDtos);
+}
@@ -0,0 +1,19 @@
+package com.spring.boot.service;
+
+import com.spring.boot.dto.AppointmentSeriesDto;
+
+public interface AppointmentSeriesService {
+
+    AppointmentSeriesDto addSeries(AppointmentSeriesDto seriesDto);
+
+    /**
+     * Applies the new doctor, duration and start to every upcoming occurrence. A new
+     * {@code firstAppointmentDate} moves all of them by its distance from the next one.
+     */
+    AppointmentSeriesDto updateSeries(String seriesId, AppointmentSeriesDto seriesDto);
+
+    /**
+     * Cancels every upcoming occurrence; past visits are kept.
+     */
+    void deleteSeries(String seriesId);
+}
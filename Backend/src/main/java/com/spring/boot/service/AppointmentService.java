@@ -1,17 +1,40 @@
 package com.spring.boot.service;
 
 import com.spring.boot.dto.AppointmentDto;
+import com.spring.boot.dto.CursorPageDto;
+import com.spring.boot.dto.ScheduleChangeDto;
 import com.spring.boot.model.Appointment;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface AppointmentService {
 
     List<AppointmentDto> getAppointments();
+
+    /**
+     * One keyset page of appointments in {@code [from, to)}, optionally of one doctor or
+     * patient, sorted by {@code date} or {@code -date}; {@code cursor} is the previous
+     * page's {@code nextCursor}.
+     */
+    CursorPageDto<AppointmentDto> getAppointmentsPage(LocalDateTime from, LocalDateTime to, Long doctorId, Long patientId,
+                                                      String sort, String cursor, Integer size);
     AppointmentDto getAppointmentById(Long id);
     AppointmentDto addAppointment(AppointmentDto appointmentDto);
     AppointmentDto updateAppointment(AppointmentDto appointmentDto);
     void deleteAppointment(Long id);
     List<AppointmentDto> getAppointmentsByDoctorId(Long doctorId);
     List<AppointmentDto> getAppointmentsByPatientId(Long patientId);
+
+    /**
+     * Moves every appointment of the doctor in {@code [from, to)} by {@code shiftMinutes}
+     * with one UPDATE, after checking the target slots once. Nothing moves if any slot is taken.
+     */
+    ScheduleChangeDto shiftDoctorAppointments(Long doctorId, ScheduleChangeDto changeDto);
+
+    /**
+     * Deletes every appointment of the doctor in {@code [from, to)} with one DELETE,
+     * keeping those that already have a prescription.
+     */
+    ScheduleChangeDto cancelDoctorAppointments(Long doctorId, ScheduleChangeDto changeDto);
 }
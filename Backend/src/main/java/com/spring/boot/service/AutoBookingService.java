@@ -0,0 +1,13 @@
+package com.spring.boot.service;
+
+import com.spring.boot.dto.AppointmentDto;
+import com.spring.boot.dto.AutoBookingDto;
+
+public interface AutoBookingService {
+
+    /**
+     * Books the patient with the doctor who is free in the requested window and has
+     * the fewest appointments that day, at that doctor's earliest free start in it.
+     */
+    AppointmentDto bookLeastLoaded(AutoBookingDto autoBookingDto);
+}
@@ -0,0 +1,15 @@
+package com.spring.boot.service;
+
+import com.spring.boot.dto.DoctorDashboardDto;
+
+import java.time.LocalDateTime;
+
+public interface DoctorDashboardService {
+
+    /**
+     * Today's and upcoming appointments, patients and latest prescriptions of one
+     * doctor, each list capped. With {@code since} (a previous {@code serverTime})
+     * only rows changed after it are returned, plus the ids still on the dashboard.
+     */
+    DoctorDashboardDto getDashboard(Long doctorId, LocalDateTime since);
+}
@@ -0,0 +1,16 @@
+package com.spring.boot.service;
+
+import com.spring.boot.dto.DoctorScheduleExceptionDto;
+
+import java.util.List;
+
+public interface DoctorScheduleService {
+
+    List<DoctorScheduleExceptionDto> getExceptions(Long doctorId);
+
+    DoctorScheduleExceptionDto addException(Long doctorId, DoctorScheduleExceptionDto exceptionDto);
+
+    DoctorScheduleExceptionDto updateException(Long doctorId, Long exceptionId, DoctorScheduleExceptionDto exceptionDto);
+
+    void deleteException(Long doctorId, Long exceptionId);
+}
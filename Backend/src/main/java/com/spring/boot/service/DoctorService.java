@@ -1,5 +1,6 @@
 package com.spring.boot.service;
 
+import com.spring.boot.dto.CursorPageDto;
 import com.spring.boot.dto.DoctorDto;
 import com.spring.boot.dto.PatientDto;
 import com.spring.boot.model.Appointment;
@@ -11,6 +12,9 @@ import java.util.List;
 public interface DoctorService {
     List<DoctorDto> getDoctors();
 
+    // keyset page sorted by id or -id; name matches as a prefix
+    CursorPageDto<DoctorDto> getDoctorsPage(String name, String sort, String cursor, Integer size);
+
     DoctorDto addDoctor(DoctorDto doctorDto);
 
     Doctor addDoctorEntity(Doctor doctor);
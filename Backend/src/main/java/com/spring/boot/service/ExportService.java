@@ -0,0 +1,22 @@
+package com.spring.boot.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+public interface ExportService {
+
+    /**
+     * Checks the request and returns the body that writes the appointments in
+     * {@code [from, to)} as NDJSON or CSV, row by row, so memory use does not grow
+     * with the number of rows. Invalid requests fail here, before the response starts.
+     */
+    StreamingResponseBody exportAppointments(String format, LocalDateTime from, LocalDateTime to, Long doctorId, Long patientId);
+
+    StreamingResponseBody exportPrescriptions(String format, LocalDateTime from, LocalDateTime to, Long doctorId, Long patientId);
+
+    StreamingResponseBody exportPatients(String format, String status);
+
+    // fails with export.format.invalid for anything but ndjson (the default) and csv
+    String contentType(String format);
+}
@@ -0,0 +1,13 @@
+package com.spring.boot.service;
+
+import com.spring.boot.dto.PatientHomeDto;
+
+public interface PatientHomeService {
+
+    /**
+     * Upcoming appointments and latest prescriptions of one patient, each list
+     * capped, with the doctor directory unless {@code directoryVersion} is the
+     * current one.
+     */
+    PatientHomeDto getHome(Long patientId, String directoryVersion);
+}
@@ -1,5 +1,6 @@
 package com.spring.boot.service;
 
+import com.spring.boot.dto.CursorPageDto;
 import com.spring.boot.dto.PatientDto;
 import com.spring.boot.model.Patient;
 
@@ -7,6 +8,8 @@ import java.util.List;
 
 public interface PatientService {
     List<PatientDto> getAllPatients();
+    // keyset page sorted by id or -id; name matches as a prefix
+    CursorPageDto<PatientDto> getPatientsPage(String status, String gender, String name, String sort, String cursor, Integer size);
     List<PatientDto> getAllPatientsByDoctorId(Long doctorId);
     PatientDto getPatientById(Long id);
     PatientDto getPatientByPatientName(String patientName);
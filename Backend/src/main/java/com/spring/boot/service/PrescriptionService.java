@@ -1,12 +1,17 @@
 package com.spring.boot.service;
 
+import com.spring.boot.dto.CursorPageDto;
 import com.spring.boot.dto.PrescriptionDto;
 import com.spring.boot.model.Prescription;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface PrescriptionService {
     List<PrescriptionDto> GetAllPrescriptions();
+    // same contract as AppointmentService.getAppointmentsPage, by prescription date
+    CursorPageDto<PrescriptionDto> getPrescriptionsPage(LocalDateTime from, LocalDateTime to, Long doctorId, Long patientId,
+                                                        String sort, String cursor, Integer size);
     PrescriptionDto findPrescriptionById(Long prescriptionId);
 
     List<PrescriptionDto> findPrescriptionsByPatientId(Long patientId);
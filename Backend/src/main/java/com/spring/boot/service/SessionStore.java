@@ -0,0 +1,20 @@
+package com.spring.boot.service;
+
+import com.spring.boot.model.RefreshSession;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface SessionStore {
+    void save(RefreshSession session);
+
+    /**
+     * Removes the session with the given token hash and returns it, so one refresh
+     * token can be redeemed only once.
+     */
+    Optional<RefreshSession> consume(String tokenHash);
+
+    void revokeUser(Long userId);
+
+    int purgeExpired(Instant now);
+}
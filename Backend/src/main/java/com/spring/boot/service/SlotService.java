@@ -0,0 +1,11 @@
+package com.spring.boot.service;
+
+import com.spring.boot.dto.FreeSlotDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SlotService {
+
+    List<FreeSlotDto> findFreeSlots(Long doctorId, LocalDate from, LocalDate to, Integer count, Integer durationMinutes);
+}
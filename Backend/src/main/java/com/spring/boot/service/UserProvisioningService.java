@@ -0,0 +1,18 @@
+package com.spring.boot.service;
+
+import com.spring.boot.dto.BulkReportDto;
+import com.spring.boot.dto.UserDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public interface UserProvisioningService {
+    BulkReportDto addUsers(List<UserDto> userDtos);
+
+    /**
+     * Same as {@link #addUsers(List)} for a newline delimited JSON stream of UserDto
+     * records, read and inserted chunk by chunk.
+     */
+    BulkReportDto addUsers(InputStream ndjson) throws IOException;
+}
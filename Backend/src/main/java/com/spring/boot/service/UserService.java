@@ -1,5 +1,6 @@
 package com.spring.boot.service;
 
+import com.spring.boot.dto.CursorPageDto;
 import com.spring.boot.dto.UserDto;
 import com.spring.boot.model.User;
 import jakarta.transaction.SystemException;
@@ -12,6 +13,8 @@ public interface UserService {
     UserDto adminAddUser(UserDto userDto) throws SystemException;
     UserDto getUserByUsername(String username);
     List<UserDto> getAllUsers();
+    // keyset page sorted by id or -id, optionally of one role
+    CursorPageDto<UserDto> getUsersPage(String role, String sort, String cursor, Integer size);
     void deleteUser(Long id);
 
 }
@@ -0,0 +1,252 @@
+package com.spring.boot.service.impl;
+
+import com.spring.boot.config.cache.AppointmentIntervalIndex;
+import com.spring.boot.config.cache.SummaryCounters;
+import com.spring.boot.config.lock.DoctorBookingLocks;
+import com.spring.boot.dto.AppointmentDto;
+import com.spring.boot.dto.BulkItemResultDto;
+import com.spring.boot.dto.BulkReportDto;
+import com.spring.boot.mapper.AppointmentMapper;
+import com.spring.boot.model.Appointment;
+import com.spring.boot.model.Doctor;
+import com.spring.boot.model.Patient;
+import com.spring.boot.repo.AppointmentRepo;
+import com.spring.boot.repo.DoctorRepo;
+import com.spring.boot.repo.PatientRepo;
+import com.spring.boot.service.AppointmentImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a list of appointments, e.g. a week's schedule. Doctors and patients are
+ * resolved with one query each, every record goes through the same rules as a
+ * single booking, and each doctor's records are checked against that doctor's
+ * days (loaded with one range query under the doctor's locks) and against each
+ * other, then inserted together so Hibernate can batch them.
+ */
+@Service
+public class AppointmentImportServiceImpl implements AppointmentImportService {
+
+    private final AppointmentRepo appointmentRepo;
+    private final DoctorRepo doctorRepo;
+    private final PatientRepo patientRepo;
+    private final AppointmentMapper appointmentMapper;
+    private final AppointmentIntervalIndex appointmentIntervalIndex;
+    private final DoctorBookingLocks doctorBookingLocks;
+    private final BookingRules bookingRules;
+    private final SummaryCounters summaryCounters;
+    private final BundleMessageService bundleMessageService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public AppointmentImportServiceImpl(AppointmentRepo appointmentRepo, DoctorRepo doctorRepo, PatientRepo patientRepo,
+                                        AppointmentMapper appointmentMapper, AppointmentIntervalIndex appointmentIntervalIndex,
+                                        DoctorBookingLocks doctorBookingLocks, BookingRules bookingRules,
+                                        SummaryCounters summaryCounters, BundleMessageService bundleMessageService,
+                                        PlatformTransactionManager transactionManager) {
+        this.appointmentRepo = appointmentRepo;
+        this.doctorRepo = doctorRepo;
+        this.patientRepo = patientRepo;
+        this.appointmentMapper = appointmentMapper;
+        this.appointmentIntervalIndex = appointmentIntervalIndex;
+        this.doctorBookingLocks = doctorBookingLocks;
+        this.bookingRules = bookingRules;
+        this.summaryCounters = summaryCounters;
+        this.bundleMessageService = bundleMessageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public BulkReportDto addAppointments(List<AppointmentDto> appointmentDtos) {
+        long start = System.nanoTime();
+        BulkReportDto report = new BulkReportDto();
+
+        Map<String, Doctor> doctors = doctorRepo.findByDoctorNameIn(names(appointmentDtos, AppointmentDto::getDoctorName))
+                .stream().collect(Collectors.toMap(Doctor::getDoctorName, Function.identity(), (first, second) -> first));
+        Map<String, Patient> patients = patientRepo.findByPatientNameIn(names(appointmentDtos, AppointmentDto::getPatientName))
+                .stream().collect(Collectors.toMap(Patient::getPatientName, Function.identity(), (first, second) -> first));
+
+        // one doctor at a time, in id order, so two imports never wait on each other's locks crosswise
+        Map<Long, List<Pending>> byDoctor = new TreeMap<>();
+        for (int index = 0; index < appointmentDtos.size(); index++) {
+            AppointmentDto appointmentDto = appointmentDtos.get(index);
+            try {
+                Pending pending = validate(index, appointmentDto, doctors, patients);
+                byDoctor.computeIfAbsent(pending.doctor.getDoctorId(), id -> new ArrayList<>()).add(pending);
+            } catch (RuntimeException exception) {
+                report.add(failure(index, appointmentDto == null ? null : appointmentDto.getPatientName(), exception.getMessage()));
+            }
+        }
+
+        Map<Long, List<Pending>> acceptedByPatient = new HashMap<>();
+        for (Map.Entry<Long, List<Pending>> group : byDoctor.entrySet()) {
+            importDoctor(group.getKey(), group.getValue(), acceptedByPatient, report);
+        }
+
+        report.getItems().sort(Comparator.comparingInt(BulkItemResultDto::getIndex));
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    private Pending validate(int index, AppointmentDto appointmentDto, Map<String, Doctor> doctors, Map<String, Patient> patients) {
+        if (appointmentDto == null) {
+            throw new RuntimeException("bulk.record.invalid");
+        }
+        if (Objects.nonNull(appointmentDto.getAppointmentId())) {
+            throw new RuntimeException("appointment.id.notRequired");
+        }
+        if (Objects.isNull(appointmentDto.getAppointmentDate())) {
+            throw new RuntimeException("appointment.date.Required");
+        }
+        if (Objects.isNull(appointmentDto.getDoctorName())) {
+            throw new RuntimeException("appointment.doctor.name.Required");
+        }
+        if (Objects.isNull(appointmentDto.getPatientName())) {
+            throw new RuntimeException("appointment.patient.name.Required");
+        }
+        Doctor doctor = doctors.get(appointmentDto.getDoctorName());
+        if (doctor == null) {
+            throw new RuntimeException("doctor.name.notFound");
+        }
+        Patient patient = patients.get(appointmentDto.getPatientName());
+        if (patient == null) {
+            throw new RuntimeException("patient.name.notFound");
+        }
+        bookingRules.validateBookingTime(doctor, appointmentDto.getAppointmentDate());
+        int durationMinutes = bookingRules.resolveDuration(appointmentDto.getDurationMinutes());
+        return new Pending(index, appointmentDto, doctor, patient, durationMinutes);
+    }
+
+    private void importDoctor(Long doctorId, List<Pending> group, Map<Long, List<Pending>> acceptedByPatient, BulkReportDto report) {
+        group.sort(Comparator.comparing(Pending::start));
+        LocalDate from = group.get(0).start().toLocalDate();
+        LocalDate to = group.get(group.size() - 1).start().toLocalDate();
+
+        String groupError = null;
+        Lock lock = null;
+        try {
+            lock = doctorBookingLocks.lock(doctorId);
+            transactionTemplate.executeWithoutResult(status -> {
+                Doctor doctor = doctorRepo.findByIdForUpdate(doctorId)
+                        .orElseThrow(() -> new RuntimeException("doctor.name.notFound"));
+                appointmentIntervalIndex.reloadDoctorRange(doctorId, from, to);
+                Map<LocalDate, Integer> takenByDay = new HashMap<>();
+
+                Pending previous = null;
+                List<Appointment> appointments = new ArrayList<>(group.size());
+                for (Pending pending : group) {
+                    try {
+                        bookingRules.validateBookingTime(doctor, pending.start());
+                        bookingRules.checkConflicts(doctorId, pending.patient.getPatientId(), pending.start(), pending.durationMinutes, Set.of());
+                        checkBatchConflicts(previous, pending, acceptedByPatient);
+                        // counts what is committed plus what this batch already took, under the row lock
+                        bookingRules.checkCapacity(doctor, bookingRules.capacityChange(doctor, List.of(),
+                                Collections.nCopies(takenByDay.getOrDefault(pending.start().toLocalDate(), 0) + 1, pending.start())));
+                    } catch (RuntimeException exception) {
+                        pending.error = exception.getMessage();
+                        continue;
+                    }
+                    appointments.add(pending.appointment);
+                    takenByDay.merge(pending.start().toLocalDate(), 1, Integer::sum);
+                    previous = pending;
+                }
+                appointmentRepo.saveAll(appointments);
+                appointmentRepo.flush();
+            });
+        } catch (DataIntegrityViolationException exception) {
+            groupError = "doctor.notAvailableAtThisTime";
+        } catch (RuntimeException exception) {
+            groupError = exception.getMessage();
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+
+        // the batch bypassed the capacity counters, they recount on next use
+        bookingRules.forgetCapacity(doctorId);
+        for (Pending pending : group) {
+            if (pending.error != null || groupError != null) {
+                report.add(failure(pending.index, pending.appointmentDto.getPatientName(),
+                        pending.error != null ? pending.error : groupError));
+                continue;
+            }
+            appointmentIntervalIndex.add(pending.appointment);
+            summaryCounters.appointmentAdded(doctorId, pending.start());
+            acceptedByPatient.computeIfAbsent(pending.patient.getPatientId(), id -> new ArrayList<>()).add(pending);
+            report.add(new BulkItemResultDto(pending.index, pending.appointmentDto.getPatientName(), true,
+                    pending.appointment.getAppointmentId(), null));
+        }
+    }
+
+    // the group is sorted and accepted records never overlap, so the last accepted one is the only candidate
+    private static void checkBatchConflicts(Pending previous, Pending pending, Map<Long, List<Pending>> acceptedByPatient) {
+        if (previous != null && previous.end().isAfter(pending.start())) {
+            if (previous.start().equals(pending.start())) {
+                throw new RuntimeException("doctor.notAvailableAtThisTime");
+            }
+            throw new RuntimeException("doctor.hasAppointmentTooClose");
+        }
+        for (Pending other : acceptedByPatient.getOrDefault(pending.patient.getPatientId(), List.of())) {
+            if (other.start().isBefore(pending.end()) && other.end().isAfter(pending.start())) {
+                throw new RuntimeException("patient.hasOverlappingAppointment");
+            }
+        }
+    }
+
+    private static Set<String> names(List<AppointmentDto> appointmentDtos, Function<AppointmentDto, String> name) {
+        Set<String> names = new HashSet<>();
+        for (AppointmentDto appointmentDto : appointmentDtos) {
+            if (appointmentDto != null && name.apply(appointmentDto) != null) {
+                names.add(name.apply(appointmentDto));
+            }
+        }
+        return names;
+    }
+
+    private BulkItemResultDto failure(int index, String reference, String messageKey) {
+        return new BulkItemResultDto(index, reference, false, null, bundleMessageService.getMessage(messageKey));
+    }
+
+    private final class Pending {
+        private final int index;
+        private final AppointmentDto appointmentDto;
+        private final Doctor doctor;
+        private final Patient patient;
+        private final int durationMinutes;
+        private final Appointment appointment;
+        private String error;
+
+        private Pending(int index, AppointmentDto appointmentDto, Doctor doctor, Patient patient, int durationMinutes) {
+            this.index = index;
+            this.appointmentDto = appointmentDto;
+            this.doctor = doctor;
+            this.patient = patient;
+            this.durationMinutes = durationMinutes;
+
+            Appointment appointment = appointmentMapper.toEntity(appointmentDto);
+            appointment.setDurationMinutes(durationMinutes);
+            appointment.setDoctor(doctor);
+            appointment.setPatient(patient);
+            this.appointment = appointment;
+        }
+
+        private LocalDateTime start() {
+            return appointmentDto.getAppointmentDate();
+        }
+
+        private LocalDateTime end() {
+            return start().plusMinutes(durationMinutes);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.spring.boot.service.impl;
+
+import com.spring.boot.config.cache.AppointmentIntervalIndex;
+import com.spring.boot.config.cache.SummaryCounters;
+import com.spring.boot.config.lock.DoctorBookingLocks;
+import com.spring.boot.dto.AppointmentSeriesDto;
+import com.spring.boot.enums.RecurrenceUnit;
+import com.spring.boot.mapper.AppointmentMapper;
+import com.spring.boot.model.Appointment;
+import com.spring.boot.model.Doctor;
+import com.spring.boot.model.Patient;
+import com.spring.boot.repo.AppointmentRepo;
+import com.spring.boot.repo.DoctorRepo;
+import com.spring.boot.repo.PatientRepo;
+import com.spring.boot.service.AppointmentSeriesService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+/**
+ * Books, moves and cancels a recurring series as a unit. Every occurrence is
+ * checked against the doctor's and the patient's days for the whole span, loaded
+ * with one range query each while the doctor's locks are held, and the
+ * occurrences are written together in one transaction, so a series is either
+ * booked completely or not at all.
+ */
+@Service
+public class AppointmentSeriesServiceImpl implements AppointmentSeriesService {
+
+    private static final int MAX_OCCURRENCES = 52;
+
+    private AppointmentRepo appointmentRepo;
+    private DoctorRepo doctorRepo;
+    private PatientRepo patientRepo;
+    private AppointmentMapper appointmentMapper;
+    private AppointmentIntervalIndex appointmentIntervalIndex;
+    private DoctorBookingLocks doctorBookingLocks;
+    private BookingRules bookingRules;
+    private SummaryCounters summaryCounters;
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public AppointmentSeriesServiceImpl(AppointmentRepo appointmentRepo, DoctorRepo doctorRepo, PatientRepo patientRepo,
+                                        AppointmentMapper appointmentMapper, AppointmentIntervalIndex appointmentIntervalIndex,
+                                        DoctorBookingLocks doctorBookingLocks, BookingRules bookingRules,
+                                        SummaryCounters summaryCounters, PlatformTransactionManager transactionManager) {
+        this.appointmentRepo = appointmentRepo;
+        this.doctorRepo = doctorRepo;
+        this.patientRepo = patientRepo;
+        this.appointmentMapper = appointmentMapper;
+        this.appointmentIntervalIndex = appointmentIntervalIndex;
+        this.doctorBookingLocks = doctorBookingLocks;
+        this.bookingRules = bookingRules;
+        this.summaryCounters = summaryCounters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public AppointmentSeriesDto addSeries(AppointmentSeriesDto seriesDto) {
+
+        // ---------------- Validation ----------------
+        if (Objects.nonNull(seriesDto.getSeriesId())) {
+            throw new RuntimeException("series.id.notRequired");
+        }
+        if (Objects.isNull(seriesDto.getFirstAppointmentDate())) {
+            throw new RuntimeException("appointment.date.Required");
+        }
+        if (Objects.isNull(seriesDto.getDoctorName())) {
+            throw new RuntimeException("appointment.doctor.name.Required");
+        }
+        if (Objects.isNull(seriesDto.getPatientName())) {
+            throw new RuntimeException("appointment.patient.name.Required");
+        }
+        if (Objects.isNull(seriesDto.getEvery()) || seriesDto.getEvery() < 1) {
+            throw new RuntimeException("series.every.invalid");
+        }
+        if (Objects.isNull(seriesDto.getOccurrences()) || seriesDto.getOccurrences() < 1
+                || seriesDto.getOccurrences() > MAX_OCCURRENCES) {
+            throw new RuntimeException("series.occurrences.invalid");
+        }
+
+        // ---------------- Fetch doctor and patient once for the whole series ----------------
+        Doctor doctor = doctorRepo.findDoctorByDoctorName(seriesDto.getDoctorName())
+                .orElseThrow(() -> new RuntimeException("doctor.name.notFound"));
+        Patient patient = patientRepo.findPatientByPatientName(seriesDto.getPatientName())
+                .orElseThrow(() -> new RuntimeException("patient.name.notFound"));
+        int durationMinutes = bookingRules.resolveDuration(seriesDto.getDurationMinutes());
+        RecurrenceUnit unit = Objects.isNull(seriesDto.getUnit()) ? RecurrenceUnit.WEEKS : seriesDto.getUnit();
+        int stepDays = unit == RecurrenceUnit.WEEKS ? seriesDto.getEvery() * 7 : seriesDto.getEvery();
+
+        // ---------------- Build and validate every occurrence ----------------
+        String seriesId = UUID.randomUUID().toString();
+        List<Appointment> appointments = new ArrayList<>(seriesDto.getOccurrences());
+        for (int i = 0; i < seriesDto.getOccurrences(); i++) {
+            LocalDateTime appointmentDate = seriesDto.getFirstAppointmentDate().plusDays((long) i * stepDays);
+            bookingRules.validateBookingTime(doctor, appointmentDate);
+
+            Appointment appointment = new Appointment();
+            appointment.setAppointmentDate(appointmentDate);
+            appointment.setDurationMinutes(durationMinutes);
+            appointment.setPatientName(patient.getPatientName());
+            appointment.setSeriesId(seriesId);
+            appointment.setDoctor(doctor);
+            appointment.setPatient(patient);
+            appointments.add(appointment);
+        }
+
+        List<LocalDateTime> dates = appointments.stream().map(Appointment::getAppointmentDate).toList();
+        List<Integer> durations = Collections.nCopies(appointments.size(), durationMinutes);
+        BookingRules.CapacityChange capacity = bookingRules.capacityChange(doctor, List.of(), dates);
+        bookingRules.reserveCapacity(doctor, capacity);
+        List<Appointment> saved = book(doctor.getDoctorId(), capacity, () -> {
+            lockAndRecheck(doctor.getDoctorId(), patient.getPatientId(), dates, durations, Set.of(), capacity);
+            List<Appointment> result = appointmentRepo.saveAll(appointments);
+            appointmentRepo.flush();
+            return result;
+        });
+        saved.forEach(appointmentIntervalIndex::add);
+        saved.forEach(appointment -> summaryCounters.appointmentAdded(doctor.getDoctorId(), appointment.getAppointmentDate()));
+        return toSeriesDto(seriesId, saved);
+    }
+
+    @Override
+    public AppointmentSeriesDto updateSeries(String seriesId, AppointmentSeriesDto seriesDto) {
+
+        // ---------------- Fetch upcoming occurrences ----------------
+        List<Appointment> appointments = appointmentRepo
+                .findBySeriesIdAndAppointmentDateAfterOrderByAppointmentDate(seriesId, LocalDateTime.now());
+        if (appointments.isEmpty()) {
+            throw new RuntimeException("series.id.notFound");
+        }
+
+        Doctor doctor = Objects.isNull(seriesDto.getDoctorName())
+                ? appointments.get(0).getDoctor()
+                : doctorRepo.findDoctorByDoctorName(seriesDto.getDoctorName())
+                        .orElseThrow(() -> new RuntimeException("doctor.name.notFound"));
+        Integer durationMinutes = Objects.isNull(seriesDto.getDurationMinutes())
+                ? null
+                : bookingRules.resolveDuration(seriesDto.getDurationMinutes());
+        Duration shift = Objects.isNull(seriesDto.getFirstAppointmentDate())
+                ? Duration.ZERO
+                : Duration.between(appointments.get(0).getAppointmentDate(), seriesDto.getFirstAppointmentDate());
+        Patient patient = appointments.get(0).getPatient();
+
+        // ---------------- Remember where each occurrence was, for the index ----------------
+        List<Long> previousDoctorIds = new ArrayList<>(appointments.size());
+        List<LocalDateTime> previousDates = new ArrayList<>(appointments.size());
+        Set<Long> ownIds = new HashSet<>();
+        for (Appointment appointment : appointments) {
+            previousDoctorIds.add(appointment.getDoctor().getDoctorId());
+            previousDates.add(appointment.getAppointmentDate());
+            ownIds.add(appointment.getAppointmentId());
+        }
+
+        // ---------------- Validate the edit on every occurrence ----------------
+        List<LocalDateTime> targetDates = new ArrayList<>(appointments.size());
+        List<Integer> targetDurations = new ArrayList<>(appointments.size());
+        for (Appointment appointment : appointments) {
+            LocalDateTime appointmentDate = appointment.getAppointmentDate().plus(shift);
+            bookingRules.validateBookingTime(doctor, appointmentDate);
+            targetDates.add(appointmentDate);
+            targetDurations.add(durationMinutes != null ? durationMinutes : appointment.getEffectiveDurationMinutes());
+        }
+
+        // occurrences that stay with the doctor free their old days
+        List<LocalDateTime> staying = new ArrayList<>();
+        for (int i = 0; i < appointments.size(); i++) {
+            if (previousDoctorIds.get(i).equals(doctor.getDoctorId())) {
+                staying.add(previousDates.get(i));
+            }
+        }
+        BookingRules.CapacityChange capacity = bookingRules.capacityChange(doctor, staying, targetDates);
+        bookingRules.reserveCapacity(doctor, capacity);
+
+        // the occurrences are applied and flushed one at a time, the last one first when moving
+        // forward, so none moves into a slot another occurrence has not left yet; the
+        // (doctor, date) constraint is checked row by row
+        boolean forward = !shift.isNegative() && !shift.isZero();
+        List<Appointment> saved = book(doctor.getDoctorId(), capacity, () -> {
+            lockAndRecheck(doctor.getDoctorId(), patient.getPatientId(), targetDates, targetDurations, ownIds, capacity);
+            Appointment[] result = new Appointment[appointments.size()];
+            for (int step = 0; step < result.length; step++) {
+                int i = forward ? result.length - 1 - step : step;
+                Appointment appointment = appointments.get(i);
+                appointment.setAppointmentDate(targetDates.get(i));
+                appointment.setDurationMinutes(targetDurations.get(i));
+                appointment.setDoctor(doctor);
+                result[i] = appointmentRepo.saveAndFlush(appointment);
+            }
+            return Arrays.asList(result);
+        });
+        for (int i = 0; i < saved.size(); i++) {
+            appointmentIntervalIndex.remove(saved.get(i).getAppointmentId(), previousDoctorIds.get(i),
+                    patient.getPatientId(), previousDates.get(i));
+            if (!previousDoctorIds.get(i).equals(doctor.getDoctorId())) {
+                bookingRules.freeCapacity(previousDoctorIds.get(i), List.of(previousDates.get(i)));
+            }
+            summaryCounters.appointmentRemoved(previousDoctorIds.get(i), previousDates.get(i));
+            summaryCounters.appointmentAdded(doctor.getDoctorId(), saved.get(i).getAppointmentDate());
+        }
+        saved.forEach(appointmentIntervalIndex::add);
+        return toSeriesDto(seriesId, saved);
+    }
+
+    @Override
+    public void deleteSeries(String seriesId) {
+        List<Appointment> appointments = appointmentRepo
+                .findBySeriesIdAndAppointmentDateAfterOrderByAppointmentDate(seriesId, LocalDateTime.now());
+        if (appointments.isEmpty()) {
+            throw new RuntimeException("series.id.notFound");
+        }
+
+        appointmentRepo.deleteAllInBatch(appointments);
+        for (Appointment appointment : appointments) {
+            bookingRules.freeCapacity(appointment.getDoctor().getDoctorId(), List.of(appointment.getAppointmentDate()));
+            appointmentIntervalIndex.remove(appointment.getAppointmentId(),
+                    appointment.getDoctor().getDoctorId(),
+                    appointment.getPatient().getPatientId(),
+                    appointment.getAppointmentDate());
+            summaryCounters.appointmentRemoved(appointment.getDoctor().getDoctorId(), appointment.getAppointmentDate());
+        }
+    }
+
+    private List<Appointment> book(Long doctorId, BookingRules.CapacityChange capacity, Supplier<List<Appointment>> write) {
+        boolean written = false;
+        try {
+            Lock lock = doctorBookingLocks.lock(doctorId);
+            try {
+                List<Appointment> result = transactionTemplate.execute(status -> write.get());
+                written = true;
+                return result;
+            } catch (DataIntegrityViolationException e) {
+                throw new RuntimeException("doctor.notAvailableAtThisTime");
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            if (written) {
+                bookingRules.commitCapacity(capacity);
+            } else {
+                bookingRules.releaseCapacity(capacity);
+            }
+        }
+    }
+
+    // one range query per owner covers every occurrence of the series
+    private void lockAndRecheck(Long doctorId, Long patientId, List<LocalDateTime> dates, List<Integer> durations,
+                                Set<Long> ownIds, BookingRules.CapacityChange capacity) {
+        Doctor doctor = doctorRepo.findByIdForUpdate(doctorId)
+                .orElseThrow(() -> new RuntimeException("doctor.name.notFound"));
+        LocalDateTime first = dates.get(0);
+        LocalDateTime last = dates.get(dates.size() - 1);
+        appointmentIntervalIndex.reloadDoctorRange(doctorId, first.toLocalDate(), last.toLocalDate());
+        appointmentIntervalIndex.reloadPatientRange(patientId, first.toLocalDate(), last.toLocalDate());
+        for (int i = 0; i < dates.size(); i++) {
+            bookingRules.validateBookingTime(doctor, dates.get(i));
+            bookingRules.checkConflicts(doctorId, patientId, dates.get(i), durations.get(i), ownIds);
+        }
+        bookingRules.checkCapacity(doctor, capacity);
+    }
+
+    private AppointmentSeriesDto toSeriesDto(String seriesId, List<Appointment> appointments) {
+        Appointment first = appointments.get(0);
+        AppointmentSeriesDto seriesDto = new AppointmentSeriesDto();
+        seriesDto.setSeriesId(seriesId);
+        seriesDto.setDoctorName(first.getDoctor().getDoctorName());
+        seriesDto.setPatientName(first.getPatientName());
+        seriesDto.setFirstAppointmentDate(first.getAppointmentDate());
+        seriesDto.setOccurrences(appointments.size());
+        seriesDto.setAppointments(appointmentMapper.toDto(appointments));
+        return seriesDto;
+    }
+}
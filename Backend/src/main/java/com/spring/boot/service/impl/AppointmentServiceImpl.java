@@ -1,10 +1,15 @@
 package com.spring.boot.service.impl;
 
+import com.spring.boot.config.cache.AppointmentIntervalIndex;
+import com.spring.boot.config.cache.SummaryCounters;
+import com.spring.boot.config.lock.DoctorBookingLocks;
 import com.spring.boot.dto.AppointmentDto;
-import com.spring.boot.enums.DaysOfWeek;
+import com.spring.boot.dto.CursorPageDto;
+import com.spring.boot.dto.ScheduleChangeDto;
 
 import java.time.*;
 
+import com.spring.boot.helper.PageCursor;
 import com.spring.boot.mapper.AppointmentMapper;
 import com.spring.boot.model.Appointment;
 import com.spring.boot.model.Doctor;
@@ -14,27 +19,50 @@ import com.spring.boot.repo.DoctorRepo;
 import com.spring.boot.repo.PatientRepo;
 import com.spring.boot.service.AppointmentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class AppointmentServiceImpl implements AppointmentService {
 
+    private static final int MAX_WINDOW_DAYS = 31;
+    private static final int MAX_SHIFT_MINUTES = 7 * 24 * 60;
+
     private AppointmentRepo appointmentRepo;
     private DoctorRepo doctorRepo;
     private PatientRepo patientRepo;
     private AppointmentMapper appointmentMapper;
+    private AppointmentIntervalIndex appointmentIntervalIndex;
+    private DoctorBookingLocks doctorBookingLocks;
+    private BookingRules bookingRules;
+    private SummaryCounters summaryCounters;
+    private TransactionTemplate transactionTemplate;
 
     @Autowired
-    public AppointmentServiceImpl(AppointmentRepo appointmentRepo,PatientRepo patientRepo,DoctorRepo doctorRepo,AppointmentMapper appointmentMapper) {
+    public AppointmentServiceImpl(AppointmentRepo appointmentRepo,PatientRepo patientRepo,DoctorRepo doctorRepo,AppointmentMapper appointmentMapper,
+                                  AppointmentIntervalIndex appointmentIntervalIndex, DoctorBookingLocks doctorBookingLocks,
+                                  BookingRules bookingRules, SummaryCounters summaryCounters,
+                                  PlatformTransactionManager transactionManager) {
         this.appointmentRepo = appointmentRepo;
         this.doctorRepo = doctorRepo;
         this.appointmentMapper = appointmentMapper;
         this.patientRepo = patientRepo;
+        this.appointmentIntervalIndex = appointmentIntervalIndex;
+        this.doctorBookingLocks = doctorBookingLocks;
+        this.bookingRules = bookingRules;
+        this.summaryCounters = summaryCounters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -44,6 +72,25 @@ public class AppointmentServiceImpl implements AppointmentService {
                 appointmentMapper.toDto(appointment)).collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPageDto<AppointmentDto> getAppointmentsPage(LocalDateTime from, LocalDateTime to, Long doctorId, Long patientId,
+                                                             String sort, String cursor, Integer size) {
+        int limit = PageCursor.resolveSize(size);
+        LocalDateTime rangeFrom = Objects.isNull(from) ? PageCursor.OPEN_FROM : from;
+        LocalDateTime rangeTo = Objects.isNull(to) ? PageCursor.OPEN_TO : to;
+        PageCursor.checkRange(rangeFrom, rangeTo);
+        PageCursor.DateKey last = PageCursor.decodeDate(cursor);
+
+        // the first page starts at the range end it walks from; (date, 0) is before every id
+        List<Appointment> rows = PageCursor.isDescending(sort, "date")
+                ? appointmentRepo.findPageBefore(last == null ? rangeTo : last.date(), last == null ? 0L : last.id(),
+                        rangeFrom, doctorId, patientId, PageCursor.firstRows(limit))
+                : appointmentRepo.findPageAfter(last == null ? rangeFrom : last.date(), last == null ? 0L : last.id(),
+                        rangeTo, doctorId, patientId, PageCursor.firstRows(limit));
+        return PageCursor.page(rows, limit, appointmentMapper::toDto,
+                appointment -> PageCursor.encodeDate(appointment.getAppointmentDate(), appointment.getAppointmentId()));
+    }
+
     @Override
     public AppointmentDto getAppointmentById(Long id) {
         Optional<Appointment> appointmentOptional = appointmentRepo.findById(id);
@@ -53,44 +100,47 @@ public class AppointmentServiceImpl implements AppointmentService {
         return appointmentMapper.toDto(appointmentOptional.get());
     }
 
-    private void validateBookingTime(Doctor doctor, LocalDateTime appointmentDate) {
-
-        LocalDate today = LocalDate.now();
-        LocalDate inputDate = appointmentDate.toLocalDate();
-        LocalTime appointmentTime = appointmentDate.toLocalTime();
-
-        // 1. Check date is after today
-        if (!inputDate.isAfter(today)) {
-            throw new RuntimeException("appointment.date.is.before.tomorrow");
-        }
-
-        // 2. Convert Java DayOfWeek → Your Enum DaysOfWeek
-        java.time.DayOfWeek javaDay = appointmentDate.getDayOfWeek();
-        DaysOfWeek appointmentDay = DaysOfWeek.valueOf(javaDay.name());
-
-        List<DaysOfWeek> doctorWorkingDays = doctor.getWorkingDays();
-
-        // 3. Check if doctor works on that day
-        if (!doctorWorkingDays.contains(appointmentDay)) {
-            throw new RuntimeException("doctor.notWorkingOnThisDay");
-        }
-
-        // 4. Check time inside attend + leave time
-        if (appointmentTime.isBefore(doctor.getAttendTime())) {
-            throw new RuntimeException("appointment.beforeAttendTime");
-        }
-
-        if (appointmentTime.isAfter(doctor.getLeaveTime())) {
-            throw new RuntimeException("appointment.afterLeaveTime");
+    /**
+     * Runs {@code write} in its own transaction while holding the doctor's stripe on
+     * this node; {@code write} takes the doctor's row lock, which serializes bookings
+     * across nodes. The unique (doctor, date) constraint is the last line of defence
+     * and surfaces as {@code doctor.notAvailableAtThisTime}. The daily capacity places
+     * reserved for the write are kept if it commits and given back if it does not.
+     */
+    private <T> T book(Long doctorId, BookingRules.CapacityChange capacity, Supplier<T> write) {
+        boolean written = false;
+        try {
+            Lock lock = doctorBookingLocks.lock(doctorId);
+            try {
+                T result = transactionTemplate.execute(status -> write.get());
+                written = true;
+                return result;
+            } catch (DataIntegrityViolationException e) {
+                throw new RuntimeException("doctor.notAvailableAtThisTime");
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            if (written) {
+                bookingRules.commitCapacity(capacity);
+            } else {
+                bookingRules.releaseCapacity(capacity);
+            }
         }
+    }
 
-        // 5. Check that appointment is between 7:00 AM and 11:59 PM
-        LocalTime earliestTime = LocalTime.of(7, 0); // 7:00 AM
-        LocalTime latestTime = LocalTime.of(23, 59); // 11:59 PM
+    private <T> T book(Long doctorId, Supplier<T> write) {
+        return book(doctorId, BookingRules.CapacityChange.NONE, write);
+    }
 
-        if (appointmentTime.isBefore(earliestTime) || appointmentTime.isAfter(latestTime)) {
-            throw new RuntimeException("appointment.time.mustBeBetween7AMand11_59PM");
-        }
+    // under the row lock nobody else can book this doctor or change its exceptions, so what the database holds is authoritative
+    private void lockAndRecheck(Long doctorId, Long patientId, LocalDateTime appointmentDate, int durationMinutes, Long excludeId,
+                                BookingRules.CapacityChange capacity) {
+        Doctor doctor = doctorRepo.findByIdForUpdate(doctorId)
+                .orElseThrow(() -> new RuntimeException("doctor.name.notFound"));
+        bookingRules.validateBookingTime(doctor, appointmentDate);
+        bookingRules.checkCapacity(doctor, capacity);
+        bookingRules.recheckConflicts(doctorId, patientId, appointmentDate, durationMinutes, excludeId);
     }
 
 
@@ -119,7 +169,7 @@ public class AppointmentServiceImpl implements AppointmentService {
                 .orElseThrow(() -> new RuntimeException("patient.name.notFound"));
 
         // ---------------- Validate booking day and time ----------------
-        validateBookingTime(doctor, appointmentDto.getAppointmentDate());
+        bookingRules.validateBookingTime(doctor, appointmentDto.getAppointmentDate());
 
         // ---------------- Check if patient already has a future appointment ----------------
 //        boolean hasFutureAppointment = appointmentRepo
@@ -132,38 +182,26 @@ public class AppointmentServiceImpl implements AppointmentService {
 //            throw new RuntimeException("patient.alreadyHasFutureAppointment");
 //        }
 
-        // ---------------- Check for existing appointments for doctor ----------------
-        LocalDateTime appointmentDate = appointmentDto.getAppointmentDate();
-        Duration buffer = Duration.ofMinutes(30); // half-hour buffer
-
-        List<Appointment> existingAppointments = appointmentRepo
-                .findByDoctorDoctorIdAndAppointmentDateBetween(
-                        doctor.getDoctorId(),
-                        appointmentDate.toLocalDate().atStartOfDay(),
-                        appointmentDate.toLocalDate().atTime(23, 59, 59)
-                );
-
-        for (Appointment a : existingAppointments) {
-            LocalDateTime existing = a.getAppointmentDate();
-
-            // Same exact time
-            if (existing.equals(appointmentDate)) {
-                throw new RuntimeException("doctor.notAvailableAtThisTime");
-            }
+        // ---------------- Check for overlapping appointments (doctor and patient) ----------------
+        int durationMinutes = bookingRules.resolveDuration(appointmentDto.getDurationMinutes());
+        bookingRules.checkConflicts(doctor.getDoctorId(), patient.getPatientId(), appointmentDto.getAppointmentDate(), durationMinutes, Set.of());
 
-            // Less than 30 minutes apart
-            long minutesDiff = Math.abs(Duration.between(existing, appointmentDate).toMinutes());
-            if (minutesDiff < 30) {
-                throw new RuntimeException("doctor.hasAppointmentTooClose");
-            }
-        }
+        // ---------------- Take a place in the doctor's daily capacity ----------------
+        BookingRules.CapacityChange capacity = bookingRules.capacityChange(doctor, List.of(), List.of(appointmentDto.getAppointmentDate()));
+        bookingRules.reserveCapacity(doctor, capacity);
 
-        // ---------------- Save appointment ----------------
+        // ---------------- Save appointment under the doctor's lock ----------------
         Appointment appointment = appointmentMapper.toEntity(appointmentDto);
+        appointment.setDurationMinutes(durationMinutes);
         appointment.setDoctor(doctor);
         appointment.setPatient(patient);
 
-        Appointment saved = appointmentRepo.save(appointment);
+        Appointment saved = book(doctor.getDoctorId(), capacity, () -> {
+            lockAndRecheck(doctor.getDoctorId(), patient.getPatientId(), appointment.getAppointmentDate(), durationMinutes, null, capacity);
+            return appointmentRepo.saveAndFlush(appointment);
+        });
+        appointmentIntervalIndex.add(saved);
+        summaryCounters.appointmentAdded(doctor.getDoctorId(), saved.getAppointmentDate());
         return appointmentMapper.toDto(saved);
     }
 
@@ -186,43 +224,41 @@ public class AppointmentServiceImpl implements AppointmentService {
         LocalDateTime newAppointmentDate = appointmentDto.getAppointmentDate();
 
         // ---------------- Validate booking day and time ----------------
-        validateBookingTime(doctor, newAppointmentDate);
-
-        // ---------------- Check for conflicting appointments ----------------
-        Duration buffer = Duration.ofMinutes(30); // half-hour buffer
-
-        // Get all appointments for the doctor on the same day, except the current one
-        List<Appointment> existingAppointments = appointmentRepo
-                .findByDoctorDoctorIdAndAppointmentDateBetween(
-                        doctor.getDoctorId(),
-                        newAppointmentDate.toLocalDate().atStartOfDay(),
-                        newAppointmentDate.toLocalDate().atTime(23, 59, 59)
-                )
-                .stream()
-                .filter(a -> !a.getAppointmentId().equals(existingAppointment.getAppointmentId()))
-                .toList();
-
-        for (Appointment a : existingAppointments) {
-            LocalDateTime existing = a.getAppointmentDate();
-
-            // Same exact time
-            if (existing.equals(newAppointmentDate)) {
-                throw new RuntimeException("doctor.notAvailableAtThisTime");
-            }
+        bookingRules.validateBookingTime(doctor, newAppointmentDate);
 
-            // Less than 30 minutes apart
-            long minutesDiff = Math.abs(Duration.between(existing, newAppointmentDate).toMinutes());
-            if (minutesDiff < 30) {
-                throw new RuntimeException("doctor.hasAppointmentTooClose");
-            }
-        }
+        // ---------------- Check for conflicting appointments, except the current one ----------------
+        int durationMinutes = appointmentDto.getDurationMinutes() != null
+                ? bookingRules.resolveDuration(appointmentDto.getDurationMinutes())
+                : existingAppointment.getEffectiveDurationMinutes();
+        Long patientId = existingAppointment.getPatient() != null ? existingAppointment.getPatient().getPatientId() : null;
+        bookingRules.checkConflicts(doctor.getDoctorId(), patientId, newAppointmentDate, durationMinutes, existingAppointment.getAppointmentId());
+
+        Long previousDoctorId = existingAppointment.getDoctor() != null ? existingAppointment.getDoctor().getDoctorId() : null;
+        LocalDateTime previousDate = existingAppointment.getAppointmentDate();
+        boolean sameDoctor = Objects.equals(previousDoctorId, doctor.getDoctorId());
 
-        // ---------------- Update appointment ----------------
+        // ---------------- Take a place in the doctor's daily capacity, unless it stays on the same day ----------------
+        BookingRules.CapacityChange capacity = bookingRules.capacityChange(doctor,
+                sameDoctor ? List.of(previousDate) : List.of(), List.of(newAppointmentDate));
+        bookingRules.reserveCapacity(doctor, capacity);
+
+        // ---------------- Update appointment under the doctor's lock ----------------
         existingAppointment.setAppointmentDate(newAppointmentDate);
+        existingAppointment.setDurationMinutes(durationMinutes);
         existingAppointment.setDoctor(doctor);
         existingAppointment.setPatientName(appointmentDto.getPatientName());
 
-        Appointment updatedAppointment = appointmentRepo.save(existingAppointment);
+        Appointment updatedAppointment = book(doctor.getDoctorId(), capacity, () -> {
+            lockAndRecheck(doctor.getDoctorId(), patientId, newAppointmentDate, durationMinutes, existingAppointment.getAppointmentId(), capacity);
+            return appointmentRepo.saveAndFlush(existingAppointment);
+        });
+        if (!sameDoctor && previousDoctorId != null) {
+            bookingRules.freeCapacity(previousDoctorId, List.of(previousDate));
+        }
+        appointmentIntervalIndex.remove(updatedAppointment.getAppointmentId(), previousDoctorId, patientId, previousDate);
+        appointmentIntervalIndex.add(updatedAppointment);
+        summaryCounters.appointmentRemoved(previousDoctorId, previousDate);
+        summaryCounters.appointmentAdded(doctor.getDoctorId(), newAppointmentDate);
         return appointmentMapper.toDto(updatedAppointment);
     }
 
@@ -234,7 +270,97 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new RuntimeException("appointment.id.notExist");
         }
 
+        Appointment appointment = appointmentOptional.get();
         appointmentRepo.deleteById(id);
+        if (appointment.getDoctor() != null) {
+            bookingRules.freeCapacity(appointment.getDoctor().getDoctorId(), List.of(appointment.getAppointmentDate()));
+        }
+        appointmentIntervalIndex.remove(id,
+                appointment.getDoctor() != null ? appointment.getDoctor().getDoctorId() : null,
+                appointment.getPatient() != null ? appointment.getPatient().getPatientId() : null,
+                appointment.getAppointmentDate());
+        summaryCounters.appointmentRemoved(appointment.getDoctor() != null ? appointment.getDoctor().getDoctorId() : null,
+                appointment.getAppointmentDate());
+    }
+
+    @Override
+    public ScheduleChangeDto shiftDoctorAppointments(Long doctorId, ScheduleChangeDto changeDto) {
+        validateWindow(changeDto);
+        int shiftMinutes = Objects.isNull(changeDto.getShiftMinutes()) ? 0 : changeDto.getShiftMinutes();
+        if (shiftMinutes == 0 || Math.abs(shiftMinutes) > MAX_SHIFT_MINUTES) {
+            throw new RuntimeException("schedule.shift.invalid");
+        }
+        LocalDateTime from = changeDto.getFrom();
+        LocalDateTime to = changeDto.getTo();
+
+        // ---------------- One conflict check against the target slots, then one UPDATE ----------------
+        List<Appointment> moved = book(doctorId, () -> {
+            Doctor doctor = doctorRepo.findByIdForUpdate(doctorId)
+                    .orElseThrow(() -> new RuntimeException("doctor.id.notExists"));
+            List<Appointment> window = appointmentRepo.findDoctorWindow(doctorId, from, to);
+            if (window.isEmpty()) {
+                return window;
+            }
+            appointmentIntervalIndex.reloadDoctorRange(doctorId,
+                    from.plusMinutes(shiftMinutes).toLocalDate(), to.plusMinutes(shiftMinutes).toLocalDate());
+            Set<Long> movedIds = window.stream().map(Appointment::getAppointmentId).collect(Collectors.toSet());
+            List<LocalDateTime> sources = new ArrayList<>(window.size());
+            List<LocalDateTime> targets = new ArrayList<>(window.size());
+            for (Appointment appointment : window) {
+                LocalDateTime target = appointment.getAppointmentDate().plusMinutes(shiftMinutes);
+                bookingRules.validateBookingTime(doctor, target);
+                bookingRules.checkConflicts(doctorId, appointment.getPatient().getPatientId(), target,
+                        appointment.getEffectiveDurationMinutes(), movedIds);
+                sources.add(appointment.getAppointmentDate());
+                targets.add(target);
+            }
+            bookingRules.checkCapacity(doctor, bookingRules.capacityChange(doctor, sources, targets));
+            appointmentRepo.shiftDoctorWindow(doctorId, from, to, shiftMinutes, LocalDateTime.now());
+            return window;
+        });
+
+        invalidateIndex(doctorId, moved);
+        return new ScheduleChangeDto(doctorId, from, to, shiftMinutes, moved.size(), 0);
+    }
+
+    @Override
+    public ScheduleChangeDto cancelDoctorAppointments(Long doctorId, ScheduleChangeDto changeDto) {
+        validateWindow(changeDto);
+        LocalDateTime from = changeDto.getFrom();
+        LocalDateTime to = changeDto.getTo();
+
+        List<Appointment> window = new ArrayList<>();
+        int cancelled = book(doctorId, () -> {
+            doctorRepo.findByIdForUpdate(doctorId)
+                    .orElseThrow(() -> new RuntimeException("doctor.id.notExists"));
+            window.addAll(appointmentRepo.findDoctorWindow(doctorId, from, to));
+            return window.isEmpty() ? 0 : appointmentRepo.cancelDoctorWindow(doctorId, from, to);
+        });
+
+        invalidateIndex(doctorId, window);
+        return new ScheduleChangeDto(doctorId, from, to, null, cancelled, window.size() - cancelled);
+    }
+
+    private void validateWindow(ScheduleChangeDto changeDto) {
+        if (Objects.isNull(changeDto.getFrom()) || Objects.isNull(changeDto.getTo())
+                || !changeDto.getFrom().isBefore(changeDto.getTo())
+                || changeDto.getFrom().plusDays(MAX_WINDOW_DAYS).isBefore(changeDto.getTo())) {
+            throw new RuntimeException("schedule.window.invalid");
+        }
+    }
+
+    // set-based statements bypass the entities, so the cached days and counters they touched are dropped
+    private void invalidateIndex(Long doctorId, List<Appointment> appointments) {
+        if (appointments.isEmpty()) {
+            return;
+        }
+        appointmentIntervalIndex.invalidateDoctor(doctorId);
+        bookingRules.forgetCapacity(doctorId);
+        summaryCounters.markStale();
+        appointments.stream()
+                .map(appointment -> appointment.getPatient().getPatientId())
+                .distinct()
+                .forEach(appointmentIntervalIndex::invalidatePatient);
     }
 
     @Override
@@ -1,8 +1,12 @@
 package com.spring.boot.service.impl;
 
+import com.spring.boot.config.cache.PrincipalCache;
+import com.spring.boot.config.jwt.RefreshTokenHandler;
 import com.spring.boot.config.jwt.TokenHandler;
+import com.spring.boot.config.jwt.TokenVersionRegistry;
 import com.spring.boot.controller.vm.LoginRequestVM;
 import com.spring.boot.controller.vm.LoginResponseVM;
+import com.spring.boot.controller.vm.RefreshRequestVM;
 import com.spring.boot.dto.UserDto;
 import com.spring.boot.mapper.UserMapper;
 
@@ -19,6 +23,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,6 +47,15 @@ public class AuthServiceImpl implements AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private RefreshTokenHandler refreshTokenHandler;
+
 
     @Override
     public void signUp(UserDto userDto) throws SystemException {
@@ -79,14 +93,51 @@ public class AuthServiceImpl implements AuthService {
         if (!passwordEncoder.matches(loginRequestVm.getPassword(), user.getPassword())) {
             throw new SystemException("invalid.password.error");
         }
+        rehashIfNeeded(user, loginRequestVm.getPassword());
 
         // هنا ممكن تعمل authentication يدوي بدون استدعاء authenticationManager
         UserDto userDto = userMapper.toDto(user);
         userDto.setPassword(null);
+        tokenVersionRegistry.register(user.getUserId(), user.getTokenVersion());
 
         // إنشاء token
         String token = tokenHandler.createToken(userDto);
+        String refreshToken = refreshTokenHandler.createRefreshToken(userDto);
+
+        return new LoginResponseVM(token, userDto, refreshToken);
+    }
+
+    @Override
+    public LoginResponseVM refresh(RefreshRequestVM refreshRequestVM) {
+        UserDto userDto = refreshTokenHandler.redeem(refreshRequestVM.getRefreshToken());
+        if (userDto == null) {
+            throw new RuntimeException("refresh.token.invalid");
+        }
+        String token = tokenHandler.createToken(userDto);
+        String refreshToken = refreshTokenHandler.createRefreshToken(userDto);
+
+        return new LoginResponseVM(token, userDto, refreshToken);
+    }
+
+    private void rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordEncoder.encode(rawPassword));
+            userRepo.save(user);
+        } catch (RejectedExecutionException exception) {
+            // best effort, the hash is upgraded on a later login
+        }
+    }
 
-        return new LoginResponseVM(token, userDto);
+    @Override
+    public void logout(UserDto userDto) {
+        if (userDto == null || userDto.getUserId() == null) {
+            throw new RuntimeException("user.notFound");
+        }
+        tokenVersionRegistry.revoke(userDto.getUserId());
+        refreshTokenHandler.revokeUser(userDto.getUserId());
+        principalCache.invalidateUser(userDto.getUserId());
     }
 }
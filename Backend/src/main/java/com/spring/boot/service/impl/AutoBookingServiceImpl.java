@@ -0,0 +1,190 @@
+package com.spring.boot.service.impl;
+
+import com.spring.boot.config.cache.AppointmentIntervalIndex;
+import com.spring.boot.config.cache.DailyCapacityCounter;
+import com.spring.boot.config.cache.DoctorAvailabilityIndex;
+import com.spring.boot.config.cache.EffectiveScheduleCache;
+import com.spring.boot.dto.AppointmentDto;
+import com.spring.boot.dto.AutoBookingDto;
+import com.spring.boot.model.Doctor;
+import com.spring.boot.model.Patient;
+import com.spring.boot.repo.DoctorRepo;
+import com.spring.boot.repo.PatientRepo;
+import com.spring.boot.service.AppointmentService;
+import com.spring.boot.service.AutoBookingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Picks the doctor for a booking that only names a time window. Candidates come
+ * from {@link DoctorAvailabilityIndex}, their load that day from
+ * {@link DailyCapacityCounter}; the least-loaded one with a free run in the window
+ * is booked through the normal booking path, and a candidate lost to a concurrent
+ * booking hands over to the next one.
+ */
+@Service
+public class AutoBookingServiceImpl implements AutoBookingService {
+
+    private static final int CELL_MINUTES = SlotServiceImpl.CELL_MINUTES;
+    private static final int CELLS_PER_DAY = 24 * 60 / CELL_MINUTES;
+
+    // same bounds as BookingRules.validateBookingTime
+    private static final LocalTime EARLIEST_TIME = LocalTime.of(7, 0);
+    private static final LocalTime LATEST_TIME = LocalTime.of(23, 59);
+
+    // the slot was taken between the search and the booking; the next doctor may still fit
+    private static final Set<String> LOST_RACE = Set.of(
+            "doctor.notAvailableAtThisTime",
+            "doctor.hasAppointmentTooClose",
+            "patient.hasOverlappingAppointment",
+            "doctor.dailyCapacity.reached");
+
+    private DoctorRepo doctorRepo;
+    private PatientRepo patientRepo;
+    private AppointmentService appointmentService;
+    private BookingRules bookingRules;
+    private DoctorAvailabilityIndex doctorAvailabilityIndex;
+    private DailyCapacityCounter dailyCapacityCounter;
+    private EffectiveScheduleCache effectiveScheduleCache;
+    private AppointmentIntervalIndex appointmentIntervalIndex;
+
+    @Autowired
+    public AutoBookingServiceImpl(DoctorRepo doctorRepo, PatientRepo patientRepo, AppointmentService appointmentService,
+                                  BookingRules bookingRules, DoctorAvailabilityIndex doctorAvailabilityIndex,
+                                  DailyCapacityCounter dailyCapacityCounter, EffectiveScheduleCache effectiveScheduleCache,
+                                  AppointmentIntervalIndex appointmentIntervalIndex) {
+        this.doctorRepo = doctorRepo;
+        this.patientRepo = patientRepo;
+        this.appointmentService = appointmentService;
+        this.bookingRules = bookingRules;
+        this.doctorAvailabilityIndex = doctorAvailabilityIndex;
+        this.dailyCapacityCounter = dailyCapacityCounter;
+        this.effectiveScheduleCache = effectiveScheduleCache;
+        this.appointmentIntervalIndex = appointmentIntervalIndex;
+    }
+
+    @Override
+    public AppointmentDto bookLeastLoaded(AutoBookingDto autoBookingDto) {
+
+        // ---------------- Validation ----------------
+        if (Objects.isNull(autoBookingDto.getPatientName())) {
+            throw new RuntimeException("appointment.patient.name.Required");
+        }
+        if (Objects.isNull(autoBookingDto.getFrom()) || Objects.isNull(autoBookingDto.getTo())) {
+            throw new RuntimeException("autoBooking.window.Required");
+        }
+        LocalDateTime from = autoBookingDto.getFrom();
+        LocalDateTime to = autoBookingDto.getTo();
+        if (!to.isAfter(from) || !from.toLocalDate().equals(to.toLocalDate())) {
+            throw new RuntimeException("autoBooking.window.invalid");
+        }
+        LocalDate date = from.toLocalDate();
+        if (!date.isAfter(LocalDate.now())) {
+            throw new RuntimeException("appointment.date.is.before.tomorrow");
+        }
+        int duration = bookingRules.resolveDuration(autoBookingDto.getDurationMinutes());
+
+        Patient patient = patientRepo.findPatientByPatientName(autoBookingDto.getPatientName())
+                .orElseThrow(() -> new RuntimeException("patient.name.notFound"));
+
+        // ---------------- Rank the doctors working in the window by that day's load ----------------
+        List<DoctorAvailabilityIndex.Entry> candidates = doctorAvailabilityIndex.workingIn(date, from.toLocalTime(), to.toLocalTime());
+        Map<Long, Integer> loads = dailyCapacityCounter.loadOn(date,
+                candidates.stream().map(DoctorAvailabilityIndex.Entry::doctorId).collect(Collectors.toList()));
+        List<DoctorAvailabilityIndex.Entry> ranked = new ArrayList<>();
+        for (DoctorAvailabilityIndex.Entry candidate : candidates) {
+            int load = loads.getOrDefault(candidate.doctorId(), 0);
+            if (candidate.dailyCapacity() == 0 || load < candidate.dailyCapacity()) {
+                ranked.add(candidate);
+            }
+        }
+        ranked.sort(Comparator.comparingInt((DoctorAvailabilityIndex.Entry candidate) -> loads.getOrDefault(candidate.doctorId(), 0))
+                .thenComparing(DoctorAvailabilityIndex.Entry::doctorId));
+
+        // ---------------- Book the first one with a free run in the window ----------------
+        int cellsNeeded = (duration + CELL_MINUTES - 1) / CELL_MINUTES;
+        for (DoctorAvailabilityIndex.Entry candidate : ranked) {
+            Optional<Doctor> doctor = doctorRepo.findById(candidate.doctorId());
+            if (doctor.isEmpty()) {
+                continue;
+            }
+            LocalDateTime start = earliestStart(doctor.get(), patient.getPatientId(), from, to, cellsNeeded);
+            if (start == null) {
+                continue;
+            }
+            try {
+                return appointmentService.addAppointment(new AppointmentDto(null, null, doctor.get().getDoctorName(),
+                        patient.getPatientName(), start, duration, null));
+            } catch (RuntimeException exception) {
+                if (!LOST_RACE.contains(exception.getMessage())) {
+                    throw exception;
+                }
+            }
+        }
+        throw new RuntimeException("autoBooking.noDoctorAvailable");
+    }
+
+    // the doctor's first 5-minute-aligned start in [from, to] where doctor and patient are both free
+    private LocalDateTime earliestStart(Doctor doctor, Long patientId, LocalDateTime from, LocalDateTime to, int cellsNeeded) {
+        LocalDate date = from.toLocalDate();
+        EffectiveScheduleCache.WorkingHours hours = effectiveScheduleCache.hoursOn(doctor, date);
+        if (hours == null) {
+            return null;
+        }
+        int dayFrom = Math.max(Math.max(toCellCeil(hours.attendTime()), toCellCeil(EARLIEST_TIME)), toCellCeil(from.toLocalTime()));
+        int dayTo = Math.min(Math.min(toCellFloor(hours.leaveTime()), toCellFloor(LATEST_TIME)), toCellFloor(to.toLocalTime()));
+        if (dayTo - dayFrom < cellsNeeded) {
+            return null;
+        }
+        BitSet busy = new BitSet(CELLS_PER_DAY);
+        busy.set(0, dayFrom);
+        busy.set(dayTo, CELLS_PER_DAY);
+        markBusy(busy, appointmentIntervalIndex.doctorDay(doctor.getDoctorId(), date));
+        markBusy(busy, appointmentIntervalIndex.patientDay(patientId, date));
+
+        int cell = busy.nextClearBit(0);
+        while (cell < CELLS_PER_DAY) {
+            int runEnd = busy.nextSetBit(cell);
+            if (runEnd < 0) {
+                runEnd = CELLS_PER_DAY;
+            }
+            if (runEnd - cell >= cellsNeeded) {
+                return date.atStartOfDay().plusMinutes((long) cell * CELL_MINUTES);
+            }
+            cell = busy.nextClearBit(runEnd);
+        }
+        return null;
+    }
+
+    private static void markBusy(BitSet busy, List<AppointmentIntervalIndex.Interval> intervals) {
+        for (AppointmentIntervalIndex.Interval interval : intervals) {
+            int first = Math.max(0, interval.start() / CELL_MINUTES);
+            int last = Math.min(CELLS_PER_DAY, (interval.end() + CELL_MINUTES - 1) / CELL_MINUTES);
+            if (first < last) {
+                busy.set(first, last);
+            }
+        }
+    }
+
+    private static int toCellCeil(LocalTime time) {
+        int minutes = time.getHour() * 60 + time.getMinute();
+        return (minutes + CELL_MINUTES - 1) / CELL_MINUTES;
+    }
+
+    private static int toCellFloor(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / CELL_MINUTES;
+    }
+}
@@ -0,0 +1,233 @@
+package com.spring.boot.service.impl;
+
+import com.spring.boot.config.cache.AppointmentIntervalIndex;
+import com.spring.boot.config.cache.DailyCapacityCounter;
+import com.spring.boot.config.cache.EffectiveScheduleCache;
+import com.spring.boot.model.Appointment;
+import com.spring.boot.model.Doctor;
+import com.spring.boot.repo.AppointmentRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The checks every booking path goes through, shared by single, bulk and
+ * rescheduling writes so they cannot drift apart.
+ */
+@Component
+public class BookingRules {
+
+    private AppointmentIntervalIndex appointmentIntervalIndex;
+    private EffectiveScheduleCache effectiveScheduleCache;
+    private DailyCapacityCounter dailyCapacityCounter;
+    private AppointmentRepo appointmentRepo;
+
+    @Autowired
+    public BookingRules(AppointmentIntervalIndex appointmentIntervalIndex, EffectiveScheduleCache effectiveScheduleCache,
+                        DailyCapacityCounter dailyCapacityCounter, AppointmentRepo appointmentRepo) {
+        this.appointmentIntervalIndex = appointmentIntervalIndex;
+        this.effectiveScheduleCache = effectiveScheduleCache;
+        this.dailyCapacityCounter = dailyCapacityCounter;
+        this.appointmentRepo = appointmentRepo;
+    }
+
+    public void validateBookingTime(Doctor doctor, LocalDateTime appointmentDate) {
+
+        LocalDate today = LocalDate.now();
+        LocalDate inputDate = appointmentDate.toLocalDate();
+        LocalTime appointmentTime = appointmentDate.toLocalTime();
+
+        // 1. Check date is after today
+        if (!inputDate.isAfter(today)) {
+            throw new RuntimeException("appointment.date.is.before.tomorrow");
+        }
+
+        // 2. Check the doctor works that day, from the weekly template merged with exception dates
+        EffectiveScheduleCache.WorkingHours hours = effectiveScheduleCache.hoursOn(doctor, inputDate);
+        if (hours == null) {
+            throw new RuntimeException("doctor.notWorkingOnThisDay");
+        }
+
+        // 3. Check time inside that day's attend + leave time
+        if (appointmentTime.isBefore(hours.attendTime())) {
+            throw new RuntimeException("appointment.beforeAttendTime");
+        }
+
+        if (appointmentTime.isAfter(hours.leaveTime())) {
+            throw new RuntimeException("appointment.afterLeaveTime");
+        }
+
+        // 4. Check that appointment is between 7:00 AM and 11:59 PM
+        LocalTime earliestTime = LocalTime.of(7, 0); // 7:00 AM
+        LocalTime latestTime = LocalTime.of(23, 59); // 11:59 PM
+
+        if (appointmentTime.isBefore(earliestTime) || appointmentTime.isAfter(latestTime)) {
+            throw new RuntimeException("appointment.time.mustBeBetween7AMand11_59PM");
+        }
+    }
+
+    public int resolveDuration(Integer durationMinutes) {
+        if (durationMinutes == null) {
+            return Appointment.DEFAULT_DURATION_MINUTES;
+        }
+        if (durationMinutes < Appointment.MIN_DURATION_MINUTES || durationMinutes > Appointment.MAX_DURATION_MINUTES) {
+            throw new RuntimeException("appointment.duration.invalid");
+        }
+        return durationMinutes;
+    }
+
+    public void checkConflicts(Long doctorId, Long patientId, LocalDateTime appointmentDate, int durationMinutes, Long excludeId) {
+        checkConflicts(doctorId, patientId, appointmentDate, durationMinutes, excludeId == null ? Set.of() : Set.of(excludeId));
+    }
+
+    public void checkConflicts(Long doctorId, Long patientId, LocalDateTime appointmentDate, int durationMinutes, Set<Long> excludeIds) {
+        // intervals are indexed under the day they start on, so one running past midnight would go unseen the next day
+        if (appointmentDate.plusMinutes(durationMinutes).isAfter(appointmentDate.toLocalDate().plusDays(1).atStartOfDay())) {
+            throw new RuntimeException("appointment.endsAfterMidnight");
+        }
+        AppointmentIntervalIndex.Interval doctorConflict =
+                appointmentIntervalIndex.findDoctorConflict(doctorId, appointmentDate, durationMinutes, excludeIds);
+        if (doctorConflict != null) {
+            // Same exact time
+            if (doctorConflict.startsAt(appointmentDate)) {
+                throw new RuntimeException("doctor.notAvailableAtThisTime");
+            }
+            throw new RuntimeException("doctor.hasAppointmentTooClose");
+        }
+        if (patientId != null
+                && appointmentIntervalIndex.findPatientConflict(patientId, appointmentDate, durationMinutes, excludeIds) != null) {
+            throw new RuntimeException("patient.hasOverlappingAppointment");
+        }
+    }
+
+    /**
+     * The authoritative overlap check, run under the doctor's row lock: one query for
+     * the doctor's or the patient's appointments that start early enough to reach
+     * {@code [appointmentDate, appointmentDate + durationMinutes)}, with the same
+     * outcomes as {@link #checkConflicts}. A conflict found here was missed by the
+     * index, so the day is reloaded for the next booking.
+     */
+    public void recheckConflicts(Long doctorId, Long patientId, LocalDateTime appointmentDate, int durationMinutes, Long excludeId) {
+        LocalDateTime dayStart = appointmentDate.toLocalDate().atStartOfDay();
+        LocalDateTime earliest = appointmentDate.minusMinutes(Appointment.MAX_DURATION_MINUTES);
+        List<Object[]> rows = appointmentRepo.findOverlapCandidates(doctorId, patientId,
+                earliest.isAfter(dayStart) ? earliest : dayStart, appointmentDate.plusMinutes(durationMinutes));
+
+        boolean doctorConflict = false;
+        boolean sameTime = false;
+        boolean patientConflict = false;
+        for (Object[] row : rows) {
+            LocalDateTime start = (LocalDateTime) row[3];
+            int minutes = row[4] == null ? Appointment.DEFAULT_DURATION_MINUTES : (Integer) row[4];
+            if (row[0].equals(excludeId) || !start.plusMinutes(minutes).isAfter(appointmentDate)) {
+                continue;
+            }
+            if (doctorId.equals(row[1])) {
+                doctorConflict = true;
+                sameTime |= start.equals(appointmentDate);
+            }
+            if (patientId != null && patientId.equals(row[2])) {
+                patientConflict = true;
+            }
+        }
+        if (doctorConflict) {
+            appointmentIntervalIndex.reloadDoctorDay(doctorId, appointmentDate.toLocalDate());
+            throw new RuntimeException(sameTime ? "doctor.notAvailableAtThisTime" : "doctor.hasAppointmentTooClose");
+        }
+        if (patientConflict) {
+            appointmentIntervalIndex.reloadPatientDay(patientId, appointmentDate.toLocalDate());
+            throw new RuntimeException("patient.hasOverlappingAppointment");
+        }
+    }
+
+    /**
+     * Net per-day change of a write that books the doctor on {@code after} and frees
+     * {@code before} (the same doctor's previous dates, for moves), so a move within
+     * a day changes nothing.
+     */
+    public CapacityChange capacityChange(Doctor doctor, List<LocalDateTime> before, List<LocalDateTime> after) {
+        Map<LocalDate, Integer> delta = new TreeMap<>();
+        after.forEach(date -> delta.merge(date.toLocalDate(), 1, Integer::sum));
+        before.forEach(date -> delta.merge(date.toLocalDate(), -1, Integer::sum));
+
+        Map<LocalDate, Integer> added = new TreeMap<>();
+        Map<LocalDate, Integer> freed = new TreeMap<>();
+        delta.forEach((date, places) -> {
+            if (places > 0) {
+                added.put(date, places);
+            } else if (places < 0) {
+                freed.put(date, -places);
+            }
+        });
+        return new CapacityChange(doctor.getDoctorId(), added, freed);
+    }
+
+    /**
+     * Takes the places {@code change} adds from the in-memory counters, all or nothing.
+     * Once a day is counted a full day is refused without a query.
+     */
+    public void reserveCapacity(Doctor doctor, CapacityChange change) {
+        if (!doctor.isCapacityLimited()) {
+            // no limit to enforce, only keep any load figures already counted in step
+            change.added().forEach((date, places) -> dailyCapacityCounter.addIfCounted(doctor.getDoctorId(), date, places));
+            return;
+        }
+        Map<LocalDate, Integer> taken = new TreeMap<>();
+        for (Map.Entry<LocalDate, Integer> day : change.added().entrySet()) {
+            if (!dailyCapacityCounter.tryAcquire(doctor.getDoctorId(), day.getKey(), doctor.getDailyCapacity(), day.getValue())) {
+                taken.forEach((date, places) -> dailyCapacityCounter.release(doctor.getDoctorId(), date, places));
+                throw new RuntimeException("doctor.dailyCapacity.reached");
+            }
+            taken.put(day.getKey(), day.getValue());
+        }
+    }
+
+    /**
+     * The database-side guard, run under the doctor's row lock: every writer for the
+     * doctor holds that lock, so the committed count is exact on every node.
+     */
+    public void checkCapacity(Doctor doctor, CapacityChange change) {
+        if (!doctor.isCapacityLimited()) {
+            return;
+        }
+        for (Map.Entry<LocalDate, Integer> day : change.added().entrySet()) {
+            long booked = appointmentRepo.countDoctorWindow(doctor.getDoctorId(),
+                    day.getKey().atStartOfDay(), day.getKey().plusDays(1).atStartOfDay());
+            if (booked + day.getValue() > doctor.getDailyCapacity()) {
+                throw new RuntimeException("doctor.dailyCapacity.reached");
+            }
+        }
+    }
+
+    // the write went through: the days it left get their places back
+    public void commitCapacity(CapacityChange change) {
+        change.freed().forEach((date, places) -> dailyCapacityCounter.release(change.doctorId(), date, places));
+    }
+
+    // the write failed: the places it reserved go back
+    public void releaseCapacity(CapacityChange change) {
+        change.added().forEach((date, places) -> dailyCapacityCounter.release(change.doctorId(), date, places));
+    }
+
+    public void freeCapacity(Long doctorId, List<LocalDateTime> dates) {
+        for (LocalDateTime date : dates) {
+            dailyCapacityCounter.release(doctorId, date.toLocalDate(), 1);
+        }
+    }
+
+    public void forgetCapacity(Long doctorId) {
+        dailyCapacityCounter.invalidateDoctor(doctorId);
+    }
+
+    public record CapacityChange(Long doctorId, Map<LocalDate, Integer> added, Map<LocalDate, Integer> freed) {
+
+        public static final CapacityChange NONE = new CapacityChange(null, Map.of(), Map.of());
+    }
+}
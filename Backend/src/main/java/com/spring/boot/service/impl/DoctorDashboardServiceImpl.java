@@ -0,0 +1,171 @@
+package com.spring.boot.service.impl;
+
+import com.spring.boot.config.dashboard.DashboardExecutor;
+import com.spring.boot.dto.AppointmentDto;
+import com.spring.boot.dto.DoctorDashboardDto;
+import com.spring.boot.dto.PatientDto;
+import com.spring.boot.dto.PrescriptionDto;
+import com.spring.boot.helper.PageCursor;
+import com.spring.boot.mapper.AppointmentMapper;
+import com.spring.boot.mapper.PatientMapper;
+import com.spring.boot.mapper.PrescriptionMapper;
+import com.spring.boot.model.Patient;
+import com.spring.boot.repo.AppointmentRepo;
+import com.spring.boot.repo.DoctorRepo;
+import com.spring.boot.repo.PatientRepo;
+import com.spring.boot.repo.PrescriptionRepo;
+import com.spring.boot.service.DoctorDashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Builds a doctor's dashboard in one request. The four lists are read at the same
+ * time on the {@link DashboardExecutor}, each capped. Every list is read as
+ * (id, lastModified) first and only the rows the caller needs are then fetched:
+ * all of them on a full load, the changed ones on a refresh with {@code since}.
+ */
+@Service
+public class DoctorDashboardServiceImpl implements DoctorDashboardService {
+
+    private final DoctorRepo doctorRepo;
+    private final AppointmentRepo appointmentRepo;
+    private final PatientRepo patientRepo;
+    private final PrescriptionRepo prescriptionRepo;
+    private final AppointmentMapper appointmentMapper;
+    private final PatientMapper patientMapper;
+    private final PrescriptionMapper prescriptionMapper;
+    private final DashboardExecutor dashboardExecutor;
+    private final Duration sinceOverlap;
+    private final int maxToday;
+    private final int maxUpcoming;
+    private final int maxPatients;
+    private final int maxPrescriptions;
+
+    @Autowired
+    public DoctorDashboardServiceImpl(DoctorRepo doctorRepo, AppointmentRepo appointmentRepo, PatientRepo patientRepo,
+                                      PrescriptionRepo prescriptionRepo, AppointmentMapper appointmentMapper,
+                                      PatientMapper patientMapper, PrescriptionMapper prescriptionMapper,
+                                      DashboardExecutor dashboardExecutor,
+                                      @Value("${dashboard.since-overlap:10s}") Duration sinceOverlap,
+                                      @Value("${dashboard.max-today:100}") int maxToday,
+                                      @Value("${dashboard.max-upcoming:100}") int maxUpcoming,
+                                      @Value("${dashboard.max-patients:200}") int maxPatients,
+                                      @Value("${dashboard.max-prescriptions:50}") int maxPrescriptions) {
+        this.doctorRepo = doctorRepo;
+        this.appointmentRepo = appointmentRepo;
+        this.patientRepo = patientRepo;
+        this.prescriptionRepo = prescriptionRepo;
+        this.appointmentMapper = appointmentMapper;
+        this.patientMapper = patientMapper;
+        this.prescriptionMapper = prescriptionMapper;
+        this.dashboardExecutor = dashboardExecutor;
+        this.sinceOverlap = sinceOverlap;
+        this.maxToday = maxToday;
+        this.maxUpcoming = maxUpcoming;
+        this.maxPatients = maxPatients;
+        this.maxPrescriptions = maxPrescriptions;
+    }
+
+    @Override
+    public DoctorDashboardDto getDashboard(Long doctorId, LocalDateTime since) {
+        if (!doctorRepo.existsById(doctorId)) {
+            throw new RuntimeException("doctor.notFound");
+        }
+        // taken before any read, so whatever changes while they run is picked up next time
+        LocalDateTime serverTime = LocalDateTime.now();
+        if (Objects.nonNull(since) && since.isAfter(serverTime)) {
+            throw new RuntimeException("dashboard.since.invalid");
+        }
+        // a write stamped just before serverTime may commit after the reads; look back a little
+        LocalDateTime changedFrom = Objects.isNull(since) ? null : since.minus(sinceOverlap);
+        LocalDateTime today = serverTime.toLocalDate().atStartOfDay();
+        LocalDateTime tomorrow = today.plusDays(1);
+
+        CompletableFuture<Part<AppointmentDto>> todayPart = dashboardExecutor.submit(() -> read(
+                appointmentRepo.findVersionsInWindow(doctorId, today, tomorrow, PageRequest.of(0, maxToday)),
+                changedFrom, ids -> appointmentMapper.toDto(appointmentRepo.findAllFetched(ids))));
+        CompletableFuture<Part<AppointmentDto>> upcomingPart = dashboardExecutor.submit(() -> read(
+                appointmentRepo.findVersionsInWindow(doctorId, tomorrow, PageCursor.OPEN_TO, PageRequest.of(0, maxUpcoming)),
+                changedFrom, ids -> appointmentMapper.toDto(appointmentRepo.findAllFetched(ids))));
+        CompletableFuture<Part<PatientDto>> patientPart = dashboardExecutor.submit(() -> read(
+                appointmentRepo.findPatientVersions(doctorId, PageRequest.of(0, maxPatients)),
+                changedFrom, ids -> patientMapper.toDto(inOrder(ids, patientRepo.findAllFetched(ids), Patient::getPatientId))));
+        CompletableFuture<Part<PrescriptionDto>> prescriptionPart = dashboardExecutor.submit(() -> read(
+                prescriptionRepo.findLatestVersions(doctorId, PageRequest.of(0, maxPrescriptions)),
+                changedFrom, ids -> prescriptionMapper.toDto(prescriptionRepo.findAllFetched(ids))));
+
+        dashboardExecutor.await(todayPart, upcomingPart, patientPart, prescriptionPart);
+
+        DoctorDashboardDto dashboard = new DoctorDashboardDto();
+        dashboard.setServerTime(serverTime);
+        dashboard.setTodayAppointments(todayPart.join().rows());
+        dashboard.setUpcomingAppointments(upcomingPart.join().rows());
+        dashboard.setPatients(patientPart.join().rows());
+        dashboard.setRecentPrescriptions(prescriptionPart.join().rows());
+        if (Objects.nonNull(since)) {
+            List<Long> appointmentIds = new ArrayList<>(todayPart.join().ids());
+            appointmentIds.addAll(upcomingPart.join().ids());
+            dashboard.setAppointmentIds(appointmentIds);
+            dashboard.setPatientIds(patientPart.join().ids());
+            dashboard.setPrescriptionIds(prescriptionPart.join().ids());
+        }
+        return dashboard;
+    }
+
+    // versions are rows of (id, lastModified...); a row counts as changed if any of its stamps is at or after changedFrom
+    private static <D> Part<D> read(List<Object[]> versions, LocalDateTime changedFrom,
+                                    Function<Collection<Long>, List<D>> fetch) {
+        List<Long> ids = new ArrayList<>(versions.size());
+        List<Long> wanted = new ArrayList<>(versions.size());
+        for (Object[] version : versions) {
+            Long id = (Long) version[0];
+            ids.add(id);
+            if (changedFrom == null || changedSince(version, changedFrom)) {
+                wanted.add(id);
+            }
+        }
+        return new Part<>(ids, wanted.isEmpty() ? List.of() : fetch.apply(wanted));
+    }
+
+    private static boolean changedSince(Object[] version, LocalDateTime changedFrom) {
+        for (int i = 1; i < version.length; i++) {
+            // rows from before the column existed have no stamp and were sent on the full load
+            if (version[i] instanceof LocalDateTime stamp && !stamp.isBefore(changedFrom)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // rows fetched by id, put back in the order their versions were listed in
+    private static <E> List<E> inOrder(Collection<Long> ids, List<E> rows, Function<E, Long> idOf) {
+        Map<Long, E> byId = new HashMap<>(rows.size() * 2);
+        for (E row : rows) {
+            byId.put(idOf.apply(row), row);
+        }
+        List<E> ordered = new ArrayList<>(rows.size());
+        for (Long id : ids) {
+            E row = byId.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+
+    private record Part<D>(List<Long> ids, List<D> rows) {
+    }
+}
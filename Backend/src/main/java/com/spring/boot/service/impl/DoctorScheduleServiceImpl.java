@@ -0,0 +1,195 @@
+package com.spring.boot.service.impl;
+
+import com.spring.boot.config.cache.EffectiveScheduleCache;
+import com.spring.boot.config.lock.DoctorBookingLocks;
+import com.spring.boot.dto.DoctorScheduleExceptionDto;
+import com.spring.boot.mapper.DoctorScheduleExceptionMapper;
+import com.spring.boot.model.Appointment;
+import com.spring.boot.model.Doctor;
+import com.spring.boot.model.DoctorScheduleException;
+import com.spring.boot.repo.AppointmentRepo;
+import com.spring.boot.repo.DoctorRepo;
+import com.spring.boot.repo.DoctorScheduleExceptionRepo;
+import com.spring.boot.service.DoctorScheduleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+/**
+ * Edits a doctor's exception dates. Every edit runs under the same locks as a
+ * booking and is refused while it would leave a booked appointment outside the
+ * day's new hours; the doctor's cached effective schedule is dropped before the
+ * locks are released, so the next booking check sees the edit.
+ */
+@Service
+public class DoctorScheduleServiceImpl implements DoctorScheduleService {
+
+    private DoctorScheduleExceptionRepo scheduleExceptionRepo;
+    private DoctorRepo doctorRepo;
+    private AppointmentRepo appointmentRepo;
+    private DoctorScheduleExceptionMapper scheduleExceptionMapper;
+    private EffectiveScheduleCache effectiveScheduleCache;
+    private DoctorBookingLocks doctorBookingLocks;
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public DoctorScheduleServiceImpl(DoctorScheduleExceptionRepo scheduleExceptionRepo, DoctorRepo doctorRepo,
+                                     AppointmentRepo appointmentRepo, DoctorScheduleExceptionMapper scheduleExceptionMapper,
+                                     EffectiveScheduleCache effectiveScheduleCache, DoctorBookingLocks doctorBookingLocks,
+                                     PlatformTransactionManager transactionManager) {
+        this.scheduleExceptionRepo = scheduleExceptionRepo;
+        this.doctorRepo = doctorRepo;
+        this.appointmentRepo = appointmentRepo;
+        this.scheduleExceptionMapper = scheduleExceptionMapper;
+        this.effectiveScheduleCache = effectiveScheduleCache;
+        this.doctorBookingLocks = doctorBookingLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public List<DoctorScheduleExceptionDto> getExceptions(Long doctorId) {
+        if (!doctorRepo.existsById(doctorId)) {
+            throw new RuntimeException("doctor.id.notExists");
+        }
+        return scheduleExceptionMapper.toDto(scheduleExceptionRepo
+                .findByDoctorDoctorIdAndExceptionDateGreaterThanEqualOrderByExceptionDate(doctorId, LocalDate.now()));
+    }
+
+    @Override
+    public DoctorScheduleExceptionDto addException(Long doctorId, DoctorScheduleExceptionDto exceptionDto) {
+        if (Objects.nonNull(exceptionDto.getExceptionId())) {
+            throw new RuntimeException("schedule.exception.id.notRequired");
+        }
+        validate(exceptionDto);
+
+        DoctorScheduleException saved = edit(doctorId, () -> {
+            Doctor doctor = doctorRepo.findByIdForUpdate(doctorId)
+                    .orElseThrow(() -> new RuntimeException("doctor.id.notExists"));
+            if (scheduleExceptionRepo.existsByDoctorDoctorIdAndExceptionDate(doctorId, exceptionDto.getExceptionDate())) {
+                throw new RuntimeException("schedule.exception.date.exists");
+            }
+            checkBookedAppointments(doctorId, exceptionDto.getExceptionDate(), hoursOf(exceptionDto));
+
+            DoctorScheduleException scheduleException = scheduleExceptionMapper.toEntity(exceptionDto);
+            scheduleException.setDoctor(doctor);
+            return scheduleExceptionRepo.saveAndFlush(scheduleException);
+        });
+        return scheduleExceptionMapper.toDto(saved);
+    }
+
+    @Override
+    public DoctorScheduleExceptionDto updateException(Long doctorId, Long exceptionId, DoctorScheduleExceptionDto exceptionDto) {
+        validate(exceptionDto);
+
+        DoctorScheduleException saved = edit(doctorId, () -> {
+            Doctor doctor = doctorRepo.findByIdForUpdate(doctorId)
+                    .orElseThrow(() -> new RuntimeException("doctor.id.notExists"));
+            DoctorScheduleException scheduleException = scheduleExceptionRepo.findByExceptionIdAndDoctorDoctorId(exceptionId, doctorId)
+                    .orElseThrow(() -> new RuntimeException("schedule.exception.id.notFound"));
+
+            LocalDate previousDate = scheduleException.getExceptionDate();
+            if (!previousDate.equals(exceptionDto.getExceptionDate())) {
+                if (scheduleExceptionRepo.existsByDoctorDoctorIdAndExceptionDate(doctorId, exceptionDto.getExceptionDate())) {
+                    throw new RuntimeException("schedule.exception.date.exists");
+                }
+                // the old date falls back to the weekly template
+                checkBookedAppointments(doctorId, previousDate, EffectiveScheduleCache.weeklyHoursOn(doctor, previousDate));
+            }
+            checkBookedAppointments(doctorId, exceptionDto.getExceptionDate(), hoursOf(exceptionDto));
+
+            scheduleException.setExceptionDate(exceptionDto.getExceptionDate());
+            scheduleException.setAvailable(exceptionDto.getAvailable());
+            scheduleException.setAttendTime(exceptionDto.getAttendTime());
+            scheduleException.setLeaveTime(exceptionDto.getLeaveTime());
+            scheduleException.setReason(exceptionDto.getReason());
+            return scheduleExceptionRepo.saveAndFlush(scheduleException);
+        });
+        return scheduleExceptionMapper.toDto(saved);
+    }
+
+    @Override
+    public void deleteException(Long doctorId, Long exceptionId) {
+        edit(doctorId, () -> {
+            Doctor doctor = doctorRepo.findByIdForUpdate(doctorId)
+                    .orElseThrow(() -> new RuntimeException("doctor.id.notExists"));
+            DoctorScheduleException scheduleException = scheduleExceptionRepo.findByExceptionIdAndDoctorDoctorId(exceptionId, doctorId)
+                    .orElseThrow(() -> new RuntimeException("schedule.exception.id.notFound"));
+            // removing an extra shift must not strand the appointments booked in it
+            checkBookedAppointments(doctorId, scheduleException.getExceptionDate(),
+                    EffectiveScheduleCache.weeklyHoursOn(doctor, scheduleException.getExceptionDate()));
+            scheduleExceptionRepo.delete(scheduleException);
+            return scheduleException;
+        });
+    }
+
+    private void validate(DoctorScheduleExceptionDto exceptionDto) {
+        if (Objects.isNull(exceptionDto.getExceptionDate())) {
+            throw new RuntimeException("schedule.exception.date.Required");
+        }
+        if (exceptionDto.getExceptionDate().isBefore(LocalDate.now())) {
+            throw new RuntimeException("schedule.exception.date.inPast");
+        }
+        if (Objects.isNull(exceptionDto.getAvailable())) {
+            throw new RuntimeException("schedule.exception.available.Required");
+        }
+        if (!exceptionDto.getAvailable()) {
+            exceptionDto.setAttendTime(null);
+            exceptionDto.setLeaveTime(null);
+            return;
+        }
+        if (Objects.isNull(exceptionDto.getAttendTime())) {
+            throw new RuntimeException("doctor.attendTime.Required");
+        }
+        if (Objects.isNull(exceptionDto.getLeaveTime())) {
+            throw new RuntimeException("doctor.leaveTime.Required");
+        }
+        if (!exceptionDto.getLeaveTime().isAfter(exceptionDto.getAttendTime())) {
+            throw new RuntimeException("doctor.leaveTime.isn'tAfter.AttendTime");
+        }
+        if (!exceptionDto.getAttendTime().isAfter(LocalTime.of(7, 0))
+                || !exceptionDto.getLeaveTime().isBefore(LocalTime.of(23, 59))) {
+            throw new RuntimeException("clinic.is.closed");
+        }
+    }
+
+    /**
+     * Runs {@code write} in its own transaction under the doctor's booking locks and
+     * drops the cached schedule before releasing them.
+     */
+    private <T> T edit(Long doctorId, Supplier<T> write) {
+        Lock lock = doctorBookingLocks.lock(doctorId);
+        try {
+            return transactionTemplate.execute(status -> write.get());
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("schedule.exception.date.exists");
+        } finally {
+            effectiveScheduleCache.invalidate(doctorId);
+            lock.unlock();
+        }
+    }
+
+    private void checkBookedAppointments(Long doctorId, LocalDate date, EffectiveScheduleCache.WorkingHours hours) {
+        List<Appointment> booked = appointmentRepo.findDoctorWindow(doctorId, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        for (Appointment appointment : booked) {
+            LocalTime time = appointment.getAppointmentDate().toLocalTime();
+            if (hours == null || time.isBefore(hours.attendTime()) || time.isAfter(hours.leaveTime())) {
+                throw new RuntimeException("schedule.exception.hasAppointments");
+            }
+        }
+    }
+
+    private static EffectiveScheduleCache.WorkingHours hoursOf(DoctorScheduleExceptionDto exceptionDto) {
+        return exceptionDto.getAvailable()
+                ? new EffectiveScheduleCache.WorkingHours(exceptionDto.getAttendTime(), exceptionDto.getLeaveTime())
+                : null;
+    }
+}
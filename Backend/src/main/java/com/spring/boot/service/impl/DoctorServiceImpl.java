@@ -1,7 +1,16 @@
 package com.spring.boot.service.impl;
 
+import com.spring.boot.config.cache.DailyCapacityCounter;
+import com.spring.boot.config.cache.DoctorAvailabilityIndex;
+import com.spring.boot.config.cache.DoctorDirectoryCache;
+import com.spring.boot.config.cache.EffectiveScheduleCache;
+import com.spring.boot.config.cache.PrincipalCache;
+import com.spring.boot.config.cache.SummaryCounters;
+import com.spring.boot.config.cache.UniquenessIndex;
+import com.spring.boot.dto.CursorPageDto;
 import com.spring.boot.dto.DoctorDto;
 import com.spring.boot.dto.PatientDto;
+import com.spring.boot.helper.PageCursor;
 import com.spring.boot.mapper.DoctorMapper;
 import com.spring.boot.mapper.PatientMapper;
 import com.spring.boot.model.Appointment;
@@ -15,7 +24,6 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -28,13 +36,34 @@ public class DoctorServiceImpl implements DoctorService {
     private DoctorRepo doctorRepo;
     private DoctorMapper doctorMapper;
     private PatientMapper patientMapper;
+    private PrincipalCache principalCache;
+    private UniquenessIndex uniquenessIndex;
+    private EffectiveScheduleCache effectiveScheduleCache;
+    private DailyCapacityCounter dailyCapacityCounter;
+    private DoctorAvailabilityIndex doctorAvailabilityIndex;
+    private DoctorDirectoryCache doctorDirectoryCache;
+    private SummaryCounters summaryCounters;
+    private RegistrationRules registrationRules;
 
     @Autowired
-    public DoctorServiceImpl(DoctorRepo doctorRepo,PatientMapper patientMapper, DoctorMapper doctorMapper, AppointmentRepo appointmentRepo) {
+    public DoctorServiceImpl(DoctorRepo doctorRepo,PatientMapper patientMapper, DoctorMapper doctorMapper, AppointmentRepo appointmentRepo,
+                             PrincipalCache principalCache, UniquenessIndex uniquenessIndex,
+                             EffectiveScheduleCache effectiveScheduleCache, DailyCapacityCounter dailyCapacityCounter,
+                             DoctorAvailabilityIndex doctorAvailabilityIndex,
+                             DoctorDirectoryCache doctorDirectoryCache, SummaryCounters summaryCounters,
+                             RegistrationRules registrationRules) {
         this.doctorRepo = doctorRepo;
         this.doctorMapper = doctorMapper;
         this.appointmentRepo = appointmentRepo;
         this.patientMapper = patientMapper;
+        this.principalCache = principalCache;
+        this.uniquenessIndex = uniquenessIndex;
+        this.effectiveScheduleCache = effectiveScheduleCache;
+        this.dailyCapacityCounter = dailyCapacityCounter;
+        this.doctorAvailabilityIndex = doctorAvailabilityIndex;
+        this.doctorDirectoryCache = doctorDirectoryCache;
+        this.summaryCounters = summaryCounters;
+        this.registrationRules = registrationRules;
     }
 
     @Override
@@ -45,76 +74,50 @@ public class DoctorServiceImpl implements DoctorService {
     }
 
     @Override
-    public DoctorDto addDoctor(DoctorDto doctorDto) {
+    public CursorPageDto<DoctorDto> getDoctorsPage(String name, String sort, String cursor, Integer size) {
+        int limit = PageCursor.resolveSize(size);
+        Long lastId = PageCursor.decodeId(cursor);
+        List<Doctor> rows = PageCursor.isDescending(sort, "id")
+                ? doctorRepo.findPageBefore(lastId == null ? Long.MAX_VALUE : lastId, PageCursor.prefix(name), PageCursor.firstRows(limit))
+                : doctorRepo.findPageAfter(lastId == null ? 0L : lastId, PageCursor.prefix(name), PageCursor.firstRows(limit));
+        return PageCursor.page(rows, limit, doctorMapper::toDto, doctor -> PageCursor.encodeId(doctor.getDoctorId()));
+    }
 
-        if (Objects.nonNull(doctorDto.getDoctorId())) {
-            throw new RuntimeException(("doctor.id.notRequired"));
-        }
-        if (Objects.isNull(doctorDto.getDoctorName())) {
-            throw new RuntimeException(("doctor.name.Required"));
-        }
-        if (Objects.isNull(doctorDto.getDoctorPhone())) {
-            throw new RuntimeException(("doctor.phone.Required"));
-        }
-        if (Objects.isNull(doctorDto.getAttendTime())) {
-            throw new RuntimeException(("doctor.attendTime.Required"));
-        }
-        if (Objects.isNull(doctorDto.getLeaveTime())) {
-            throw new RuntimeException(("doctor.leaveTime.Required"));
+    @Override
+    public DoctorDto addDoctor(DoctorDto doctorDto) {
+        Doctor doctor = doctorMapper.toEntity(doctorDto);
+        registrationRules.checkNewDoctor(doctor);
+        if (uniquenessIndex.isDoctorPhoneTaken(doctor.getDoctorPhone())) {
+            throw new RuntimeException("doctor.phone.already.exists");
         }
-        if (doctorDto.getWorkingDays() == null || doctorDto.getWorkingDays().isEmpty()) {
-            throw new RuntimeException("doctor.workingDays.Required");
+        if (uniquenessIndex.isDoctorNameTaken(doctor.getDoctorName())) {
+            throw new RuntimeException("doctor.name.already.exists");
         }
 
-        Doctor doctor = doctorMapper.toEntity(doctorDto);
-
-        doctor.setAttendTime(doctorDto.getAttendTime());
-        doctor.setLeaveTime(doctorDto.getLeaveTime());
-
         Doctor saved = doctorRepo.save(doctor);
+        uniquenessIndex.recordDoctor(saved.getDoctorName(), saved.getDoctorPhone());
+        summaryCounters.addDoctors(1);
+        doctorAvailabilityIndex.invalidate();
+        doctorDirectoryCache.invalidate();
         return doctorMapper.toDto(saved);
     }
 
 
     @Override
     public Doctor addDoctorEntity(Doctor doctor) {
-        String phone = doctor.getDoctorPhone();
-
-        String phoneRegex = "^(010|011|012|015)[0-9]{8}$";
-
-        if (!phone.matches(phoneRegex)) {
-            throw new RuntimeException("doctor.phone.must.be.valid");
-        }
-        if (Objects.nonNull(doctor.getDoctorId())) {
-            throw new RuntimeException(("doctor.id.notRequired"));
+        registrationRules.checkNewDoctor(doctor);
+        if (uniquenessIndex.isDoctorPhoneTaken(doctor.getDoctorPhone())) {
+            throw new RuntimeException("doctor.phone.already.exists");
         }
-        if (Objects.isNull(doctor.getDoctorName())) {
-            throw new RuntimeException(("doctor.name.Required"));
+        if (uniquenessIndex.isDoctorNameTaken(doctor.getDoctorName())) {
+            throw new RuntimeException("doctor.name.already.exists");
         }
-        if (Objects.isNull(doctor.getDoctorPhone())) {
-            throw new RuntimeException(("doctor.phone.Required"));
-        }
-        if (Objects.isNull(doctor.getAttendTime())) {
-            throw new RuntimeException(("doctor.attendTime.Required"));
-        }
-        if (Objects.isNull(doctor.getLeaveTime())) {
-            throw new RuntimeException(("doctor.leaveTime.Required"));
-        }
-        if (!doctor.getLeaveTime().isAfter(doctor.getAttendTime())) {
-            throw new RuntimeException(("doctor.leaveTime.isn'tAfter.AttendTime"));
-        }
-        LocalTime startTime = LocalTime.of(7, 0);    // 7:00 AM
-        LocalTime endTime = LocalTime.of(23, 59);
-        if (!doctor.getAttendTime().isAfter(startTime)) {
-            throw new RuntimeException(("clinic.is.closed"));
-        }
-        if (!doctor.getLeaveTime().isBefore(endTime)){
-            throw new RuntimeException(("clinic.is.closed"));
-        }
-        if (doctor.getWorkingDays() == null || doctor.getWorkingDays().isEmpty()) {
-            throw new RuntimeException("doctor.workingDays.Required");
-        }
-        return doctorRepo.save(doctor);
+        Doctor saved = doctorRepo.save(doctor);
+        uniquenessIndex.recordDoctor(saved.getDoctorName(), saved.getDoctorPhone());
+        summaryCounters.addDoctors(1);
+        doctorAvailabilityIndex.invalidate();
+        doctorDirectoryCache.invalidate();
+        return saved;
     }
 
     @Override
@@ -122,30 +125,33 @@ public class DoctorServiceImpl implements DoctorService {
         if(Objects.isNull(doctorDto.getDoctorId())){
             throw new RuntimeException(("doctor.id.Required"));
         }
-        String phone = doctorDto.getDoctorPhone();
-
-        String phoneRegex = "^(010|011|012|015)[0-9]{8}$";
-
-        if (!phone.matches(phoneRegex)) {
-            throw new RuntimeException("patient.phone.must be valid");
-        }
-        if (Objects.isNull(doctorDto.getDoctorName())) {
-            throw new RuntimeException(("doctor.name.Required"));
-        }
-        if (Objects.isNull(doctorDto.getDoctorPhone())) {
-            throw new RuntimeException(("doctor.phone.Required"));
-        }
-        if (Objects.isNull(doctorDto.getAttendTime())) {
-            throw new RuntimeException(("doctor.attendTime.Required"));
-        }
-        if (Objects.isNull(doctorDto.getLeaveTime())) {
-            throw new RuntimeException(("doctor.leaveTime.Required"));
+        Doctor existing = doctorRepo.findById(doctorDto.getDoctorId())
+                .orElseThrow(() -> new RuntimeException("doctor.id.notExists"));
+        Doctor doctor = doctorMapper.toEntity(doctorDto);
+        // clients that predate per-day hours and capacity leave them out; an empty map or 0 clears them
+        if (doctorDto.getWeeklyHours() == null) {
+            doctor.setDayHours(existing.getDayHours());
         }
-        if (doctorDto.getWorkingDays() == null || doctorDto.getWorkingDays().isEmpty()) {
-            throw new RuntimeException("doctor.workingDays.Required");
+        if (doctorDto.getDailyCapacity() == null) {
+            doctor.setDailyCapacity(existing.getDailyCapacity());
         }
+        registrationRules.checkDoctor(doctor);
 
-        doctorRepo.save(doctorMapper.toEntity(doctorDto));
+        String phone = doctor.getDoctorPhone();
+        // keeping one's own name or phone is not a clash
+        if (!phone.equals(existing.getDoctorPhone()) && uniquenessIndex.isDoctorPhoneTaken(phone)) {
+            throw new RuntimeException("doctor.phone.already.exists");
+        }
+        if (!doctor.getDoctorName().equals(existing.getDoctorName())
+                && uniquenessIndex.isDoctorNameTaken(doctor.getDoctorName())) {
+            throw new RuntimeException("doctor.name.already.exists");
+        }
+        doctorRepo.save(doctor);
+        uniquenessIndex.recordDoctor(doctorDto.getDoctorName(), phone);
+        principalCache.invalidateDoctor(doctorDto.getDoctorId());
+        dailyCapacityCounter.invalidateDoctor(doctorDto.getDoctorId());
+        doctorAvailabilityIndex.invalidate();
+        doctorDirectoryCache.invalidate();
         return doctorDto;
     }
 
@@ -156,6 +162,12 @@ public class DoctorServiceImpl implements DoctorService {
             throw new RuntimeException(("doctor.id.notExists"));
         }
         doctorRepo.deleteById(id);
+        principalCache.invalidateDoctor(id);
+        effectiveScheduleCache.invalidate(id);
+        dailyCapacityCounter.invalidateDoctor(id);
+        summaryCounters.markStale();
+        doctorAvailabilityIndex.invalidate();
+        doctorDirectoryCache.invalidate();
     }
 
     @Override
@@ -0,0 +1,228 @@
+package com.spring.boot.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.spring.boot.dto.AppointmentDto;
+import com.spring.boot.dto.PatientDto;
+import com.spring.boot.dto.PrescriptionDto;
+import com.spring.boot.helper.PageCursor;
+import com.spring.boot.mapper.AppointmentMapper;
+import com.spring.boot.mapper.PatientMapper;
+import com.spring.boot.mapper.PrescriptionMapper;
+import com.spring.boot.repo.AppointmentRepo;
+import com.spring.boot.repo.PatientRepo;
+import com.spring.boot.repo.PrescriptionRepo;
+import com.spring.boot.service.ExportService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams exports from a JPA {@link Stream} straight to the response: each row is
+ * mapped, written and let go, and the persistence context is cleared once per
+ * fetch round (the repositories fetch 500 rows at a time), so only one round of
+ * entities and one output buffer are ever held, however large the table is.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    // matches the fetch size hint on the repositories' stream queries
+    private static final int CLEAR_EVERY = 500;
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    private static final String NDJSON = "ndjson";
+    private static final String CSV = "csv";
+
+    private AppointmentRepo appointmentRepo;
+    private PrescriptionRepo prescriptionRepo;
+    private PatientRepo patientRepo;
+    private AppointmentMapper appointmentMapper;
+    private PrescriptionMapper prescriptionMapper;
+    private PatientMapper patientMapper;
+    private ObjectWriter jsonWriter;
+    private ObjectMapper objectMapper;
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public ExportServiceImpl(AppointmentRepo appointmentRepo, PrescriptionRepo prescriptionRepo, PatientRepo patientRepo,
+                             AppointmentMapper appointmentMapper, PrescriptionMapper prescriptionMapper,
+                             PatientMapper patientMapper, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.appointmentRepo = appointmentRepo;
+        this.prescriptionRepo = prescriptionRepo;
+        this.patientRepo = patientRepo;
+        this.appointmentMapper = appointmentMapper;
+        this.prescriptionMapper = prescriptionMapper;
+        this.patientMapper = patientMapper;
+        this.objectMapper = objectMapper;
+        // one line per row; the buffer is flushed per fetch round, not per row
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public String contentType(String format) {
+        return isCsv(format) ? "text/csv" : "application/x-ndjson";
+    }
+
+    @Override
+    public StreamingResponseBody exportAppointments(String format, LocalDateTime from, LocalDateTime to, Long doctorId, Long patientId) {
+        LocalDateTime rangeFrom = Objects.isNull(from) ? PageCursor.OPEN_FROM : from;
+        LocalDateTime rangeTo = Objects.isNull(to) ? PageCursor.OPEN_TO : to;
+        PageCursor.checkRange(rangeFrom, rangeTo);
+
+        Map<String, Function<AppointmentDto, Object>> columns = new LinkedHashMap<>();
+        columns.put("appointmentId", AppointmentDto::getAppointmentId);
+        columns.put("appointmentDate", AppointmentDto::getAppointmentDate);
+        columns.put("durationMinutes", AppointmentDto::getDurationMinutes);
+        columns.put("doctorName", AppointmentDto::getDoctorName);
+        columns.put("patientName", AppointmentDto::getPatientName);
+        columns.put("seriesId", AppointmentDto::getSeriesId);
+
+        return export(format, () -> appointmentRepo.streamWindow(rangeFrom, rangeTo, doctorId, patientId),
+                appointmentMapper::toDto, columns);
+    }
+
+    @Override
+    public StreamingResponseBody exportPrescriptions(String format, LocalDateTime from, LocalDateTime to, Long doctorId, Long patientId) {
+        LocalDateTime rangeFrom = Objects.isNull(from) ? PageCursor.OPEN_FROM : from;
+        LocalDateTime rangeTo = Objects.isNull(to) ? PageCursor.OPEN_TO : to;
+        PageCursor.checkRange(rangeFrom, rangeTo);
+
+        Map<String, Function<PrescriptionDto, Object>> columns = new LinkedHashMap<>();
+        columns.put("prescriptionId", PrescriptionDto::getPrescriptionId);
+        columns.put("dateIssued", PrescriptionDto::getDateIssued);
+        columns.put("doctorId", PrescriptionDto::getDoctorId);
+        columns.put("doctorName", PrescriptionDto::getDoctorName);
+        columns.put("patientId", PrescriptionDto::getPatientId);
+        columns.put("patientName", PrescriptionDto::getPatientName);
+        columns.put("appointmentId", PrescriptionDto::getAppointmentId);
+        columns.put("notes", PrescriptionDto::getNotes);
+
+        return export(format, () -> prescriptionRepo.streamWindow(rangeFrom, rangeTo, doctorId, patientId),
+                prescriptionMapper::toDto, columns);
+    }
+
+    @Override
+    public StreamingResponseBody exportPatients(String format, String status) {
+        Map<String, Function<PatientDto, Object>> columns = new LinkedHashMap<>();
+        columns.put("patientId", PatientDto::getPatientId);
+        columns.put("patientName", PatientDto::getPatientName);
+        columns.put("patientPhone", PatientDto::getPatientPhone);
+        columns.put("patientGender", PatientDto::getPatientGender);
+        columns.put("patientAge", PatientDto::getPatientAge);
+        columns.put("patientStatus", PatientDto::getPatientStatus);
+
+        return export(format, () -> patientRepo.streamByStatus(status), patientMapper::toDto, columns);
+    }
+
+    private <E, D> StreamingResponseBody export(String format, Supplier<Stream<E>> rows, Function<E, D> mapper,
+                                                Map<String, Function<D, Object>> columns) {
+        boolean csv = isCsv(format);
+        return out -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<E> stream = rows.get()) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+                JsonGenerator generator = csv ? null : objectMapper.getFactory().createGenerator(writer);
+                if (generator != null) {
+                    // rows are separated by the newline below, not the default space
+                    generator.setRootValueSeparator(null);
+                }
+                if (csv) {
+                    writeCsvLine(writer, columns.keySet().stream().map(name -> (Object) name).iterator());
+                }
+                int written = 0;
+                Iterator<E> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    D dto = mapper.apply(iterator.next());
+                    if (csv) {
+                        writeCsvLine(writer, columns.values().stream().map(column -> column.apply(dto)).iterator());
+                    } else {
+                        jsonWriter.writeValue(generator, dto);
+                        generator.writeRaw('\n');
+                    }
+                    if (++written % CLEAR_EVERY == 0) {
+                        // the round is written out; drop its entities before the next one is fetched
+                        entityManager.clear();
+                        if (generator != null) {
+                            generator.flush();
+                        }
+                        writer.flush();
+                    }
+                }
+                if (generator != null) {
+                    generator.flush();
+                }
+                writer.flush();
+            } catch (IOException exception) {
+                // usually the client went away; the read-only transaction just ends
+                throw new UncheckedIOException(exception);
+            }
+        });
+    }
+
+    private static void writeCsvLine(Writer writer, Iterator<Object> values) throws IOException {
+        boolean first = true;
+        while (values.hasNext()) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            Object value = values.next();
+            if (value != null) {
+                writer.write(csvField(value));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180 quoting; text that a spreadsheet would run as a formula is prefixed with '
+    private static String csvField(Object value) {
+        // same shape as the NDJSON dates, seconds included
+        String text = value instanceof LocalDateTime dateTime
+                ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime)
+                : value.toString();
+        if (value instanceof String && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    private static boolean isCsv(String format) {
+        if (format == null || format.equalsIgnoreCase(NDJSON)) {
+            return false;
+        }
+        if (format.equalsIgnoreCase(CSV)) {
+            return true;
+        }
+        throw new RuntimeException("export.format.invalid");
+    }
+}
@@ -0,0 +1,89 @@
+package com.spring.boot.service.impl;
+
+import com.spring.boot.model.RefreshSession;
+import com.spring.boot.service.SessionStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Single-node session store. Sessions are indexed by token hash, by user and
+ * by expiry, so purging only walks the sessions that are actually expired.
+ */
+@Service
+@ConditionalOnProperty(name = "token.session-store", havingValue = "memory", matchIfMissing = true)
+public class InMemorySessionStore implements SessionStore {
+
+    private final Map<String, RefreshSession> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+    private final NavigableSet<RefreshSession> byExpiry = new ConcurrentSkipListSet<>(
+            Comparator.comparing(RefreshSession::getExpiresAt).thenComparing(RefreshSession::getTokenHash));
+
+    @Override
+    public void save(RefreshSession session) {
+        sessions.put(session.getTokenHash(), session);
+        sessionsByUser.computeIfAbsent(session.getUserId(), id -> ConcurrentHashMap.newKeySet())
+                .add(session.getTokenHash());
+        byExpiry.add(session);
+    }
+
+    @Override
+    public Optional<RefreshSession> consume(String tokenHash) {
+        RefreshSession session = sessions.remove(tokenHash);
+        if (session == null) {
+            return Optional.empty();
+        }
+        unindex(session);
+        return Optional.of(session);
+    }
+
+    @Override
+    public void revokeUser(Long userId) {
+        Set<String> hashes = sessionsByUser.remove(userId);
+        if (hashes == null) {
+            return;
+        }
+        for (String hash : hashes) {
+            RefreshSession session = sessions.remove(hash);
+            if (session != null) {
+                byExpiry.remove(session);
+            }
+        }
+    }
+
+    @Override
+    public int purgeExpired(Instant now) {
+        int purged = 0;
+        RefreshSession oldest;
+        while ((oldest = byExpiry.pollFirst()) != null) {
+            if (!oldest.getExpiresAt().isBefore(now)) {
+                byExpiry.add(oldest);
+                break;
+            }
+            if (sessions.remove(oldest.getTokenHash(), oldest)) {
+                purged++;
+            }
+            Set<String> hashes = sessionsByUser.get(oldest.getUserId());
+            if (hashes != null) {
+                hashes.remove(oldest.getTokenHash());
+            }
+        }
+        return purged;
+    }
+
+    private void unindex(RefreshSession session) {
+        byExpiry.remove(session);
+        Set<String> hashes = sessionsByUser.get(session.getUserId());
+        if (hashes != null) {
+            hashes.remove(session.getTokenHash());
+        }
+    }
+}
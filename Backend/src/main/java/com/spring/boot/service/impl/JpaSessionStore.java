@@ -0,0 +1,67 @@
+package com.spring.boot.service.impl;
+
+import com.spring.boot.model.RefreshSession;
+import com.spring.boot.repo.RefreshSessionRepo;
+import com.spring.boot.service.SessionStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@ConditionalOnProperty(name = "token.session-store", havingValue = "jpa")
+public class JpaSessionStore implements SessionStore {
+
+    private RefreshSessionRepo refreshSessionRepo;
+    private int purgeBatchSize;
+
+    @Autowired
+    public JpaSessionStore(RefreshSessionRepo refreshSessionRepo,
+                           @Value("${token.purge-batch-size:500}") int purgeBatchSize) {
+        this.refreshSessionRepo = refreshSessionRepo;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    @Override
+    public void save(RefreshSession session) {
+        refreshSessionRepo.save(session);
+    }
+
+    @Override
+    @Transactional
+    public Optional<RefreshSession> consume(String tokenHash) {
+        Optional<RefreshSession> session = refreshSessionRepo.findByTokenHash(tokenHash);
+        // only the caller whose delete hits the row wins a concurrent redeem
+        if (session.isEmpty() || refreshSessionRepo.deleteBySessionId(session.get().getSessionId()) == 0) {
+            return Optional.empty();
+        }
+        return session;
+    }
+
+    @Override
+    @Transactional
+    public void revokeUser(Long userId) {
+        refreshSessionRepo.deleteByUserId(userId);
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired(Instant now) {
+        int purged = 0;
+        List<Long> ids;
+        do {
+            ids = refreshSessionRepo.findExpiredIds(now, PageRequest.of(0, purgeBatchSize));
+            if (!ids.isEmpty()) {
+                refreshSessionRepo.deleteAllByIdInBatch(ids);
+                purged += ids.size();
+            }
+        } while (ids.size() == purgeBatchSize);
+        return purged;
+    }
+}
@@ -0,0 +1,88 @@
+package com.spring.boot.service.impl;
+
+import com.spring.boot.config.cache.DoctorDirectoryCache;
+import com.spring.boot.config.dashboard.DashboardExecutor;
+import com.spring.boot.dto.AppointmentDto;
+import com.spring.boot.dto.PatientHomeDto;
+import com.spring.boot.dto.PrescriptionDto;
+import com.spring.boot.helper.PageCursor;
+import com.spring.boot.mapper.AppointmentMapper;
+import com.spring.boot.mapper.PrescriptionMapper;
+import com.spring.boot.repo.AppointmentRepo;
+import com.spring.boot.repo.PatientRepo;
+import com.spring.boot.repo.PrescriptionRepo;
+import com.spring.boot.service.PatientHomeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Builds a patient's home page in one request: the two lists are read at the same
+ * time on the {@link DashboardExecutor} while the doctor directory comes from
+ * {@link DoctorDirectoryCache}, and is only sent when the caller's copy is stale.
+ */
+@Service
+public class PatientHomeServiceImpl implements PatientHomeService {
+
+    private final PatientRepo patientRepo;
+    private final AppointmentRepo appointmentRepo;
+    private final PrescriptionRepo prescriptionRepo;
+    private final AppointmentMapper appointmentMapper;
+    private final PrescriptionMapper prescriptionMapper;
+    private final DoctorDirectoryCache doctorDirectoryCache;
+    private final DashboardExecutor dashboardExecutor;
+    private final int maxUpcoming;
+    private final int maxPrescriptions;
+
+    @Autowired
+    public PatientHomeServiceImpl(PatientRepo patientRepo, AppointmentRepo appointmentRepo,
+                                  PrescriptionRepo prescriptionRepo, AppointmentMapper appointmentMapper,
+                                  PrescriptionMapper prescriptionMapper, DoctorDirectoryCache doctorDirectoryCache,
+                                  DashboardExecutor dashboardExecutor,
+                                  @Value("${patient-home.max-upcoming:50}") int maxUpcoming,
+                                  @Value("${patient-home.max-prescriptions:20}") int maxPrescriptions) {
+        this.patientRepo = patientRepo;
+        this.appointmentRepo = appointmentRepo;
+        this.prescriptionRepo = prescriptionRepo;
+        this.appointmentMapper = appointmentMapper;
+        this.prescriptionMapper = prescriptionMapper;
+        this.doctorDirectoryCache = doctorDirectoryCache;
+        this.dashboardExecutor = dashboardExecutor;
+        this.maxUpcoming = maxUpcoming;
+        this.maxPrescriptions = maxPrescriptions;
+    }
+
+    @Override
+    public PatientHomeDto getHome(Long patientId, String directoryVersion) {
+        if (!patientRepo.existsById(patientId)) {
+            throw new RuntimeException("Patient.not.found");
+        }
+        // today's earlier appointments still count as upcoming
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+
+        CompletableFuture<List<AppointmentDto>> upcoming = dashboardExecutor.submit(() -> appointmentMapper.toDto(
+                appointmentRepo.findPageAfter(today, 0L, PageCursor.OPEN_TO, null, patientId, PageRequest.of(0, maxUpcoming))));
+        CompletableFuture<List<PrescriptionDto>> prescriptions = dashboardExecutor.submit(() -> prescriptionMapper.toDto(
+                prescriptionRepo.findPageBefore(PageCursor.OPEN_TO, 0L, PageCursor.OPEN_FROM, null, patientId,
+                        PageRequest.of(0, maxPrescriptions))));
+        // on this thread while the pool reads; usually served from memory
+        DoctorDirectoryCache.Snapshot directory = doctorDirectoryCache.snapshot();
+
+        dashboardExecutor.await(upcoming, prescriptions);
+
+        PatientHomeDto home = new PatientHomeDto();
+        home.setUpcomingAppointments(upcoming.join());
+        home.setRecentPrescriptions(prescriptions.join());
+        home.setDirectoryVersion(directory.version());
+        if (!directory.version().equals(directoryVersion)) {
+            home.setDoctors(directory.doctors());
+        }
+        return home;
+    }
+}
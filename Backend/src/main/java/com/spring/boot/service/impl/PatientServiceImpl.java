@@ -1,7 +1,12 @@
 package com.spring.boot.service.impl;
 
+import com.spring.boot.config.cache.PrincipalCache;
+import com.spring.boot.config.cache.SummaryCounters;
+import com.spring.boot.config.cache.UniquenessIndex;
 import com.spring.boot.dto.AppointmentDto;
+import com.spring.boot.dto.CursorPageDto;
 import com.spring.boot.dto.PatientDto;
+import com.spring.boot.helper.PageCursor;
 import com.spring.boot.mapper.PatientMapper;
 import com.spring.boot.model.Patient;
 import com.spring.boot.repo.AppointmentRepo;
@@ -21,12 +26,22 @@ public class PatientServiceImpl implements PatientService {
     private AppointmentRepo appointmentRepo;
     private PatientRepo patientRepo;
     private PatientMapper patientMapper;
+    private PrincipalCache principalCache;
+    private UniquenessIndex uniquenessIndex;
+    private SummaryCounters summaryCounters;
+    private RegistrationRules registrationRules;
 
     @Autowired
-    public PatientServiceImpl(AppointmentRepo appointmentRepo,PatientRepo patientRepo,PatientMapper patientMapper){
+    public PatientServiceImpl(AppointmentRepo appointmentRepo,PatientRepo patientRepo,PatientMapper patientMapper,PrincipalCache principalCache,
+                              UniquenessIndex uniquenessIndex, SummaryCounters summaryCounters,
+                              RegistrationRules registrationRules){
         this.appointmentRepo = appointmentRepo;
         this.patientRepo = patientRepo;
         this.patientMapper = patientMapper;
+        this.principalCache = principalCache;
+        this.uniquenessIndex = uniquenessIndex;
+        this.summaryCounters = summaryCounters;
+        this.registrationRules = registrationRules;
     }
 
 
@@ -37,6 +52,16 @@ public class PatientServiceImpl implements PatientService {
                 patientMapper.toDto(patient)).collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPageDto<PatientDto> getPatientsPage(String status, String gender, String name, String sort, String cursor, Integer size) {
+        int limit = PageCursor.resolveSize(size);
+        Long lastId = PageCursor.decodeId(cursor);
+        List<Patient> rows = PageCursor.isDescending(sort, "id")
+                ? patientRepo.findPageBefore(lastId == null ? Long.MAX_VALUE : lastId, status, gender, PageCursor.prefix(name), PageCursor.firstRows(limit))
+                : patientRepo.findPageAfter(lastId == null ? 0L : lastId, status, gender, PageCursor.prefix(name), PageCursor.firstRows(limit));
+        return PageCursor.page(rows, limit, patientMapper::toDto, patient -> PageCursor.encodeId(patient.getPatientId()));
+    }
+
     @Override
     public List<PatientDto> getAllPatientsByDoctorId(Long patientId) {
         return appointmentRepo.findByDoctorDoctorId(patientId)
@@ -81,12 +106,16 @@ public class PatientServiceImpl implements PatientService {
         if (patientDto.getPatientAge()<12){
             throw new RuntimeException(("patient.age.required.older than 0"));
         }
-        Optional<Patient> patientOptional=patientRepo.findPatientByPatientName(patientDto.getPatientName());
-        if(patientOptional.isPresent()){
+        if(uniquenessIndex.isPatientNameTaken(patientDto.getPatientName())){
             throw new RuntimeException(("patient.already.exists"));
         }
+        if(uniquenessIndex.isPatientPhoneTaken(patientDto.getPatientPhone())){
+            throw new RuntimeException(("patient.phone.already.exists"));
+        }
 
         Patient patient=patientRepo.save(patientMapper.toEntity(patientDto));
+        uniquenessIndex.recordPatient(patient.getPatientName(), patient.getPatientPhone());
+        summaryCounters.addPatients(1);
         return patientDto;
     }
 
@@ -99,10 +128,7 @@ public class PatientServiceImpl implements PatientService {
             throw new RuntimeException(("patient.age.required.older than 0"));
         }
         String phone = patientDto.getPatientPhone();
-
-        String phoneRegex = "^(010|011|012|015)[0-9]{8}$";
-
-        if (!phone.matches(phoneRegex)) {
+        if (!registrationRules.isValidPhone(phone)) {
             throw new RuntimeException("patient.phone.must be valid");
         }
 
@@ -112,7 +138,19 @@ public class PatientServiceImpl implements PatientService {
         if(patientDto.getPatientStatus()==null){
             throw new RuntimeException(("patient.status.required"));
         }
+        Patient existing = patientRepo.findById(patientDto.getPatientId())
+                .orElseThrow(() -> new RuntimeException("patient.id.notExists"));
+        // keeping one's own name or phone is not a clash
+        if (!patientDto.getPatientName().equals(existing.getPatientName())
+                && uniquenessIndex.isPatientNameTaken(patientDto.getPatientName())) {
+            throw new RuntimeException("patient.already.exists");
+        }
+        if (!phone.equals(existing.getPatientPhone()) && uniquenessIndex.isPatientPhoneTaken(phone)) {
+            throw new RuntimeException("patient.phone.already.exists");
+        }
         patientRepo.save(patientMapper.toEntity(patientDto));
+        uniquenessIndex.recordPatient(patientDto.getPatientName(), phone);
+        principalCache.invalidatePatient(patientDto.getPatientId());
         return patientDto;
     }
 
@@ -123,13 +161,21 @@ public class PatientServiceImpl implements PatientService {
             throw new RuntimeException(("patient.id.notExists"));
         }
         patientRepo.deleteById(id);
+        principalCache.invalidatePatient(id);
+        // the patient's prescriptions go with it
+        summaryCounters.markStale();
     }
 
     public Patient addPatientEntity(Patient patient) {
-        Optional<Patient> patientOptional=patientRepo.findPatientByPatientName(patient.getPatientName());
-        if(patientOptional.isPresent()){
+        if(uniquenessIndex.isPatientNameTaken(patient.getPatientName())){
             throw new RuntimeException(("patient.already.exists"));
         }
-        return patientRepo.save(patient);
+        if(uniquenessIndex.isPatientPhoneTaken(patient.getPatientPhone())){
+            throw new RuntimeException(("patient.phone.already.exists"));
+        }
+        Patient saved = patientRepo.save(patient);
+        uniquenessIndex.recordPatient(saved.getPatientName(), saved.getPatientPhone());
+        summaryCounters.addPatients(1);
+        return saved;
     }
 }
@@ -1,6 +1,9 @@
 package com.spring.boot.service.impl;
 
+import com.spring.boot.config.cache.SummaryCounters;
+import com.spring.boot.dto.CursorPageDto;
 import com.spring.boot.dto.PrescriptionDto;
+import com.spring.boot.helper.PageCursor;
 import com.spring.boot.mapper.PrescriptionMapper;
 import com.spring.boot.model.Appointment;
 import com.spring.boot.model.Doctor;
@@ -17,6 +20,7 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -28,15 +32,18 @@ public class PrescriptionServiceImpl implements PrescriptionService {
     private DoctorRepo doctorRepo;
     private PatientRepo patientRepo;
     private PrescriptionMapper prescriptionMapper;
+    private SummaryCounters summaryCounters;
 
 
     @Autowired
-    public PrescriptionServiceImpl(PrescriptionRepo prescriptionRepo,AppointmentRepo appointmentRepo,PrescriptionMapper prescriptionMapper,DoctorRepo doctorRepo,PatientRepo patientRepo) {
+    public PrescriptionServiceImpl(PrescriptionRepo prescriptionRepo,AppointmentRepo appointmentRepo,PrescriptionMapper prescriptionMapper,DoctorRepo doctorRepo,PatientRepo patientRepo,
+                                   SummaryCounters summaryCounters) {
         this.prescriptionRepo = prescriptionRepo;
         this.prescriptionMapper = prescriptionMapper;
         this.doctorRepo= doctorRepo;
         this.patientRepo = patientRepo;
         this.appointmentRepo = appointmentRepo;
+        this.summaryCounters = summaryCounters;
     }
     @Override
     public List<PrescriptionDto> GetAllPrescriptions() {
@@ -45,6 +52,24 @@ public class PrescriptionServiceImpl implements PrescriptionService {
                 prescriptionMapper.toDto(prescription)).collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPageDto<PrescriptionDto> getPrescriptionsPage(LocalDateTime from, LocalDateTime to, Long doctorId, Long patientId,
+                                                               String sort, String cursor, Integer size) {
+        int limit = PageCursor.resolveSize(size);
+        LocalDateTime rangeFrom = Objects.isNull(from) ? PageCursor.OPEN_FROM : from;
+        LocalDateTime rangeTo = Objects.isNull(to) ? PageCursor.OPEN_TO : to;
+        PageCursor.checkRange(rangeFrom, rangeTo);
+        PageCursor.DateKey last = PageCursor.decodeDate(cursor);
+
+        List<Prescription> rows = PageCursor.isDescending(sort, "date")
+                ? prescriptionRepo.findPageBefore(last == null ? rangeTo : last.date(), last == null ? 0L : last.id(),
+                        rangeFrom, doctorId, patientId, PageCursor.firstRows(limit))
+                : prescriptionRepo.findPageAfter(last == null ? rangeFrom : last.date(), last == null ? 0L : last.id(),
+                        rangeTo, doctorId, patientId, PageCursor.firstRows(limit));
+        return PageCursor.page(rows, limit, prescriptionMapper::toDto,
+                prescription -> PageCursor.encodeDate(prescription.getPrescriptionDate(), prescription.getPrescriptionId()));
+    }
+
     @Override
     public PrescriptionDto findPrescriptionById(Long prescriptionId) {
         Optional<Prescription> prescription = prescriptionRepo.findById(prescriptionId);
@@ -124,6 +149,7 @@ public class PrescriptionServiceImpl implements PrescriptionService {
 
         // Save
         prescriptionRepo.save(prescription);
+        summaryCounters.addPrescriptions(1);
 
         return prescriptionDto;
     }
@@ -159,5 +185,6 @@ public class PrescriptionServiceImpl implements PrescriptionService {
             throw new RuntimeException("Prescription.id.notExist");
         }
         prescriptionRepo.deleteById(prescriptionId);
+        summaryCounters.addPrescriptions(-1);
     }
 }
@@ -0,0 +1,117 @@
+package com.spring.boot.service.impl;
+
+import com.spring.boot.dto.PatientDto;
+import com.spring.boot.dto.UserDto;
+import com.spring.boot.enums.DaysOfWeek;
+import com.spring.boot.model.Doctor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * The checks a new user, patient or doctor record goes through, shared by sign-up,
+ * the admin forms and bulk provisioning so they cannot drift apart. Uniqueness is
+ * left to the callers, which check it against different sources.
+ */
+@Component
+public class RegistrationRules {
+
+    private static final Pattern PHONE = Pattern.compile("^(010|011|012|015)[0-9]{8}$");
+    private static final int MIN_PATIENT_AGE = 12;
+    // one appointment per 5-minute cell of a day
+    private static final int MAX_DAILY_CAPACITY = 288;
+    private static final LocalTime CLINIC_OPENS = LocalTime.of(7, 0);
+    private static final LocalTime CLINIC_CLOSES = LocalTime.of(23, 59);
+
+    public boolean isValidPhone(String phone) {
+        return phone != null && PHONE.matcher(phone).matches();
+    }
+
+    public void checkNewUser(UserDto userDto) {
+        if (userDto.getUserId() != null) {
+            throw new RuntimeException("id.user.not.required");
+        }
+        if (userDto.getPassword() == null || userDto.getPassword().isEmpty()) {
+            throw new RuntimeException("password.empty");
+        }
+        if (userDto.getUsername() == null || userDto.getUsername().isEmpty()) {
+            throw new RuntimeException("username.empty");
+        }
+        if (userDto.getEmail() == null || userDto.getEmail().isEmpty()) {
+            throw new RuntimeException("email.empty");
+        }
+    }
+
+    public void checkNewPatient(PatientDto patientDto) {
+        if (patientDto.getPatientAge() < MIN_PATIENT_AGE) {
+            throw new RuntimeException("patient.age.required.older.than.0");
+        }
+        if (!isValidPhone(patientDto.getPatientPhone())) {
+            throw new RuntimeException("patient.phone.must.be.valid");
+        }
+        if (Objects.nonNull(patientDto.getPatientId())) {
+            throw new RuntimeException("patient.id.notRequired");
+        }
+        if (Objects.isNull(patientDto.getPatientName())) {
+            throw new RuntimeException("patient.name.Required");
+        }
+        if (patientDto.getPatientStatus() == null) {
+            throw new RuntimeException("patient.status.required");
+        }
+    }
+
+    public void checkNewDoctor(Doctor doctor) {
+        if (Objects.nonNull(doctor.getDoctorId())) {
+            throw new RuntimeException("doctor.id.notRequired");
+        }
+        checkDoctor(doctor);
+    }
+
+    // a new or updated doctor, with its per-day hours and capacity already applied
+    public void checkDoctor(Doctor doctor) {
+        if (Objects.isNull(doctor.getDoctorPhone())) {
+            throw new RuntimeException("doctor.phone.Required");
+        }
+        if (!isValidPhone(doctor.getDoctorPhone())) {
+            throw new RuntimeException("doctor.phone.must.be.valid");
+        }
+        if (Objects.isNull(doctor.getDoctorName())) {
+            throw new RuntimeException("doctor.name.Required");
+        }
+        if (Objects.isNull(doctor.getAttendTime())) {
+            throw new RuntimeException("doctor.attendTime.Required");
+        }
+        if (Objects.isNull(doctor.getLeaveTime())) {
+            throw new RuntimeException("doctor.leaveTime.Required");
+        }
+        checkHours(doctor.getAttendTime(), doctor.getLeaveTime());
+        if (doctor.getWorkingDays() == null || doctor.getWorkingDays().isEmpty()) {
+            throw new RuntimeException("doctor.workingDays.Required");
+        }
+        // per-day hours follow the same rules as attendTime/leaveTime and only apply to working days
+        for (DaysOfWeek day : DaysOfWeek.values()) {
+            if (!doctor.hasOwnHours(day)) {
+                continue;
+            }
+            if (!doctor.worksOn(day)) {
+                throw new RuntimeException("doctor.weeklyHours.invalid");
+            }
+            checkHours(doctor.attendTimeOn(day), doctor.leaveTimeOn(day));
+        }
+        Integer dailyCapacity = doctor.getDailyCapacity();
+        if (dailyCapacity != null && (dailyCapacity < 0 || dailyCapacity > MAX_DAILY_CAPACITY)) {
+            throw new RuntimeException("doctor.dailyCapacity.invalid");
+        }
+    }
+
+    private static void checkHours(LocalTime attendTime, LocalTime leaveTime) {
+        if (!leaveTime.isAfter(attendTime)) {
+            throw new RuntimeException("doctor.leaveTime.isn'tAfter.AttendTime");
+        }
+        if (!attendTime.isAfter(CLINIC_OPENS) || !leaveTime.isBefore(CLINIC_CLOSES)) {
+            throw new RuntimeException("clinic.is.closed");
+        }
+    }
+}
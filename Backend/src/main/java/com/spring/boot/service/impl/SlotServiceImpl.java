@@ -0,0 +1,135 @@
+package com.spring.boot.service.impl;
+
+import com.spring.boot.config.cache.AppointmentIntervalIndex;
+import com.spring.boot.dto.FreeSlotDto;
+import com.spring.boot.config.cache.EffectiveScheduleCache;
+import com.spring.boot.model.Appointment;
+import com.spring.boot.model.Doctor;
+import com.spring.boot.repo.DoctorRepo;
+import com.spring.boot.service.SlotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Finds bookable slots from a per-day bitmap of 5-minute cells (288 bits, five
+ * longs). Everything outside the doctor's hours and every booked interval is set,
+ * and the free runs are read back with {@link BitSet#nextClearBit}/{@link BitSet#nextSetBit},
+ * so a day costs a handful of word operations regardless of how it is booked.
+ * Days on which the doctor has reached the daily capacity are skipped.
+ */
+@Service
+public class SlotServiceImpl implements SlotService {
+
+    static final int CELL_MINUTES = 5;
+    private static final int CELLS_PER_DAY = 24 * 60 / CELL_MINUTES;
+
+    private static final int DEFAULT_COUNT = 5;
+    private static final int MAX_COUNT = 50;
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int MAX_RANGE_DAYS = 90;
+
+    // same bounds as BookingRules.validateBookingTime
+    private static final LocalTime EARLIEST_TIME = LocalTime.of(7, 0);
+    private static final LocalTime LATEST_TIME = LocalTime.of(23, 59);
+
+    private DoctorRepo doctorRepo;
+    private AppointmentIntervalIndex appointmentIntervalIndex;
+    private EffectiveScheduleCache effectiveScheduleCache;
+
+    @Autowired
+    public SlotServiceImpl(DoctorRepo doctorRepo, AppointmentIntervalIndex appointmentIntervalIndex,
+                           EffectiveScheduleCache effectiveScheduleCache) {
+        this.doctorRepo = doctorRepo;
+        this.appointmentIntervalIndex = appointmentIntervalIndex;
+        this.effectiveScheduleCache = effectiveScheduleCache;
+    }
+
+    @Override
+    public List<FreeSlotDto> findFreeSlots(Long doctorId, LocalDate from, LocalDate to, Integer count, Integer durationMinutes) {
+        int duration = Objects.isNull(durationMinutes) ? Appointment.DEFAULT_DURATION_MINUTES : durationMinutes;
+        if (duration < Appointment.MIN_DURATION_MINUTES || duration > Appointment.MAX_DURATION_MINUTES) {
+            throw new RuntimeException("appointment.duration.invalid");
+        }
+        int limit = Objects.isNull(count) ? DEFAULT_COUNT : count;
+        if (limit < 1 || limit > MAX_COUNT) {
+            throw new RuntimeException("slot.count.invalid");
+        }
+
+        // appointments can only be booked from tomorrow on
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        LocalDate start = Objects.isNull(from) || from.isBefore(tomorrow) ? tomorrow : from;
+        LocalDate end = Objects.isNull(to) ? start.plusDays(DEFAULT_RANGE_DAYS - 1) : to;
+        if (end.isBefore(start) || start.plusDays(MAX_RANGE_DAYS).isBefore(end)) {
+            throw new RuntimeException("slot.range.invalid");
+        }
+
+        Doctor doctor = doctorRepo.findById(doctorId)
+                .orElseThrow(() -> new RuntimeException("doctor.id.notExists"));
+
+        int cellsNeeded = (duration + CELL_MINUTES - 1) / CELL_MINUTES;
+        List<FreeSlotDto> slots = new ArrayList<>(limit);
+
+        appointmentIntervalIndex.preloadDoctor(doctorId, start, end);
+        for (LocalDate date = start; !date.isAfter(end) && slots.size() < limit; date = date.plusDays(1)) {
+            // weekly template merged with the doctor's exception dates
+            EffectiveScheduleCache.WorkingHours hours = effectiveScheduleCache.hoursOn(doctor, date);
+            if (hours == null) {
+                continue;
+            }
+            int dayFrom = Math.max(toCellCeil(hours.attendTime()), toCellCeil(EARLIEST_TIME));
+            int dayTo = Math.min(toCellFloor(hours.leaveTime()), toCellFloor(LATEST_TIME));
+            if (dayTo - dayFrom < cellsNeeded) {
+                continue;
+            }
+            List<AppointmentIntervalIndex.Interval> booked = appointmentIntervalIndex.doctorDay(doctorId, date);
+            // a full day would be refused with doctor.dailyCapacity.reached; the day's intervals are its count
+            if (doctor.isCapacityLimited() && booked.size() >= doctor.getDailyCapacity()) {
+                continue;
+            }
+            BitSet busy = new BitSet(CELLS_PER_DAY);
+            busy.set(0, dayFrom);
+            busy.set(dayTo, CELLS_PER_DAY);
+            for (AppointmentIntervalIndex.Interval interval : booked) {
+                int first = Math.max(0, interval.start() / CELL_MINUTES);
+                int last = Math.min(CELLS_PER_DAY, (interval.end() + CELL_MINUTES - 1) / CELL_MINUTES);
+                if (first < last) {
+                    busy.set(first, last);
+                }
+            }
+            collect(busy, cellsNeeded, date, doctorId, duration, limit, slots);
+        }
+        return slots;
+    }
+
+    private static void collect(BitSet busy, int cellsNeeded, LocalDate date, Long doctorId, int duration,
+                                int limit, List<FreeSlotDto> slots) {
+        int cell = busy.nextClearBit(0);
+        while (cell < CELLS_PER_DAY && slots.size() < limit) {
+            int runEnd = busy.nextSetBit(cell);
+            if (runEnd < 0) {
+                runEnd = CELLS_PER_DAY;
+            }
+            while (runEnd - cell >= cellsNeeded && slots.size() < limit) {
+                slots.add(new FreeSlotDto(doctorId, date.atStartOfDay().plusMinutes((long) cell * CELL_MINUTES), duration));
+                cell += cellsNeeded;
+            }
+            cell = busy.nextClearBit(runEnd);
+        }
+    }
+
+    private static int toCellCeil(LocalTime time) {
+        int minutes = time.getHour() * 60 + time.getMinute();
+        return (minutes + CELL_MINUTES - 1) / CELL_MINUTES;
+    }
+
+    private static int toCellFloor(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / CELL_MINUTES;
+    }
+}
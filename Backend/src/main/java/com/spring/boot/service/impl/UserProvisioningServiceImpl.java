@@ -0,0 +1,414 @@
+package com.spring.boot.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.boot.config.cache.DoctorAvailabilityIndex;
+import com.spring.boot.config.cache.DoctorDirectoryCache;
+import com.spring.boot.config.cache.SummaryCounters;
+import com.spring.boot.config.cache.UniquenessIndex;
+import com.spring.boot.config.hashing.HashingPasswordEncoder;
+import com.spring.boot.dto.BulkItemResultDto;
+import com.spring.boot.dto.BulkReportDto;
+import com.spring.boot.dto.DoctorDto;
+import com.spring.boot.dto.PatientDto;
+import com.spring.boot.dto.UserDto;
+import com.spring.boot.mapper.DoctorMapper;
+import com.spring.boot.model.Doctor;
+import com.spring.boot.model.Patient;
+import com.spring.boot.model.User;
+import com.spring.boot.repo.DoctorRepo;
+import com.spring.boot.repo.PatientRepo;
+import com.spring.boot.repo.UserRepo;
+import com.spring.boot.service.UserProvisioningService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Bulk user provisioning for onboarding a clinic. Records are validated up front,
+ * passwords are hashed in parallel on a pool of its own, and each chunk of users is
+ * inserted together with its Doctor/Patient rows in a single transaction, letting
+ * Hibernate group the inserts into JDBC batches. A chunk that fails is saved again
+ * one row per transaction, so only the rows that really fail are reported, each
+ * with its own reason.
+ */
+@Service
+public class UserProvisioningServiceImpl implements UserProvisioningService, DisposableBean {
+
+    private final UserRepo userRepo;
+    private final PatientRepo patientRepo;
+    private final DoctorRepo doctorRepo;
+    private final PasswordEncoder passwordEncoder;
+    private final UniquenessIndex uniquenessIndex;
+    private final DoctorAvailabilityIndex doctorAvailabilityIndex;
+    private final DoctorDirectoryCache doctorDirectoryCache;
+    private final SummaryCounters summaryCounters;
+    private final BundleMessageService bundleMessageService;
+    private final RegistrationRules registrationRules;
+    private final DoctorMapper doctorMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final ForkJoinPool hashingPool;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public UserProvisioningServiceImpl(UserRepo userRepo, PatientRepo patientRepo, DoctorRepo doctorRepo,
+                                       HashingPasswordEncoder passwordEncoder, UniquenessIndex uniquenessIndex,
+                                       DoctorAvailabilityIndex doctorAvailabilityIndex, DoctorDirectoryCache doctorDirectoryCache,
+                                       SummaryCounters summaryCounters,
+                                       BundleMessageService bundleMessageService, RegistrationRules registrationRules,
+                                       DoctorMapper doctorMapper, ObjectMapper objectMapper,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${bulk.chunk-size:500}") int chunkSize) {
+        this.userRepo = userRepo;
+        this.patientRepo = patientRepo;
+        this.doctorRepo = doctorRepo;
+        this.passwordEncoder = passwordEncoder.getDelegate();
+        this.uniquenessIndex = uniquenessIndex;
+        this.doctorAvailabilityIndex = doctorAvailabilityIndex;
+        this.doctorDirectoryCache = doctorDirectoryCache;
+        this.summaryCounters = summaryCounters;
+        this.bundleMessageService = bundleMessageService;
+        this.registrationRules = registrationRules;
+        this.doctorMapper = doctorMapper;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.hashingPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public BulkReportDto addUsers(List<UserDto> userDtos) {
+        Run run = new Run();
+        for (int index = 0; index < userDtos.size(); index++) {
+            run.accept(index, userDtos.get(index));
+        }
+        return run.finish();
+    }
+
+    /**
+     * Each line is parsed on its own, so a malformed line is reported under its own
+     * index and the next line is read as usual. The index is the line's position in
+     * the stream, counted from 0 like the list form; blank lines are skipped but counted.
+     */
+    @Override
+    public BulkReportDto addUsers(InputStream ndjson) throws IOException {
+        Run run = new Run();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        int index = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine(), index++) {
+            if (line.isBlank()) {
+                continue;
+            }
+            UserDto userDto;
+            try {
+                userDto = objectMapper.readValue(line, UserDto.class);
+            } catch (JsonProcessingException exception) {
+                run.reject(index, "bulk.record.invalid");
+                continue;
+            }
+            run.accept(index, userDto);
+        }
+        return run.finish();
+    }
+
+    // one provisioning request: records are validated as they arrive and inserted a chunk at a time
+    private final class Run {
+        private final long start = System.nanoTime();
+        private final BulkReportDto report = new BulkReportDto();
+        private final Seen seen = new Seen();
+        private final List<Pending> chunk = new ArrayList<>(chunkSize);
+
+        private void accept(int index, UserDto userDto) {
+            if (userDto == null) {
+                reject(index, "bulk.record.invalid");
+                return;
+            }
+            try {
+                validate(userDto, seen);
+                chunk.add(new Pending(index, userDto));
+            } catch (RuntimeException exception) {
+                report.add(failure(index, userDto.getUsername(), exception.getMessage()));
+            }
+            if (chunk.size() == chunkSize) {
+                insertChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+
+        private void reject(int index, String messageKey) {
+            report.add(failure(index, null, messageKey));
+        }
+
+        private BulkReportDto finish() {
+            if (!chunk.isEmpty()) {
+                insertChunk(chunk, report);
+            }
+            report.getItems().sort(Comparator.comparingInt(BulkItemResultDto::getIndex));
+            report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+            return report;
+        }
+    }
+
+    private void insertChunk(List<Pending> chunk, BulkReportDto report) {
+        hashPasswords(chunk);
+        try {
+            save(chunk);
+        } catch (RuntimeException exception) {
+            List<Pending> saved = new ArrayList<>(chunk.size());
+            for (Pending pending : chunk) {
+                // ids handed out by the rolled-back attempt would make the entities look detached
+                pending.clearIds();
+                try {
+                    save(List.of(pending));
+                    saved.add(pending);
+                } catch (RuntimeException rowException) {
+                    report.add(failure(pending.index, pending.user.getUsername(), failureKey(pending, rowException)));
+                }
+            }
+            recordSaved(saved, report);
+            return;
+        }
+        recordSaved(chunk, report);
+    }
+
+    private void save(List<Pending> chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<User> users = new ArrayList<>(chunk.size());
+            for (Pending pending : chunk) {
+                users.add(pending.user);
+            }
+            userRepo.saveAll(users);
+
+            List<Patient> patients = new ArrayList<>();
+            List<Doctor> doctors = new ArrayList<>();
+            for (Pending pending : chunk) {
+                if (pending.patient != null) {
+                    patients.add(pending.patient);
+                }
+                if (pending.doctor != null) {
+                    doctors.add(pending.doctor);
+                }
+            }
+            patientRepo.saveAll(patients);
+            doctorRepo.saveAll(doctors);
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private void recordSaved(List<Pending> chunk, BulkReportDto report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        summaryCounters.addPatients((int) chunk.stream().filter(pending -> pending.patient != null).count());
+        summaryCounters.addDoctors((int) chunk.stream().filter(pending -> pending.doctor != null).count());
+        if (chunk.stream().anyMatch(pending -> pending.doctor != null)) {
+            doctorAvailabilityIndex.invalidate();
+            doctorDirectoryCache.invalidate();
+        }
+        for (Pending pending : chunk) {
+            uniquenessIndex.recordUser(pending.user.getUsername(), pending.user.getEmail());
+            if (pending.patient != null) {
+                uniquenessIndex.recordPatient(pending.patient.getPatientName(), pending.patient.getPatientPhone());
+            }
+            if (pending.doctor != null) {
+                uniquenessIndex.recordDoctor(pending.doctor.getDoctorName(), pending.doctor.getDoctorPhone());
+            }
+            report.add(new BulkItemResultDto(pending.index, pending.user.getUsername(), true,
+                    pending.user.getUserId(), null));
+        }
+    }
+
+    // a row that fails on its own: a constraint is named by finding the value already taken
+    private String failureKey(Pending pending, RuntimeException exception) {
+        if (exception instanceof DataIntegrityViolationException) {
+            if (userRepo.existsByUsername(pending.user.getUsername())) {
+                return "exist.user.with.same.userName";
+            }
+            if (userRepo.existsByEmail(pending.user.getEmail())) {
+                return "exist.user.with.same.email";
+            }
+            if (pending.patient != null && patientRepo.existsByPatientPhone(pending.patient.getPatientPhone())) {
+                return "patient.phone.already.exists";
+            }
+            if (pending.doctor != null && doctorRepo.existsByDoctorPhone(pending.doctor.getDoctorPhone())) {
+                return "doctor.phone.already.exists";
+            }
+            if (pending.doctor != null && doctorRepo.existsByDoctorName(pending.doctor.getDoctorName())) {
+                return "doctor.name.already.exists";
+            }
+            // every unique column is checked above, so this is a missing or malformed value
+            return "bulk.record.failed";
+        }
+        if (exception instanceof TransientDataAccessException) {
+            // lock and query timeouts, deadlocks
+            return "bulk.record.busy";
+        }
+        return "bulk.record.failed";
+    }
+
+    private void hashPasswords(List<Pending> chunk) {
+        try {
+            hashingPool.submit(() -> chunk.parallelStream().forEach(pending ->
+                    pending.user.setPassword(passwordEncoder.encode(pending.rawPassword)))).get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+
+    private void validate(UserDto userDto, Seen seen) {
+        registrationRules.checkNewUser(userDto);
+        if (seen.usernames.contains(userDto.getUsername()) || uniquenessIndex.isUsernameTaken(userDto.getUsername())) {
+            throw new RuntimeException("exist.user.with.same.userName");
+        }
+        if (seen.emails.contains(userDto.getEmail()) || uniquenessIndex.isEmailTaken(userDto.getEmail())) {
+            throw new RuntimeException("exist.user.with.same.email");
+        }
+        if (userDto.getPatient() != null) {
+            validatePatient(userDto.getPatient(), seen);
+        }
+        if (userDto.getDoctor() != null) {
+            validateDoctor(userDto.getDoctor(), seen);
+        }
+
+        seen.usernames.add(userDto.getUsername());
+        seen.emails.add(userDto.getEmail());
+        if (userDto.getPatient() != null) {
+            seen.patientNames.add(userDto.getPatient().getPatientName());
+            seen.patientPhones.add(userDto.getPatient().getPatientPhone());
+        }
+        if (userDto.getDoctor() != null) {
+            seen.doctorPhones.add(userDto.getDoctor().getDoctorPhone());
+            seen.doctorNames.add(userDto.getDoctor().getDoctorName());
+        }
+    }
+
+    private void validatePatient(PatientDto patientDto, Seen seen) {
+        registrationRules.checkNewPatient(patientDto);
+        if (seen.patientNames.contains(patientDto.getPatientName())
+                || uniquenessIndex.isPatientNameTaken(patientDto.getPatientName())) {
+            throw new RuntimeException("patient.already.exists");
+        }
+        if (seen.patientPhones.contains(patientDto.getPatientPhone())
+                || uniquenessIndex.isPatientPhoneTaken(patientDto.getPatientPhone())) {
+            throw new RuntimeException("patient.phone.already.exists");
+        }
+    }
+
+    private void validateDoctor(DoctorDto doctorDto, Seen seen) {
+        registrationRules.checkNewDoctor(doctorMapper.toEntity(doctorDto));
+        if (seen.doctorPhones.contains(doctorDto.getDoctorPhone())
+                || uniquenessIndex.isDoctorPhoneTaken(doctorDto.getDoctorPhone())) {
+            throw new RuntimeException("doctor.phone.already.exists");
+        }
+        if (seen.doctorNames.contains(doctorDto.getDoctorName())
+                || uniquenessIndex.isDoctorNameTaken(doctorDto.getDoctorName())) {
+            throw new RuntimeException("doctor.name.already.exists");
+        }
+    }
+
+    private BulkItemResultDto failure(int index, String reference, String messageKey) {
+        return new BulkItemResultDto(index, reference, false, null, bundleMessageService.getMessage(messageKey));
+    }
+
+    @Override
+    public void destroy() {
+        hashingPool.shutdownNow();
+    }
+
+    private static final class Seen {
+        private final Set<String> usernames = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+        private final Set<String> patientNames = new HashSet<>();
+        private final Set<String> patientPhones = new HashSet<>();
+        private final Set<String> doctorPhones = new HashSet<>();
+        private final Set<String> doctorNames = new HashSet<>();
+    }
+
+    private static final class Pending {
+        private final int index;
+        private final String rawPassword;
+        private final User user;
+        private final Patient patient;
+        private final Doctor doctor;
+
+        private Pending(int index, UserDto userDto) {
+            this.index = index;
+            this.rawPassword = userDto.getPassword();
+
+            User user = new User();
+            user.setUsername(userDto.getUsername());
+            user.setEmail(userDto.getEmail());
+            if (userDto.getRole() != null) {
+                user.setRole(userDto.getRole());
+            } else {
+                user.setRole(userDto.getDoctor() != null ? "DOCTOR" : "PATIENT");
+            }
+            this.user = user;
+
+            if (userDto.getPatient() != null) {
+                PatientDto patientDto = userDto.getPatient();
+                Patient patient = new Patient();
+                patient.setPatientName(patientDto.getPatientName());
+                patient.setPatientPhone(patientDto.getPatientPhone());
+                patient.setPatientGender(patientDto.getPatientGender());
+                patient.setPatientAge(patientDto.getPatientAge());
+                patient.setPatientStatus(patientDto.getPatientStatus());
+                patient.setUser(user);
+                this.patient = patient;
+            } else {
+                this.patient = null;
+            }
+
+            if (userDto.getDoctor() != null) {
+                DoctorDto doctorDto = userDto.getDoctor();
+                Doctor doctor = new Doctor();
+                doctor.setDoctorName(doctorDto.getDoctorName());
+                doctor.setDoctorPhone(doctorDto.getDoctorPhone());
+                doctor.setAttendTime(doctorDto.getAttendTime());
+                doctor.setLeaveTime(doctorDto.getLeaveTime());
+                doctor.setWorkingDays(doctorDto.getWorkingDays());
+                DoctorMapper.applyWeeklyHours(doctorDto, doctor);
+                doctor.setDailyCapacity(doctorDto.getDailyCapacity());
+                doctor.setUser(user);
+                this.doctor = doctor;
+            } else {
+                this.doctor = null;
+            }
+        }
+
+        private void clearIds() {
+            user.setUserId(null);
+            if (patient != null) {
+                patient.setPatientId(null);
+            }
+            if (doctor != null) {
+                doctor.setDoctorId(null);
+            }
+        }
+    }
+}
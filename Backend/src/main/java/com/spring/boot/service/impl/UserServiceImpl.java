@@ -1,6 +1,15 @@
 package com.spring.boot.service.impl;
 
+import com.spring.boot.config.cache.DoctorAvailabilityIndex;
+import com.spring.boot.config.cache.DoctorDirectoryCache;
+import com.spring.boot.config.cache.PrincipalCache;
+import com.spring.boot.config.cache.SummaryCounters;
+import com.spring.boot.config.cache.UniquenessIndex;
+import com.spring.boot.config.jwt.RefreshTokenHandler;
+import com.spring.boot.config.jwt.TokenVersionRegistry;
+import com.spring.boot.dto.CursorPageDto;
 import com.spring.boot.dto.UserDto;
+import com.spring.boot.helper.PageCursor;
 import com.spring.boot.mapper.DoctorMapper;
 import com.spring.boot.mapper.PatientMapper;
 import com.spring.boot.mapper.UserMapper;
@@ -30,13 +39,26 @@ public class UserServiceImpl implements UserService {
 
     private PasswordEncoder passwordEncoder;
     private PatientService patientService;
+    private PrincipalCache principalCache;
+    private TokenVersionRegistry tokenVersionRegistry;
+    private RefreshTokenHandler refreshTokenHandler;
+    private UniquenessIndex uniquenessIndex;
+    private DoctorAvailabilityIndex doctorAvailabilityIndex;
+    private DoctorDirectoryCache doctorDirectoryCache;
+    private SummaryCounters summaryCounters;
+    private RegistrationRules registrationRules;
 
     @Autowired
     public UserServiceImpl(UserRepo userRepo,
                            PasswordEncoder passwordEncoder,
                            UserMapper userMapper,
                            PatientService patientService,
-                           PatientMapper patientMapper, DoctorService doctorService, DoctorMapper doctorMapper) {
+                           PatientMapper patientMapper, DoctorService doctorService, DoctorMapper doctorMapper,
+                           PrincipalCache principalCache, TokenVersionRegistry tokenVersionRegistry,
+                           RefreshTokenHandler refreshTokenHandler, UniquenessIndex uniquenessIndex,
+                           DoctorAvailabilityIndex doctorAvailabilityIndex,
+                           DoctorDirectoryCache doctorDirectoryCache, SummaryCounters summaryCounters,
+                           RegistrationRules registrationRules) {
         this.userRepo = userRepo;
         this.passwordEncoder = passwordEncoder;
         this.userMapper = userMapper;
@@ -44,28 +66,30 @@ public class UserServiceImpl implements UserService {
         this.patientMapper = patientMapper;
         this.doctorService = doctorService;
         this.doctorMapper = doctorMapper;
+        this.principalCache = principalCache;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.refreshTokenHandler = refreshTokenHandler;
+        this.uniquenessIndex = uniquenessIndex;
+        this.doctorAvailabilityIndex = doctorAvailabilityIndex;
+        this.doctorDirectoryCache = doctorDirectoryCache;
+        this.summaryCounters = summaryCounters;
+        this.registrationRules = registrationRules;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public UserDto addUser(UserDto userDto) throws SystemException {
-
-        if (userDto.getUserId() != null) {
-            throw new RuntimeException("id.user.not.required");
-        }
-        if(userDto.getPassword() == null || userDto.getPassword().equals("")) {
-            throw new RuntimeException("password.empty");
-        }
-        if(userDto.getUsername() == null || userDto.getUsername().equals("")) {
-            throw new RuntimeException("username.empty");
-        }
-        if (userDto.getEmail() == null || userDto.getEmail().equals("")) {
-            throw new RuntimeException("email.empty");
+        registrationRules.checkNewUser(userDto);
+        // checked before the user is saved and recorded, so a bad patient leaves nothing behind
+        if (userDto.getPatient() != null) {
+            registrationRules.checkNewPatient(userDto.getPatient());
         }
-        Optional<User> userOptional = userRepo.findByUsername(userDto.getUsername());
-        if(userOptional.isPresent()){
+        if(uniquenessIndex.isUsernameTaken(userDto.getUsername())){
             throw new RuntimeException("exist.user.with.same.userName");
         }
+        if(uniquenessIndex.isEmailTaken(userDto.getEmail())){
+            throw new RuntimeException("exist.user.with.same.email");
+        }
         // تحويل DTO لـ Entity وحفظ الـ User
         User user = userMapper.toEntity(userDto);
         user.setPassword(passwordEncoder.encode(userDto.getPassword()));
@@ -74,29 +98,11 @@ public class UserServiceImpl implements UserService {
         user.setRole("PATIENT");
 
         User userSaved = userRepo.saveAndFlush(user); // حفظ الـ User أولًا
+        uniquenessIndex.recordUser(userSaved.getUsername(), userSaved.getEmail());
         UserDto response = userMapper.toDto(userSaved);
 
 
         if (userDto.getPatient() != null) {
-            if (userDto.getPatient().getPatientAge()<12){
-                throw new RuntimeException(("patient.age.required.older.than.0"));
-            }
-            String phone = userDto.getPatient().getPatientPhone();
-
-            String phoneRegex = "^(010|011|012|015)[0-9]{8}$";
-
-            if (!phone.matches(phoneRegex)) {
-                throw new RuntimeException("patient.phone.must.be.valid");
-            }
-            if(Objects.nonNull(userDto.getPatient().getPatientId())){
-                throw new RuntimeException(("patient.id.notRequired"));
-            }
-            if(Objects.isNull(userDto.getPatient().getPatientName())){
-                throw new RuntimeException(("patient.name.Required"));
-            }
-            if(userDto.getPatient().getPatientStatus()==null){
-                throw new RuntimeException(("patient.status.required"));
-            }
             Patient patient = new Patient();
             patient.setPatientName(userDto.getPatient().getPatientName());
             patient.setPatientPhone(userDto.getPatient().getPatientPhone());
@@ -117,23 +123,33 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional(rollbackFor = Exception.class)
     public UserDto adminAddUser(UserDto userDto) throws SystemException {
-        if (userDto.getUserId() != null) {
-            throw new RuntimeException("id.user.not.required");
-        }
-        if(userDto.getPassword() == null || userDto.getPassword().equals("")) {
-            throw new RuntimeException("password.empty");
+        registrationRules.checkNewUser(userDto);
+        Doctor doctor = null;
+        if(userDto.getDoctor() != null) {
+            System.out.println("Working Days from JSON = " + userDto.getDoctor().getWorkingDays());
+            doctor = new Doctor();
+            doctor.setDoctorName(userDto.getDoctor().getDoctorName());
+            doctor.setDoctorPhone(userDto.getDoctor().getDoctorPhone());
+            doctor.setAttendTime(userDto.getDoctor().getAttendTime());
+            doctor.setLeaveTime(userDto.getDoctor().getLeaveTime());
+            doctor.setWorkingDays(userDto.getDoctor().getWorkingDays());
+            DoctorMapper.applyWeeklyHours(userDto.getDoctor(), doctor);
+            doctor.setDailyCapacity(userDto.getDoctor().getDailyCapacity());
         }
-        if(userDto.getUsername() == null || userDto.getUsername().equals("")) {
-            throw new RuntimeException("username.empty");
+        // checked before the user is saved and recorded, so a bad patient or doctor leaves nothing behind
+        if (userDto.getPatient() != null) {
+            registrationRules.checkNewPatient(userDto.getPatient());
         }
-        if (userDto.getEmail() == null || userDto.getEmail().equals("")) {
-            throw new RuntimeException("email.empty");
+        if (doctor != null) {
+            registrationRules.checkNewDoctor(doctor);
         }
 
-        Optional<User> userOptional = userRepo.findByUsername(userDto.getUsername());
-        if(userOptional.isPresent()){
+        if(uniquenessIndex.isUsernameTaken(userDto.getUsername())){
             throw new RuntimeException("exist.user.with.same.userName");
         }
+        if(uniquenessIndex.isEmailTaken(userDto.getEmail())){
+            throw new RuntimeException("exist.user.with.same.email");
+        }
         User user = userMapper.toEntity(userDto);
         user.setPassword(passwordEncoder.encode(userDto.getPassword()));
 
@@ -142,30 +158,13 @@ public class UserServiceImpl implements UserService {
 
 
         user.setRole(role);
+        principalCache.invalidate(userDto.getUsername());
 
         User userSaved = userRepo.saveAndFlush(user); // حفظ الـ User أولًا
+        uniquenessIndex.recordUser(userSaved.getUsername(), userSaved.getEmail());
         UserDto response = userMapper.toDto(userSaved);
 
         if (userDto.getPatient() != null) {
-            if (userDto.getPatient().getPatientAge()<12){
-                throw new RuntimeException(("patient.age.required.older.than.0"));
-            }
-            String phone = userDto.getPatient().getPatientPhone();
-
-            String phoneRegex = "^(010|011|012|015)[0-9]{8}$";
-
-            if (!phone.matches(phoneRegex)) {
-                throw new RuntimeException("patient.phone.must.be.valid");
-            }
-            if(Objects.nonNull(userDto.getPatient().getPatientId())){
-                throw new RuntimeException(("patient.id.notRequired"));
-            }
-            if(Objects.isNull(userDto.getPatient().getPatientName())){
-                throw new RuntimeException(("patient.name.Required"));
-            }
-            if(userDto.getPatient().getPatientStatus()==null){
-                throw new RuntimeException(("patient.status.required"));
-            }
             Patient patient = new Patient();
             patient.setPatientName(userDto.getPatient().getPatientName());
             patient.setPatientPhone(userDto.getPatient().getPatientPhone());
@@ -176,17 +175,7 @@ public class UserServiceImpl implements UserService {
             Patient savedPatient = patientService.addPatientEntity(patient);
             response.setPatient(patientMapper.toDto(savedPatient));
         }
-        if(userDto.getDoctor() != null) {
-            System.out.println("Working Days from JSON = " + userDto.getDoctor().getWorkingDays());
-            if (userDto.getDoctor().getWorkingDays() == null || userDto.getDoctor().getWorkingDays().isEmpty()) {
-                throw new RuntimeException("doctor.workingDays.Required");
-            }
-            Doctor doctor = new Doctor();
-            doctor.setDoctorName(userDto.getDoctor().getDoctorName());
-            doctor.setDoctorPhone(userDto.getDoctor().getDoctorPhone());
-            doctor.setAttendTime(userDto.getDoctor().getAttendTime());
-            doctor.setLeaveTime(userDto.getDoctor().getLeaveTime());
-            doctor.setWorkingDays(userDto.getDoctor().getWorkingDays());
+        if(doctor != null) {
             doctor.setUser(userSaved);
             Doctor savedDoctor = doctorService.addDoctorEntity(doctor);
             response.setDoctor(doctorMapper.toDto(savedDoctor));
@@ -207,15 +196,39 @@ public class UserServiceImpl implements UserService {
     @Override
     public List<UserDto> getAllUsers() {
         return userRepo.findAll().stream()
-                .map(userMapper::toDto)
+                .map(this::toListedUser)
                 .toList();
     }
 
+    @Override
+    public CursorPageDto<UserDto> getUsersPage(String role, String sort, String cursor, Integer size) {
+        int limit = PageCursor.resolveSize(size);
+        Long lastId = PageCursor.decodeId(cursor);
+        List<User> rows = PageCursor.isDescending(sort, "id")
+                ? userRepo.findPageBefore(lastId == null ? Long.MAX_VALUE : lastId, role, PageCursor.firstRows(limit))
+                : userRepo.findPageAfter(lastId == null ? 0L : lastId, role, PageCursor.firstRows(limit));
+        return PageCursor.page(rows, limit, this::toListedUser, user -> PageCursor.encodeId(user.getUserId()));
+    }
+
+    // lists never carry password hashes
+    private UserDto toListedUser(User user) {
+        UserDto userDto = userMapper.toDto(user);
+        userDto.setPassword(null);
+        return userDto;
+    }
+
     @Override
     public void deleteUser(Long id) {
         if (!userRepo.existsById(id)) {
             throw new RuntimeException("User not found");
         }
         userRepo.deleteById(id);
+        tokenVersionRegistry.remove(id);
+        refreshTokenHandler.revokeUser(id);
+        principalCache.invalidateUser(id);
+        // the user may have been a doctor
+        doctorAvailabilityIndex.invalidate();
+        doctorDirectoryCache.invalidate();
+        summaryCounters.markStale();
     }
 }
@@ -0,0 +1,65 @@
+package com.spring.boot.config.cache;
+
+import com.spring.boot.model.Doctor;
+import com.spring.boot.model.DoctorScheduleException;
+import com.spring.boot.repo.DoctorScheduleExceptionRepo;
+import com.spring.boot.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EffectiveScheduleCacheTest {
+
+    @Autowired
+    private EffectiveScheduleCache effectiveScheduleCache;
+    @Autowired
+    private DoctorScheduleExceptionRepo scheduleExceptionRepo;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void weeklyHoursComeFromTheDoctorPassedIn() {
+        Doctor doctor = fixtures.doctor();
+        LocalDate date = LocalDate.now().plusDays(3);
+        assertEquals(new EffectiveScheduleCache.WorkingHours(LocalTime.of(8, 0), LocalTime.of(20, 0)),
+                effectiveScheduleCache.hoursOn(doctor, date));
+
+        // a fresher copy of the doctor, as read under its row lock, without invalidating the cache
+        doctor.setAttendTime(LocalTime.of(10, 0));
+        assertEquals(new EffectiveScheduleCache.WorkingHours(LocalTime.of(10, 0), LocalTime.of(20, 0)),
+                effectiveScheduleCache.hoursOn(doctor, date));
+        doctor.setWorkingDays(List.of());
+        assertNull(effectiveScheduleCache.hoursOn(doctor, date));
+    }
+
+    @Test
+    void exceptionsOverrideTheWeeklyHours() {
+        Doctor doctor = fixtures.doctor();
+        LocalDate date = LocalDate.now().plusDays(4);
+        effectiveScheduleCache.hoursOn(doctor, date);
+
+        DoctorScheduleException exception = new DoctorScheduleException();
+        exception.setDoctor(doctor);
+        exception.setExceptionDate(date);
+        exception.setAvailable(true);
+        exception.setAttendTime(LocalTime.of(12, 0));
+        exception.setLeaveTime(LocalTime.of(14, 0));
+        scheduleExceptionRepo.save(exception);
+        effectiveScheduleCache.invalidate(doctor.getDoctorId());
+
+        assertEquals(new EffectiveScheduleCache.WorkingHours(LocalTime.of(12, 0), LocalTime.of(14, 0)),
+                effectiveScheduleCache.hoursOn(doctor, date));
+        assertEquals(new EffectiveScheduleCache.WorkingHours(LocalTime.of(8, 0), LocalTime.of(20, 0)),
+                effectiveScheduleCache.hoursOn(doctor, date.plusDays(1)));
+    }
+}
@@ -0,0 +1,57 @@
+package com.spring.boot.config.cache;
+
+import com.spring.boot.dto.UserDto;
+import com.spring.boot.helper.PrincipalCacheProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PrincipalCacheTest {
+
+    @Test
+    void theLeastRecentlyUsedPrincipalIsDroppedWhenFull() {
+        PrincipalCache cache = cache(2);
+        cache.get("a", this::user);
+        cache.get("b", this::user);
+        cache.get("a", this::user);
+        cache.get("c", this::user);
+
+        UserDto a = cache.get("a", username -> null);
+        assertEquals("a", a.getUsername());
+        UserDto reloaded = user("b");
+        assertSame(reloaded, cache.get("b", username -> reloaded));
+        assertEquals(2, cache.getStats().getSize());
+    }
+
+    @Test
+    void aLoadThatRacedWithAnInvalidationIsReturnedButNotKept() {
+        PrincipalCache cache = cache(10);
+        UserDto stale = cache.get("a", username -> {
+            // the user is edited while the old row is being loaded
+            cache.invalidateUser(1L);
+            return user(username);
+        });
+        assertEquals("a", stale.getUsername());
+
+        UserDto fresh = user("a");
+        assertSame(fresh, cache.get("a", username -> fresh));
+        assertSame(fresh, cache.get("a", username -> user(username)));
+    }
+
+    private static PrincipalCache cache(int maxSize) {
+        PrincipalCacheProperties properties = new PrincipalCacheProperties();
+        properties.setTtl(Duration.ofMinutes(5));
+        properties.setMaxSize(maxSize);
+        return new PrincipalCache(properties);
+    }
+
+    private UserDto user(String username) {
+        UserDto user = new UserDto();
+        user.setUserId(1L);
+        user.setUsername(username);
+        return user;
+    }
+}
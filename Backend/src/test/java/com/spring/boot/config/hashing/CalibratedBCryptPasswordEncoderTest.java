@@ -0,0 +1,26 @@
+package com.spring.boot.config.hashing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CalibratedBCryptPasswordEncoderTest {
+
+    @Test
+    void calibrationNeverGoesBelowTheFloor() {
+        assertEquals(10, CalibratedBCryptPasswordEncoder.calibrate(Duration.ofNanos(1)).getStrength());
+    }
+
+    @Test
+    void hashesWithAnotherCostNeedAnUpgrade() {
+        CalibratedBCryptPasswordEncoder encoder = new CalibratedBCryptPasswordEncoder(10);
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertFalse(encoder.upgradeEncoding("not-a-bcrypt-hash"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.spring.boot.config.jwt;
+
+import com.spring.boot.dto.UserDto;
+import com.spring.boot.helper.JwtToken;
+import com.spring.boot.model.User;
+import com.spring.boot.service.UserService;
+import com.spring.boot.support.TestFixtures;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Tokens minted and validated on many threads at once, for distinct users: each
+ * token must name its own user and carry only that user's claims.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TokenHandlerTest {
+
+    private static final int USERS = 32;
+    private static final int ROUNDS = 20;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private TokenHandler tokenHandler;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JwtToken jwtToken;
+
+    @Test
+    void tokensMintedConcurrentlyCarryOnlyTheirOwnUser() throws Exception {
+        List<UserDto> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = i % 2 == 0 ? fixtures.doctorUser(fixtures.doctor()) : fixtures.patientUser(fixtures.patient());
+            users.add(userService.getUserByUsername(user.getUsername()));
+        }
+        JwtParser parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(jwtToken.getSecret().getBytes(StandardCharsets.UTF_8)))
+                .build();
+
+        List<String> tokens = concurrently(USERS * ROUNDS, i -> tokenHandler.createToken(users.get(i % USERS)));
+        for (int i = 0; i < tokens.size(); i++) {
+            UserDto expected = users.get(i % USERS);
+            Claims claims = parser.parseClaimsJws(tokens.get(i)).getBody();
+            assertEquals(expected.getUsername(), claims.getSubject());
+            assertEquals(expected.getUserId(), claims.get("uid", Long.class));
+            assertEquals(expected.getRole(), claims.get("role", String.class));
+            assertEquals(expected.getDoctor() == null ? null : expected.getDoctor().getDoctorId(), claims.get("doctorId", Long.class));
+            assertEquals(expected.getPatient() == null ? null : expected.getPatient().getPatientId(), claims.get("patientId", Long.class));
+        }
+
+        List<UserDto> principals = concurrently(tokens.size(), i -> tokenHandler.validateToken(tokens.get(i)));
+        for (int i = 0; i < principals.size(); i++) {
+            UserDto expected = users.get(i % USERS);
+            assertNotNull(principals.get(i));
+            assertEquals(expected.getUsername(), principals.get(i).getUsername());
+            assertEquals(expected.getUserId(), principals.get(i).getUserId());
+        }
+    }
+
+    // runs call(0 .. count - 1) on THREADS threads released together, results in index order
+    private <T> List<T> concurrently(int count, IntFunction<T> call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return call.apply(index);
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
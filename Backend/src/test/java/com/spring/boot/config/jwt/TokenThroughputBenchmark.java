@@ -0,0 +1,90 @@
+package com.spring.boot.config.jwt;
+
+import com.spring.boot.dto.UserDto;
+import com.spring.boot.model.User;
+import com.spring.boot.service.UserService;
+import com.spring.boot.support.TestFixtures;
+import com.spring.boot.support.Throughput;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * createToken and validateToken calls per second at 1 to 64 threads. Neither holds
+ * shared mutable state, so both should scale with the cores until they run out.
+ * Validation is measured with the principal cache warm, as on a busy node.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class TokenThroughputBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenThroughputBenchmark.class);
+
+    private static final int OPERATIONS = 20_000;
+    private static final int USERS = 64;
+
+    @Autowired
+    private TokenHandler tokenHandler;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void createAndValidate() throws Exception {
+        List<UserDto> users = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = i % 2 == 0 ? fixtures.doctorUser(fixtures.doctor()) : fixtures.patientUser(fixtures.patient());
+            UserDto userDto = userService.getUserByUsername(user.getUsername());
+            users.add(userDto);
+            tokens.add(tokenHandler.createToken(userDto));
+        }
+        // warm up both paths and the principal cache before measuring
+        create(8, users);
+        validate(8, tokens);
+
+        log.info("threads | createToken/s | validateToken/s");
+        double createdAlone = 0;
+        double createdAtMost = 0;
+        for (int threads : Throughput.THREADS) {
+            double created = create(threads, users);
+            double validated = validate(threads, tokens);
+            if (threads == 1) {
+                createdAlone = created;
+            }
+            createdAtMost = Math.max(createdAtMost, created);
+            log.info(String.format("%7d | %13.0f | %15.0f", threads, created, validated));
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (cores >= 4) {
+            assertTrue(createdAtMost > createdAlone * 1.5,
+                    "createToken peaked at " + createdAtMost + "/s, one thread reached " + createdAlone + "/s");
+        } else {
+            log.info("{} core(s): scaling across threads not asserted", cores);
+        }
+    }
+
+    private double create(int threads, List<UserDto> users) throws Exception {
+        return Throughput.perSecond(threads, OPERATIONS, i -> tokenHandler.createToken(users.get(i % USERS)));
+    }
+
+    private double validate(int threads, List<String> tokens) throws Exception {
+        return Throughput.perSecond(threads, OPERATIONS, i -> {
+            if (tokenHandler.validateToken(tokens.get(i % USERS)) == null) {
+                throw new IllegalStateException("token " + i % USERS + " was refused");
+            }
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package com.spring.boot.config.security;
+
+import com.spring.boot.config.jwt.TokenHandler;
+import com.spring.boot.model.Doctor;
+import com.spring.boot.model.Patient;
+import com.spring.boot.model.User;
+import com.spring.boot.service.UserService;
+import com.spring.boot.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A PATIENT or DOCTOR token reaches its own records and is refused on another
+ * patient's or doctor's, through the real filter chain and method security.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OwnershipGuardTest {
+
+    private static final String[] PATIENT_PATHS = {
+            "/appointment/patient/{id}",
+            "/prescriptions/patient/{id}",
+            "/patient/{id}/home"
+    };
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private TokenHandler tokenHandler;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void patientTokenIsRefusedOnAnotherPatient() throws Exception {
+        Patient patient = fixtures.patient();
+        Patient otherPatient = fixtures.patient();
+        String token = tokenOf(fixtures.patientUser(patient));
+        fixtures.patientUser(otherPatient);
+
+        for (String path : PATIENT_PATHS) {
+            expect(path, patient.getPatientId(), token, status().isOk());
+            expect(path, otherPatient.getPatientId(), token, status().isForbidden());
+        }
+    }
+
+    @Test
+    void doctorTokenIsRefusedOnAnotherDoctorsDashboard() throws Exception {
+        Doctor doctor = fixtures.doctor();
+        Doctor otherDoctor = fixtures.doctor();
+        String token = tokenOf(fixtures.doctorUser(doctor));
+        fixtures.doctorUser(otherDoctor);
+
+        expect("/doctor/{id}/dashboard", doctor.getDoctorId(), token, status().isOk());
+        expect("/doctor/{id}/dashboard", otherDoctor.getDoctorId(), token, status().isForbidden());
+    }
+
+    private void expect(String path, Long id, String token, ResultMatcher outcome) throws Exception {
+        mockMvc.perform(get(path, id).header("Authorization", "Bearer " + token)).andExpect(outcome);
+    }
+
+    private String tokenOf(User user) {
+        return tokenHandler.createToken(userService.getUserByUsername(user.getUsername()));
+    }
+}
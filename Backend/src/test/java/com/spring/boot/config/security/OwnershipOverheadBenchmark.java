@@ -0,0 +1,127 @@
+package com.spring.boot.config.security;
+
+import com.spring.boot.config.filter.AuthFilter;
+import com.spring.boot.config.jwt.TokenHandler;
+import com.spring.boot.model.Patient;
+import com.spring.boot.model.User;
+import com.spring.boot.service.UserService;
+import com.spring.boot.support.TestFixtures;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * What the token check in {@link AuthFilter} and an {@link OwnershipGuard} check
+ * cost per request, against a whole request to an ownership-protected endpoint
+ * ({@code /patient/{id}/home}). The guard compares ids carried by the token, so it
+ * should be a vanishing share of the request. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OwnershipOverheadBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(OwnershipOverheadBenchmark.class);
+
+    private static final int CALLS = 200_000;
+    private static final int REQUESTS = 2_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AuthFilter authFilter;
+    @Autowired
+    private OwnershipGuard ownershipGuard;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private TokenHandler tokenHandler;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void guardAndFilterAgainstAWholeRequest() throws Exception {
+        Patient patient = fixtures.patient();
+        User user = fixtures.patientUser(patient);
+        String bearer = "Bearer " + tokenHandler.createToken(userService.getUserByUsername(user.getUsername()));
+        String home = "/patient/" + patient.getPatientId() + "/home";
+
+        IntConsumer guard = i -> {
+            if (!ownershipGuard.isPatient(patient.getPatientId())) {
+                throw new IllegalStateException("own patient refused");
+            }
+        };
+        IntConsumer filter = i -> {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", home);
+            request.addHeader("Authorization", bearer);
+            try {
+                authFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+        IntConsumer request = i -> {
+            try {
+                mockMvc.perform(get(home).header("Authorization", bearer)).andExpect(status().isOk());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+
+        // the guard reads the caller from this thread's security context
+        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(user.getUsername(), null,
+                List.of(new SimpleGrantedAuthority("ROLE_PATIENT")));
+        auth.setDetails(new CallerIdentity(user.getUserId(), null, patient.getPatientId()));
+
+        // warm up every path before measuring
+        microsPerCall(REQUESTS, request);
+        microsPerCall(CALLS / 10, filter);
+        SecurityContextHolder.getContext().setAuthentication(auth);
+        double guardMicros;
+        try {
+            microsPerCall(CALLS, guard);
+            guardMicros = microsPerCall(CALLS, guard);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        double filterMicros = microsPerCall(CALLS / 10, filter);
+        double requestMicros = microsPerCall(REQUESTS, request);
+
+        log.info("check | us per call | share of a request");
+        log.info(String.format("ownership guard | %11.3f | %6.3f%%", guardMicros, 100 * guardMicros / requestMicros));
+        log.info(String.format("auth filter     | %11.3f | %6.3f%%", filterMicros, 100 * filterMicros / requestMicros));
+        log.info(String.format("whole request   | %11.3f |", requestMicros));
+        assertTrue(guardMicros < requestMicros / 100,
+                "ownership guard took " + guardMicros + "us of a " + requestMicros + "us request");
+    }
+
+    // on this thread, where the security context is set
+    private double microsPerCall(int calls, IntConsumer call) {
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            call.accept(i);
+        }
+        return (System.nanoTime() - start) / 1e3 / calls;
+    }
+}
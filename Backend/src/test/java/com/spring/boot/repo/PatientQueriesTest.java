@@ -0,0 +1,80 @@
+package com.spring.boot.repo;
+
+import com.spring.boot.helper.PageCursor;
+import com.spring.boot.model.Patient;
+import com.spring.boot.support.TestFixtures;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PatientQueriesTest {
+
+    @Autowired
+    private PatientRepo patientRepo;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void streamByStatusFetchesTheUserAndFiltersOnlyWhenAsked() {
+        Patient patient = fixtures.patient();
+        patient.setPatientStatus("stream-" + TestFixtures.next());
+        patientRepo.save(patient);
+        fixtures.patientUser(patient);
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            try (Stream<Patient> rows = patientRepo.streamByStatus(patient.getPatientStatus())) {
+                List<Patient> found = rows.toList();
+                assertEquals(List.of(patient.getPatientId()), found.stream().map(Patient::getPatientId).toList());
+                assertTrue(Hibernate.isInitialized(found.get(0).getUser()));
+            }
+            try (Stream<Patient> rows = patientRepo.streamByStatus(null)) {
+                assertTrue(rows.anyMatch(p -> p.getPatientId().equals(patient.getPatientId())));
+            }
+        });
+    }
+
+    @Test
+    void pagesApplyOnlyTheFiltersGiven() {
+        String status = "page-" + TestFixtures.next();
+        Patient first = withStatus(status, "female");
+        Patient second = withStatus(status, "male");
+        Patient third = withStatus(status, "female");
+
+        assertEquals(ids(first, second, third),
+                ids(patientRepo.findPageAfter(0L, status, null, null, PageRequest.of(0, 10))));
+        assertEquals(ids(third, first),
+                ids(patientRepo.findPageBefore(Long.MAX_VALUE, status, "female", null, PageRequest.of(0, 10))));
+        assertEquals(ids(second),
+                ids(patientRepo.findPageAfter(first.getPatientId(), status, null, PageCursor.prefix("Patient"), PageRequest.of(0, 1))));
+        assertTrue(patientRepo.findPageAfter(0L, status, null, PageCursor.prefix("Patient_"), PageRequest.of(0, 10)).isEmpty());
+    }
+
+    private Patient withStatus(String status, String gender) {
+        Patient patient = fixtures.patient();
+        patient.setPatientStatus(status);
+        patient.setPatientGender(gender);
+        return patientRepo.save(patient);
+    }
+
+    private static List<Long> ids(Patient... patients) {
+        return ids(List.of(patients));
+    }
+
+    private static List<Long> ids(List<Patient> patients) {
+        return patients.stream().map(Patient::getPatientId).toList();
+    }
+}
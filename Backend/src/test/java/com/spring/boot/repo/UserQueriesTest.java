@@ -0,0 +1,43 @@
+package com.spring.boot.repo;
+
+import com.spring.boot.model.Doctor;
+import com.spring.boot.model.User;
+import com.spring.boot.support.TestFixtures;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserQueriesTest {
+
+    @Autowired
+    private UserRepo userRepo;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void pagesFilterByRoleOnlyWhenGiven() {
+        User patientUser = fixtures.patientUser(fixtures.patient());
+        Doctor doctor = fixtures.doctor();
+        User doctorUser = fixtures.doctorUser(doctor);
+        User lastUser = fixtures.patientUser(fixtures.patient());
+
+        List<User> doctors = userRepo.findPageAfter(patientUser.getUserId(), "DOCTOR", PageRequest.of(0, 10));
+        assertEquals(doctorUser.getUserId(), doctors.get(0).getUserId());
+        assertTrue(doctors.stream().allMatch(u -> u.getRole().equals("DOCTOR")));
+        assertTrue(Hibernate.isInitialized(doctors.get(0).getDoctor()));
+        assertEquals(doctor.getDoctorId(), doctors.get(0).getDoctor().getDoctorId());
+
+        assertEquals(List.of(doctorUser.getUserId(), patientUser.getUserId()),
+                userRepo.findPageBefore(lastUser.getUserId(), null, PageRequest.of(0, 2)).stream().map(User::getUserId).toList());
+    }
+}
@@ -0,0 +1,151 @@
+package com.spring.boot.service.impl;
+
+import com.spring.boot.dto.AppointmentDto;
+import com.spring.boot.model.Appointment;
+import com.spring.boot.model.Doctor;
+import com.spring.boot.model.Patient;
+import com.spring.boot.repo.AppointmentRepo;
+import com.spring.boot.service.AppointmentService;
+import com.spring.boot.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bookings for one doctor race for overlapping slots; the per-doctor lock and the
+ * recheck under the row lock must let exactly one of them through.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingConcurrencyTest {
+
+    private static final int RACERS = 8;
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private AppointmentRepo appointmentRepo;
+
+    @Test
+    void onlyOneOfManyOverlappingBookingsWins() throws Exception {
+        Doctor doctor = fixtures.doctor();
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < RACERS; i++) {
+            patients.add(fixtures.patient());
+        }
+        // 30-minute bookings starting two minutes apart all overlap each other, and their
+        // start times differ, so the unique (doctor, date) constraint cannot settle them
+        LocalDateTime first = LocalDate.now().plusDays(3).atTime(10, 0);
+
+        ExecutorService pool = Executors.newFixedThreadPool(RACERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < RACERS; i++) {
+                AppointmentDto booking = new AppointmentDto(null, null, doctor.getDoctorName(),
+                        patients.get(i).getPatientName(), first.plusMinutes(2L * i), 30, null);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        appointmentService.addAppointment(booking);
+                        return true;
+                    } catch (RuntimeException refused) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int won = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    won++;
+                }
+            }
+            assertEquals(1, won);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long stored = appointmentRepo.findByDoctorDoctorIdAndAppointmentDateBetween(doctor.getDoctorId(),
+                first.toLocalDate().atStartOfDay(), first.toLocalDate().atTime(23, 59, 59)).size();
+        assertEquals(1, stored);
+    }
+
+    @Test
+    void bookingsForDifferentDoctorsDoNotBlockEachOther() throws Exception {
+        List<Doctor> doctors = new ArrayList<>();
+        for (int i = 0; i < RACERS; i++) {
+            doctors.add(fixtures.doctor());
+        }
+        Patient[] patients = new Patient[RACERS];
+        for (int i = 0; i < RACERS; i++) {
+            patients[i] = fixtures.patient();
+        }
+        LocalDateTime at = LocalDate.now().plusDays(4).atTime(11, 0);
+
+        ExecutorService pool = Executors.newFixedThreadPool(RACERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < RACERS; i++) {
+                AppointmentDto booking = new AppointmentDto(null, null, doctors.get(i).getDoctorName(),
+                        patients[i].getPatientName(), at, 30, null);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    appointmentService.addAppointment(booking);
+                    return true;
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void recheckUnderTheLockSeesRowsTheIndexMissed() {
+        Doctor doctor = fixtures.doctor();
+        Doctor otherDoctor = fixtures.doctor();
+        Patient patient = fixtures.patient();
+        Patient otherPatient = fixtures.patient();
+        LocalDateTime at = LocalDate.now().plusDays(5).atTime(14, 0);
+        // load both days into the index, then write behind its back as another node would
+        appointmentService.addAppointment(new AppointmentDto(null, null, doctor.getDoctorName(),
+                patient.getPatientName(), at.minusHours(4), 30, null));
+        Appointment elsewhere = new Appointment();
+        elsewhere.setDoctor(doctor);
+        elsewhere.setPatient(patient);
+        elsewhere.setPatientName(patient.getPatientName());
+        elsewhere.setAppointmentDate(at);
+        elsewhere.setDurationMinutes(30);
+        appointmentRepo.save(elsewhere);
+
+        RuntimeException doctorBusy = assertThrows(RuntimeException.class, () -> appointmentService.addAppointment(
+                new AppointmentDto(null, null, doctor.getDoctorName(), otherPatient.getPatientName(), at.plusMinutes(10), 30, null)));
+        assertEquals("doctor.hasAppointmentTooClose", doctorBusy.getMessage());
+        RuntimeException patientBusy = assertThrows(RuntimeException.class, () -> appointmentService.addAppointment(
+                new AppointmentDto(null, null, otherDoctor.getDoctorName(), patient.getPatientName(), at.plusMinutes(20), 30, null)));
+        assertEquals("patient.hasOverlappingAppointment", patientBusy.getMessage());
+    }
+}
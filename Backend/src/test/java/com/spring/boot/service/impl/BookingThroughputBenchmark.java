@@ -0,0 +1,156 @@
+package com.spring.boot.service.impl;
+
+import com.spring.boot.config.lock.DoctorBookingLocks;
+import com.spring.boot.dto.AppointmentDto;
+import com.spring.boot.model.Doctor;
+import com.spring.boot.model.Patient;
+import com.spring.boot.service.AppointmentService;
+import com.spring.boot.support.TestFixtures;
+import com.spring.boot.support.Throughput;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Bookings per second when every thread books the same doctor against when the
+ * threads spread over many doctors, at 1 to 64 threads. With one doctor the
+ * bookings queue on that doctor's lock, so its rate is the inverse of the time the
+ * lock is held; many doctors should scale past it unless something global
+ * serializes them. The time each booking holds the doctor's lock is measured
+ * directly, since on a machine with few cores the rates alone cannot show it.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingThroughputBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingThroughputBenchmark.class);
+
+    private static final int BOOKINGS = 384;
+    private static final int MANY_DOCTORS = 64;
+    private static final int SLOT_MINUTES = 10;
+    // 8:00 to 20:00 in 10-minute slots
+    private static final int SLOTS_PER_DAY = 72;
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private TestFixtures fixtures;
+    @MockitoSpyBean
+    private DoctorBookingLocks doctorBookingLocks;
+
+    private final LongAdder heldNanos = new LongAdder();
+    private final LongAdder holds = new LongAdder();
+
+    @Test
+    void manyDoctorsAgainstOneDoctor() throws Exception {
+        doAnswer(invocation -> new TimedLock((Lock) invocation.callRealMethod()))
+                .when(doctorBookingLocks).lock(any());
+        // warm up both paths before measuring
+        run(8, 1);
+        run(8, MANY_DOCTORS);
+
+        log.info("threads | 1 doctor bookings/s | {} doctors bookings/s | ratio | lock held ms (1 doctor)", MANY_DOCTORS);
+        double oneAtMost = 0;
+        double manyAtMost = 0;
+        for (int threads : Throughput.THREADS) {
+            heldNanos.reset();
+            holds.reset();
+            double one = run(threads, 1);
+            double heldMillis = heldNanos.sum() / 1e6 / holds.sum();
+            double many = run(threads, MANY_DOCTORS);
+            oneAtMost = Math.max(oneAtMost, one);
+            manyAtMost = Math.max(manyAtMost, many);
+            log.info(String.format("%7d | %19.0f | %20.0f | %5.2f | %.2f", threads, one, many, many / one, heldMillis));
+        }
+        // a lock shared by all doctors would hold both at the same ceiling; with few
+        // cores the database work alone sets that ceiling, so there is nothing to compare
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (cores >= 4) {
+            assertTrue(manyAtMost > oneAtMost * 1.5,
+                    "many doctors peaked at " + manyAtMost + "/s, one doctor at " + oneAtMost + "/s");
+        } else {
+            log.info("{} core(s): scaling across doctors not asserted", cores);
+        }
+    }
+
+    // every booking succeeds: doctor i % n, its own patient, and a slot nobody else takes
+    private double run(int threads, int doctorCount) throws Exception {
+        List<Doctor> doctors = new ArrayList<>();
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < doctorCount; i++) {
+            doctors.add(fixtures.doctor());
+            patients.add(fixtures.patient());
+        }
+        LocalDateTime firstSlot = LocalDate.now().plusDays(1).atTime(8, 0);
+        return Throughput.perSecond(threads, BOOKINGS, i -> {
+            int doctor = i % doctorCount;
+            int slot = i / doctorCount;
+            LocalDateTime at = firstSlot.plusDays(slot / SLOTS_PER_DAY).plusMinutes((long) (slot % SLOTS_PER_DAY) * SLOT_MINUTES);
+            appointmentService.addAppointment(new AppointmentDto(null, null, doctors.get(doctor).getDoctorName(),
+                    patients.get(doctor).getPatientName(), at, SLOT_MINUTES, null));
+        });
+    }
+
+    // the doctor's lock, timed from acquisition to release
+    private final class TimedLock implements Lock {
+
+        private final Lock lock;
+        private final long acquiredAt = System.nanoTime();
+
+        private TimedLock(Lock lock) {
+            this.lock = lock;
+        }
+
+        @Override
+        public void unlock() {
+            heldNanos.add(System.nanoTime() - acquiredAt);
+            holds.increment();
+            lock.unlock();
+        }
+
+        @Override
+        public void lock() {
+            lock.lock();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            lock.lockInterruptibly();
+        }
+
+        @Override
+        public boolean tryLock() {
+            return lock.tryLock();
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            return lock.tryLock(time, unit);
+        }
+
+        @Override
+        public Condition newCondition() {
+            return lock.newCondition();
+        }
+    }
+}
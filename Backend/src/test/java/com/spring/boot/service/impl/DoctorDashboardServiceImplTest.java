@@ -0,0 +1,62 @@
+package com.spring.boot.service.impl;
+
+import com.spring.boot.dto.PatientDto;
+import com.spring.boot.model.Appointment;
+import com.spring.boot.model.Doctor;
+import com.spring.boot.model.Patient;
+import com.spring.boot.repo.AppointmentRepo;
+import com.spring.boot.service.DoctorDashboardService;
+import com.spring.boot.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DoctorDashboardServiceImplTest {
+
+    @Autowired
+    private DoctorDashboardService doctorDashboardService;
+    @Autowired
+    private AppointmentRepo appointmentRepo;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void patientsAreListedLatestAppointmentFirstAndTheCapKeepsTheLatest() {
+        Doctor doctor = fixtures.doctor();
+        Patient seenLongAgo = fixtures.patient();
+        Patient seenLastWeek = fixtures.patient();
+        Patient comingTomorrow = fixtures.patient();
+        LocalDate today = LocalDate.now();
+        book(doctor, seenLastWeek, today.minusDays(7).atTime(9, 0));
+        book(doctor, comingTomorrow, today.minusDays(60).atTime(9, 0));
+        book(doctor, comingTomorrow, today.plusDays(1).atTime(9, 0));
+        book(doctor, seenLongAgo, today.minusDays(90).atTime(9, 0));
+
+        assertEquals(List.of(comingTomorrow.getPatientId(), seenLastWeek.getPatientId(), seenLongAgo.getPatientId()),
+                doctorDashboardService.getDashboard(doctor.getDoctorId(), null).getPatients().stream()
+                        .map(PatientDto::getPatientId).toList());
+        assertEquals(List.of(comingTomorrow.getPatientId(), seenLastWeek.getPatientId()),
+                appointmentRepo.findPatientVersions(doctor.getDoctorId(), PageRequest.of(0, 2)).stream()
+                        .map(version -> (Long) version[0]).toList());
+    }
+
+    private void book(Doctor doctor, Patient patient, LocalDateTime at) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setPatientName(patient.getPatientName());
+        appointment.setAppointmentDate(at);
+        appointment.setDurationMinutes(30);
+        appointmentRepo.save(appointment);
+    }
+}
@@ -0,0 +1,118 @@
+package com.spring.boot.service.impl;
+
+import com.spring.boot.config.cache.AppointmentIntervalIndex;
+import com.spring.boot.dto.FreeSlotDto;
+import com.spring.boot.model.Appointment;
+import com.spring.boot.model.Doctor;
+import com.spring.boot.model.Patient;
+import com.spring.boot.repo.AppointmentRepo;
+import com.spring.boot.service.SlotService;
+import com.spring.boot.support.TestFixtures;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A 30-day free-slot search over a doctor booked solid except for the last hour
+ * of the last day, so the search walks every day before it finds anything. Timed
+ * with the interval index cold (one range query for the 30 days) and warm; both
+ * must stay in single-digit milliseconds. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class SlotSearchBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotSearchBenchmark.class);
+
+    private static final int DAYS = 30;
+    private static final int SLOT_MINUTES = 10;
+    private static final int COLD_RUNS = 50;
+    private static final int WARM_RUNS = 500;
+    private static final int WARM_UP_ROUNDS = 3;
+
+    @Autowired
+    private SlotService slotService;
+    @Autowired
+    private AppointmentRepo appointmentRepo;
+    @Autowired
+    private AppointmentIntervalIndex appointmentIntervalIndex;
+    @Autowired
+    private TestFixtures fixtures;
+
+
+    @Test
+    void thirtyDaysOverABusyDoctor() {
+        // 8:00 to 20:00 every day, booked in 10-minute appointments up to 19:00 on the last day
+        Doctor doctor = fixtures.doctor();
+        Patient patient = fixtures.patient();
+        LocalDate first = LocalDate.now().plusDays(1);
+        LocalDate last = first.plusDays(DAYS - 1);
+        List<Appointment> appointments = new ArrayList<>();
+        for (LocalDateTime at = first.atTime(8, 0); at.isBefore(last.atTime(19, 0)); at = at.plusMinutes(SLOT_MINUTES)) {
+            if (at.getHour() >= 8 && at.getHour() < 20) {
+                appointments.add(appointment(doctor, patient, at));
+            }
+        }
+        appointmentRepo.saveAll(appointments);
+        Long doctorId = doctor.getDoctorId();
+
+        List<FreeSlotDto> slots = slotService.findFreeSlots(doctorId, first, last, 2, 30);
+        assertEquals(List.of(last.atTime(19, 0), last.atTime(19, 30)),
+                slots.stream().map(FreeSlotDto::getAppointmentDate).toList());
+
+        // the first rounds only warm up the JIT
+        double[] cold = new double[COLD_RUNS];
+        double[] warm = new double[WARM_RUNS];
+        for (int round = 0; round < WARM_UP_ROUNDS + 1; round++) {
+            for (int i = 0; i < COLD_RUNS; i++) {
+                appointmentIntervalIndex.invalidateDoctor(doctorId);
+                cold[i] = millis(() -> slotService.findFreeSlots(doctorId, first, last, 2, 30));
+            }
+            for (int i = 0; i < WARM_RUNS; i++) {
+                warm[i] = millis(() -> slotService.findFreeSlots(doctorId, first, last, 2, 30));
+            }
+        }
+
+        log.info("{} appointments over {} days | median ms | p90 ms", appointments.size(), DAYS);
+        log.info(String.format("cold index | %9.3f | %6.3f", percentile(cold, 50), percentile(cold, 90)));
+        log.info(String.format("warm index | %9.3f | %6.3f", percentile(warm, 50), percentile(warm, 90)));
+        assertTrue(percentile(cold, 50) < 10, "cold search took " + percentile(cold, 50) + " ms");
+        assertTrue(percentile(warm, 50) < 10, "warm search took " + percentile(warm, 50) + " ms");
+    }
+
+    private static Appointment appointment(Doctor doctor, Patient patient, LocalDateTime at) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setPatientName(patient.getPatientName());
+        appointment.setAppointmentDate(at);
+        appointment.setDurationMinutes(SLOT_MINUTES);
+        return appointment;
+    }
+
+    private static double millis(Runnable search) {
+        long start = System.nanoTime();
+        search.run();
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    private static double percentile(double[] samples, int percent) {
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percent / 100)];
+    }
+}
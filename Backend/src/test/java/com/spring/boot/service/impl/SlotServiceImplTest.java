@@ -0,0 +1,65 @@
+package com.spring.boot.service.impl;
+
+import com.spring.boot.dto.AppointmentDto;
+import com.spring.boot.dto.FreeSlotDto;
+import com.spring.boot.model.Doctor;
+import com.spring.boot.model.Patient;
+import com.spring.boot.service.AppointmentService;
+import com.spring.boot.service.SlotService;
+import com.spring.boot.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SlotServiceImplTest {
+
+    @Autowired
+    private SlotService slotService;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void slotsAvoidBookedIntervals() {
+        Doctor doctor = fixtures.doctor(LocalTime.of(9, 0), LocalTime.of(17, 0), null);
+        Patient patient = fixtures.patient();
+        LocalDate day = LocalDate.now().plusDays(5);
+        book(doctor, patient, day, LocalTime.of(9, 0));
+
+        List<FreeSlotDto> slots = slotService.findFreeSlots(doctor.getDoctorId(), day, day, 3, 30);
+
+        assertEquals(3, slots.size());
+        // 9:00-9:30 is taken, so the day starts at 9:30
+        assertEquals(day.atTime(9, 30), slots.get(0).getAppointmentDate());
+    }
+
+    @Test
+    void daysAtCapacityAreSkipped() {
+        Doctor doctor = fixtures.doctor(LocalTime.of(9, 0), LocalTime.of(17, 0), 1);
+        Patient patient = fixtures.patient();
+        LocalDate full = LocalDate.now().plusDays(6);
+        book(doctor, patient, full, LocalTime.of(9, 0));
+
+        List<FreeSlotDto> slots = slotService.findFreeSlots(doctor.getDoctorId(), full, full.plusDays(1), 5, 30);
+
+        assertFalse(slots.isEmpty());
+        assertTrue(slots.stream().allMatch(slot -> slot.getAppointmentDate().toLocalDate().equals(full.plusDays(1))));
+    }
+
+    private void book(Doctor doctor, Patient patient, LocalDate day, LocalTime time) {
+        appointmentService.addAppointment(new AppointmentDto(null, null, doctor.getDoctorName(),
+                patient.getPatientName(), day.atTime(time), 30, null));
+    }
+}
@@ -0,0 +1,92 @@
+package com.spring.boot.service.impl;
+
+import com.spring.boot.dto.BulkItemResultDto;
+import com.spring.boot.dto.BulkReportDto;
+import com.spring.boot.dto.DoctorDto;
+import com.spring.boot.dto.UserDto;
+import com.spring.boot.enums.DaysOfWeek;
+import com.spring.boot.service.DoctorService;
+import com.spring.boot.service.UserProvisioningService;
+import com.spring.boot.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserProvisioningServiceImplTest {
+
+    @Autowired
+    private UserProvisioningService userProvisioningService;
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private BundleMessageService bundleMessageService;
+
+    @Test
+    void malformedLineIsReportedUnderItsOwnIndex() throws Exception {
+        String first = patientUser();
+        String second = patientUser();
+        String ndjson = first + "\n{\"username\": \"broken\", \"email\": \n" + second + "\n";
+
+        BulkReportDto report = userProvisioningService.addUsers(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        List<BulkItemResultDto> items = report.getItems();
+        assertEquals(3, items.size());
+        assertEquals(List.of(0, 1, 2), items.stream().map(BulkItemResultDto::getIndex).toList());
+        assertTrue(items.get(0).isSuccess());
+        assertNotNull(items.get(0).getId());
+        assertFalse(items.get(1).isSuccess());
+        assertNull(items.get(1).getReference());
+        assertTrue(items.get(2).isSuccess());
+        assertNotNull(items.get(2).getId());
+    }
+
+    @Test
+    void invalidDoctorIsRefusedAlikeOneByOneAndInBulk() {
+        String reason = "doctor.leaveTime.isn'tAfter.AttendTime";
+        RuntimeException single = assertThrows(RuntimeException.class, () -> doctorService.addDoctor(doctorLeavingEarly()));
+        assertEquals(reason, single.getMessage());
+
+        int n = TestFixtures.next();
+        UserDto userDto = new UserDto();
+        userDto.setUsername("bulk" + n);
+        userDto.setEmail("bulk" + n + "@example.com");
+        userDto.setPassword("pass1234");
+        userDto.setDoctor(doctorLeavingEarly());
+        BulkItemResultDto item = userProvisioningService.addUsers(List.of(userDto)).getItems().get(0);
+        assertFalse(item.isSuccess());
+        assertEquals(bundleMessageService.getMessage(reason).getMessage_en(), item.getError().getMessage_en());
+    }
+
+    private static DoctorDto doctorLeavingEarly() {
+        int n = TestFixtures.next();
+        DoctorDto doctorDto = new DoctorDto();
+        doctorDto.setDoctorName("Bulk Doctor " + n);
+        doctorDto.setDoctorPhone(String.format("015%08d", n));
+        doctorDto.setAttendTime(LocalTime.of(14, 0));
+        doctorDto.setLeaveTime(LocalTime.of(9, 0));
+        doctorDto.setWorkingDays(List.of(DaysOfWeek.values()));
+        return doctorDto;
+    }
+
+    private static String patientUser() {
+        int n = TestFixtures.next();
+        return String.format("{\"username\": \"bulk%d\", \"email\": \"bulk%d@example.com\", \"password\": \"pass1234\", "
+                + "\"patient\": {\"patientName\": \"Bulk Patient %d\", \"patientPhone\": \"012%08d\", "
+                + "\"patientGender\": \"male\", \"patientAge\": 30, \"patientStatus\": \"ok\"}}", n, n, n, n);
+    }
+}
@@ -0,0 +1,94 @@
+package com.spring.boot.support;
+
+import com.spring.boot.enums.DaysOfWeek;
+import com.spring.boot.model.Doctor;
+import com.spring.boot.model.Patient;
+import com.spring.boot.model.User;
+import com.spring.boot.repo.DoctorRepo;
+import com.spring.boot.repo.PatientRepo;
+import com.spring.boot.repo.UserRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Doctors, patients and their users saved straight through the repositories. Names,
+ * phones and usernames come from one sequence, so test classes sharing a context
+ * never collide.
+ */
+@Component
+public class TestFixtures {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final DoctorRepo doctorRepo;
+    private final PatientRepo patientRepo;
+    private final UserRepo userRepo;
+
+    @Autowired
+    public TestFixtures(DoctorRepo doctorRepo, PatientRepo patientRepo, UserRepo userRepo) {
+        this.doctorRepo = doctorRepo;
+        this.patientRepo = patientRepo;
+        this.userRepo = userRepo;
+    }
+
+    public static int next() {
+        return SEQUENCE.incrementAndGet();
+    }
+
+    // works every day from 8:00 to 20:00, without a daily capacity
+    public Doctor doctor() {
+        return doctor(LocalTime.of(8, 0), LocalTime.of(20, 0), null);
+    }
+
+    public Doctor doctor(LocalTime attendTime, LocalTime leaveTime, Integer dailyCapacity) {
+        int n = next();
+        Doctor doctor = new Doctor();
+        doctor.setDoctorName("Doctor " + n);
+        doctor.setDoctorPhone(String.format("010%08d", n));
+        doctor.setAttendTime(attendTime);
+        doctor.setLeaveTime(leaveTime);
+        doctor.setWorkingDays(Arrays.asList(DaysOfWeek.values()));
+        doctor.setDailyCapacity(dailyCapacity);
+        return doctorRepo.save(doctor);
+    }
+
+    public Patient patient() {
+        int n = next();
+        Patient patient = new Patient();
+        patient.setPatientName("Patient " + n);
+        patient.setPatientPhone(String.format("011%08d", n));
+        patient.setPatientGender("male");
+        patient.setPatientAge(30);
+        patient.setPatientStatus("ok");
+        return patientRepo.save(patient);
+    }
+
+    // a DOCTOR user linked to the doctor; tokens are minted directly, so the password is never checked
+    public User doctorUser(Doctor doctor) {
+        User user = user("DOCTOR");
+        doctor.setUser(user);
+        doctorRepo.save(doctor);
+        return user;
+    }
+
+    public User patientUser(Patient patient) {
+        User user = user("PATIENT");
+        patient.setUser(user);
+        patientRepo.save(patient);
+        return user;
+    }
+
+    private User user(String role) {
+        int n = next();
+        User user = new User();
+        user.setUsername("user" + n);
+        user.setEmail("user" + n + "@example.com");
+        user.setPassword("unused");
+        user.setRole(role);
+        return userRepo.save(user);
+    }
+}
@@ -0,0 +1,50 @@
+package com.spring.boot.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs a fixed number of operations on a pool of threads that start together and
+ * reports operations per second. Operation {@code i} is handed its index, so each
+ * can work on its own data; an operation that throws fails the run.
+ */
+public final class Throughput {
+
+    public static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    private Throughput() {
+    }
+
+    public static double perSecond(int threads, int operations, IntConsumer operation) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger next = new AtomicInteger();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = next.getAndIncrement(); i < operations; i = next.getAndIncrement()) {
+                        operation.accept(i);
+                    }
+                    return null;
+                }));
+            }
+            long began = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(5, TimeUnit.MINUTES);
+            }
+            return operations / ((System.nanoTime() - began) / 1e9);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+const API = "http://localhost:8080";
+
+let fetchWithoutRefresh: typeof fetch = window.fetch.bind(window);
+
+// one refresh at a time; requests that fail with 401 while it runs wait for the same result
+let pendingRefresh: Promise<string | null> | null = null;
+
+async function refreshAccessToken(): Promise<string | null> {
+  const refreshToken = localStorage.getItem("refreshToken");
+  if (!refreshToken) return null;
+  const res = await fetchWithoutRefresh(`${API}/auth/refresh`, {
+    method: "POST",
+    headers: { "Content-Type": "application/json" },
+    body: JSON.stringify({ refreshToken }),
+  });
+  if (!res.ok) return null;
+  const data = await res.json();
+  localStorage.setItem("token", data.token);
+  localStorage.setItem("refreshToken", data.refreshToken);
+  return data.token;
+}
+
+function bearerOf(headers: Headers): string | null {
+  const value = headers.get("Authorization");
+  return value && value.startsWith("Bearer ") ? value.substring(7) : null;
+}
+
+// Wraps window.fetch so an API call rejected with 401 redeems the stored refresh
+// token and is sent once more with the new access token. Pages keep reading the
+// token from localStorage as before; a failed refresh sends the user to the login page.
+export function installAuthRefresh() {
+  window.fetch = async (input: RequestInfo | URL, init?: RequestInit) => {
+    const request = new Request(input, init);
+    const retry = request.clone();
+    const res = await fetchWithoutRefresh(request);
+    const sent = bearerOf(request.headers);
+    if (res.status !== 401 || !sent || !request.url.startsWith(API) || request.url.startsWith(`${API}/auth/`)) {
+      return res;
+    }
+
+    // another request may have refreshed already; only redeem if the stored token is the one that failed
+    let token = localStorage.getItem("token");
+    if (!token || token === sent) {
+      pendingRefresh ??= refreshAccessToken().finally(() => (pendingRefresh = null));
+      token = await pendingRefresh;
+    }
+    if (!token) {
+      localStorage.removeItem("token");
+      localStorage.removeItem("refreshToken");
+      localStorage.removeItem("userRole");
+      window.location.assign("/login");
+      return res;
+    }
+    retry.headers.set("Authorization", `Bearer ${token}`);
+    return fetchWithoutRefresh(retry);
+  };
+}
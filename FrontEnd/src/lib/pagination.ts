@@ -0,0 +1,16 @@
+// Follows the keyset cursor of a paged list endpoint and returns every item.
+export async function fetchAllPages<T>(url: string, init: RequestInit = {}, pageSize = 200): Promise<T[]> {
+  const items: T[] = [];
+  let cursor: string | undefined;
+  do {
+    const pageUrl = new URL(url);
+    pageUrl.searchParams.set("size", String(pageSize));
+    if (cursor) pageUrl.searchParams.set("cursor", cursor);
+    const res = await fetch(pageUrl, init);
+    if (!res.ok) throw new Error(`Failed to load ${url}`);
+    const page = await res.json();
+    items.push(...(page.items || []));
+    cursor = page.nextCursor;
+  } while (cursor);
+  return items;
+}
@@ -1,5 +1,8 @@
 import { createRoot } from "react-dom/client";
 import App from "./App.jsx";
 import "./index.css";
+import { installAuthRefresh } from "./lib/auth-refresh";
+
+installAuthRefresh();
 
 createRoot(document.getElementById("root")).render(<App />);
@@ -42,6 +42,7 @@ export default function Login() {
 
       if (response.ok) {
         localStorage.setItem("token", data.token);
+        localStorage.setItem("refreshToken", data.refreshToken);
         localStorage.setItem("userRole", data.user.role?.toLowerCase() || ""); 
         localStorage.setItem("userId", data.user.userId);
         localStorage.setItem("user", JSON.stringify(data.user));
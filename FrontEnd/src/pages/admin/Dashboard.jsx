@@ -8,14 +8,21 @@ import {
   CardDescription,
 } from "@/components/ui/card";
 import { useToast } from "@/hooks/use-toast";
+import { fetchAllPages } from "@/lib/pagination";
 import { Plus, Users, User, Calendar, FileText, Loader2, X } from "lucide-react";
 import "./dashboard.css";
 
+const CARD_PAGE_SIZE = 50;
+
 export default function AdminDashboard() {
   const [doctors, setDoctors] = useState([]);
   const [patients, setPatients] = useState([]);
   const [appointments, setAppointments] = useState([]);
   const [prescriptions, setPrescriptions] = useState([]);
+  const [summary, setSummary] = useState(null);
+  // full lists for the appointment/prescription pickers, loaded the first time one is opened
+  const [doctorOptions, setDoctorOptions] = useState(null);
+  const [patientOptions, setPatientOptions] = useState(null);
   const [loading, setLoading] = useState(true);
   const [modalOpen, setModalOpen] = useState(false);
   const [modalType, setModalType] = useState("");
@@ -29,27 +36,38 @@ export default function AdminDashboard() {
     fetchData();
   }, [token]);
 
+  const headers = { Authorization: `Bearer ${token}`, "Content-Type": "application/json" };
+
+  // the cards show the first page of each list; the totals come from the summary
+  const fetchFirstPage = async (url) => {
+    const res = await fetch(`${url}?size=${CARD_PAGE_SIZE}`, { headers });
+    if (!res.ok) throw new Error(`Failed to load ${url}`);
+    const page = await res.json();
+    return page.items || [];
+  };
+
+  const fetchSummary = async () => {
+    const res = await fetch("http://localhost:8080/admin/summary", { headers });
+    if (!res.ok) throw new Error("Failed to load summary");
+    setSummary(await res.json());
+  };
+
   const fetchData = async () => {
     try {
       setLoading(true);
-      const headers = { Authorization: `Bearer ${token}`, "Content-Type": "application/json" };
 
-      const [doctorsRes, patientsRes, appointmentsRes, prescriptionsRes] = await Promise.all([
-        fetch("http://localhost:8080/doctors", { headers }),
-        fetch("http://localhost:8080/patients", { headers }),
-        fetch("http://localhost:8080/appointments", { headers }),
-        fetch("http://localhost:8080/prescriptions", { headers }),
+      const [doctorsList, patientsList, appointmentsList, prescriptionsList] = await Promise.all([
+        fetchFirstPage("http://localhost:8080/doctors"),
+        fetchFirstPage("http://localhost:8080/patients"),
+        fetchFirstPage("http://localhost:8080/appointments"),
+        fetchFirstPage("http://localhost:8080/prescriptions"),
+        fetchSummary(),
       ]);
 
-      if (!doctorsRes.ok) throw new Error("Failed to load doctors");
-      if (!patientsRes.ok) throw new Error("Failed to load patients");
-      if (!appointmentsRes.ok) throw new Error("Failed to load appointments");
-      if (!prescriptionsRes.ok) throw new Error("Failed to load prescriptions");
-
-      setDoctors(await doctorsRes.json());
-      setPatients(await patientsRes.json());
-      setAppointments(await appointmentsRes.json());
-      setPrescriptions(await prescriptionsRes.json());
+      setDoctors(doctorsList);
+      setPatients(patientsList);
+      setAppointments(appointmentsList);
+      setPrescriptions(prescriptionsList);
     } catch (err) {
       console.error(err);
       toast({ title: "Failed to load data", variant: "destructive" });
@@ -58,8 +76,44 @@ export default function AdminDashboard() {
     }
   };
 
+  // after a save or delete only the summary and the list it touched are read again
+  const refreshAfterChange = async (type) => {
+    const lists = {
+      doctor: ["http://localhost:8080/doctors", setDoctors],
+      patient: ["http://localhost:8080/patients", setPatients],
+      appointment: ["http://localhost:8080/appointments", setAppointments],
+      prescription: ["http://localhost:8080/prescriptions", setPrescriptions],
+    };
+    if (type === "doctor") setDoctorOptions(null);
+    if (type === "patient") setPatientOptions(null);
+    try {
+      const [url, setList] = lists[type];
+      const [items] = await Promise.all([fetchFirstPage(url), fetchSummary()]);
+      setList(items);
+    } catch (err) {
+      console.error(err);
+      toast({ title: "Failed to load data", variant: "destructive" });
+    }
+  };
+
+  const loadPickerOptions = async () => {
+    if (doctorOptions && patientOptions) return;
+    try {
+      const [doctorsList, patientsList] = await Promise.all([
+        doctorOptions || fetchAllPages("http://localhost:8080/doctors", { headers }),
+        patientOptions || fetchAllPages("http://localhost:8080/patients", { headers }),
+      ]);
+      setDoctorOptions(doctorsList);
+      setPatientOptions(patientsList);
+    } catch (err) {
+      console.error(err);
+      toast({ title: "Failed to load data", variant: "destructive" });
+    }
+  };
+
   const openModal = (type, item = null) => {
     setModalType(type);
+    if (type === "appointment" || type === "prescription") loadPickerOptions();
 
     if (item) {
       const fields = getFormFieldsFromItem(type, item);
@@ -205,8 +259,8 @@ export default function AdminDashboard() {
 
       // Appointment Add/Edit
       if (modalType === "appointment") {
-        const selectedPatient = patients.find(p => String(p.patientId) === String(formFields.patientId));
-        const selectedDoctor = doctors.find(d => String(d.doctorId) === String(formFields.doctorId));
+        const selectedPatient = (patientOptions || []).find(p => String(p.patientId) === String(formFields.patientId));
+        const selectedDoctor = (doctorOptions || []).find(d => String(d.doctorId) === String(formFields.doctorId));
 
         body = {
           appointmentId: formFields.appointmentId,
@@ -220,8 +274,8 @@ export default function AdminDashboard() {
 
       // Prescription Add/Edit
       if (modalType === "prescription") {
-        const selectedPatient = patients.find(p => String(p.patientId) === String(formFields.patientId));
-        const selectedDoctor = doctors.find(d => String(d.doctorId) === String(formFields.doctorId));
+        const selectedPatient = (patientOptions || []).find(p => String(p.patientId) === String(formFields.patientId));
+        const selectedDoctor = (doctorOptions || []).find(d => String(d.doctorId) === String(formFields.doctorId));
 
         body = {
           prescriptionId: formFields.prescriptionId,
@@ -257,7 +311,7 @@ export default function AdminDashboard() {
       }
 
       toast({ title: `${modalType.charAt(0).toUpperCase() + modalType.slice(1)} saved successfully!` });
-      await fetchData();
+      await refreshAfterChange(modalType);
       closeModal();
     } catch (err) {
       toast({ title: "Operation failed", description: err.message, variant: "destructive" });
@@ -276,6 +330,12 @@ export default function AdminDashboard() {
     return data[type] || [];
   };
 
+  const getTotal = (type) => {
+    if (!summary) return getCardData(type).length;
+    const totals = { doctor: summary.doctors, patient: summary.patients, appointment: summary.appointments, prescription: summary.prescriptions };
+    return totals[type] ?? 0;
+  };
+
   const handleEdit = (item, type) => {
     openModal(type, item);
   };
@@ -357,7 +417,7 @@ export default function AdminDashboard() {
       const res = await fetch(url, { method: "DELETE", headers: { Authorization: `Bearer ${token}` } });
       if (!res.ok) throw new Error("Delete failed");
       toast({ title: `${type.charAt(0).toUpperCase() + type.slice(1)} deleted!` });
-      await fetchData();
+      await refreshAfterChange(type);
     } catch (err) {
       console.error(err);
       toast({ title: "Delete failed", variant: "destructive" });
@@ -373,7 +433,10 @@ export default function AdminDashboard() {
         <CardHeader className="flex flex-row items-center justify-between space-y-0 pb-4">
           <div className="space-y-1">
             <CardTitle className="text-xl flex items-center gap-2"><Icon className="h-5 w-5" />{title}</CardTitle>
-            <CardDescription>{data.length} total</CardDescription>
+            <CardDescription>
+              {getTotal(type)} total
+              {type === "appointment" && summary && ` · ${summary.appointmentsToday} today · ${summary.appointmentsThisWeek} this week`}
+            </CardDescription>
           </div>
           <Button onClick={() => openModal(type)} size="sm" className="gap-1">
             <Plus className="h-4 w-4" />Add
@@ -586,7 +649,7 @@ export default function AdminDashboard() {
                       value={formFields.patientId}
                       onChange={(e) => setFormFields({ ...formFields, patientId: e.target.value })}>
                       <option value="">Select Patient</option>
-                      {patients.map(p => (
+                      {(patientOptions || []).map(p => (
                         <option key={p.patientId} value={String(p.patientId)}>
                           {p.patientName || p.username}
                         </option>
@@ -599,7 +662,7 @@ export default function AdminDashboard() {
                         value={formFields.doctorId}
                         onChange={(e) => setFormFields({ ...formFields, doctorId: e.target.value })}>
                         <option value="">Select Doctor</option>
-                        {doctors.map(d => (
+                        {(doctorOptions || []).map(d => (
                           <option key={d.doctorId} value={String(d.doctorId)}>
                             {d.doctorName} - Available:  {`${d.attendTime} - ${d.leaveTime} - available on ${d.workingDays || "N/A"}`}
                           </option>
@@ -622,7 +685,7 @@ export default function AdminDashboard() {
                       <select name="patientId" className="input_add"
                         value={formFields.patientId} onChange={(e) => setFormFields({ ...formFields, patientId: e.target.value })}>
                         <option value="">Select Patient</option>
-                        {patients.map(p => <option key={p.patientId} value={p.patientId}>{p.patientName || p.username}</option>)}
+                        {(patientOptions || []).map(p => <option key={p.patientId} value={p.patientId}>{p.patientName || p.username}</option>)}
                       </select>
                     </div>
                     <div className="flex flex-col">
@@ -630,7 +693,7 @@ export default function AdminDashboard() {
                       <select name="doctorId" className="input_add"
                         value={formFields.doctorId} onChange={(e) => setFormFields({ ...formFields, doctorId: e.target.value })}>
                         <option value="">Select Doctor</option>
-                        {doctors.map(d => <option key={d.doctorId} value={d.doctorId}>{d.doctorName || d.username}</option>)}
+                        {(doctorOptions || []).map(d => <option key={d.doctorId} value={d.doctorId}>{d.doctorName || d.username}</option>)}
                       </select>
                     </div>
                     <div className="flex flex-col">
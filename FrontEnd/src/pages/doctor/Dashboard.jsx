@@ -1,4 +1,4 @@
-import { useEffect, useState } from "react";
+import { useEffect, useRef, useState } from "react";
 import { Calendar, Users, FileText, Plus, Pencil, Trash2 } from "lucide-react";
 import { DashboardCard } from "@/components/DashboardCard";
 import { Card, CardContent, CardHeader, CardTitle } from "@/components/ui/card";
@@ -43,51 +43,68 @@ export default function DoctorDashboard() {
   const { toast } = useToast();
   const token = localStorage.getItem("token");
 
+  // serverTime of the last dashboard response; refreshes only fetch what changed after it
+  const sinceRef = useRef(null);
+
   useEffect(() => {
     const u = localStorage.getItem("user");
     if (u) setUser(JSON.parse(u));
   }, []);
 
-  useEffect(() => {
-    if (!user) return;
+  // Keeps the rows listed in ids, in that order, taking changed rows over the ones already shown
+  const mergeById = (current, changed, ids, key) => {
+    const byId = new Map(current.map((row) => [row[key], row]));
+    changed.forEach((row) => byId.set(row[key], row));
+    return ids.map((id) => byId.get(id));
+  };
+
+  const fetchDashboard = async (since) => {
     const doctorId = user.doctor?.doctorId;
+    const query = since ? `?since=${encodeURIComponent(since)}` : "";
+    const res = await fetch(`http://localhost:8080/doctor/${doctorId}/dashboard${query}`, { headers: { Authorization: `Bearer ${token}` } });
+    if (!res.ok) throw new Error("Failed to fetch dashboard");
+    return res.json();
+  };
 
-    const fetchData = async () => {
-      try {
-        const [appsRes, patientsRes, presRes] = await Promise.all([
-          fetch(`http://localhost:8080/appointments/doctor/${doctorId}`, { headers: { Authorization: `Bearer ${token}` } }),
-          fetch(`http://localhost:8080/${doctorId}/patients`, { headers: { Authorization: `Bearer ${token}` } }),
-          fetch(`http://localhost:8080/prescriptions/doctor/${doctorId}`, { headers: { Authorization: `Bearer ${token}` } }),
-        ]);
-
-        if (!appsRes.ok || !patientsRes.ok || !presRes.ok)
-          throw new Error("Failed to fetch data");
-
-        const [appsData, patientsData, presData] = await Promise.all([
-          appsRes.json(),
-          patientsRes.json(),
-          presRes.json(),
-        ]);
-
-        setAppointments(appsData);
-        setPatients(patientsData);
-        setPrescriptions(presData);
-      } catch (err) {
-        toast({ title: "Error fetching data", variant: "destructive" });
-      } finally {
-        setLoading(false);
+  const refreshDashboard = async () => {
+    if (!user) return;
+    const since = sinceRef.current;
+    let data = await fetchDashboard(since);
+    let apps = [...data.todayAppointments, ...data.upcomingAppointments];
+    if (since) {
+      const merged = {
+        appointments: mergeById(appointments, apps, data.appointmentIds, "appointmentId"),
+        patients: mergeById(patients, data.patients, data.patientIds, "patientId"),
+        prescriptions: mergeById(prescriptions, data.recentPrescriptions, data.prescriptionIds, "prescriptionId"),
+      };
+      // a row moved into a capped list without changing: this one needs a full load
+      if (Object.values(merged).every((rows) => rows.every(Boolean))) {
+        setAppointments(merged.appointments);
+        setPatients(merged.patients);
+        setPrescriptions(merged.prescriptions);
+        sinceRef.current = data.serverTime;
+        return;
       }
-    };
+      data = await fetchDashboard(null);
+      apps = [...data.todayAppointments, ...data.upcomingAppointments];
+    }
+    setAppointments(apps);
+    setPatients(data.patients);
+    setPrescriptions(data.recentPrescriptions);
+    sinceRef.current = data.serverTime;
+  };
 
-    fetchData();
+  useEffect(() => {
+    if (!user) return;
+    sinceRef.current = null;
+    refreshDashboard()
+      .catch(() => toast({ title: "Error fetching data", variant: "destructive" }))
+      .finally(() => setLoading(false));
   }, [user, token]);
 
   const fetchPrescriptions = async () => {
-    if (!user) return;
     try {
-      const res = await fetch(`http://localhost:8080/prescriptions/doctor/${user.doctor.doctorId}`, { headers: { Authorization: `Bearer ${token}` } });
-      if (!res.ok) throw new Error("Failed to fetch prescriptions");
-      setPrescriptions(await res.json());
+      await refreshDashboard();
     } catch (err) {
       toast({ title: "Error fetching prescriptions", variant: "destructive" });
     }
@@ -233,10 +250,8 @@ export default function DoctorDashboard() {
       if (!res.ok) throw new Error("Failed to update patient");
       toast({ title: "Patient status updated!" });
       setEditPatientModalOpen(false);
-      // Optionally refresh patients list
-      const doctorId = user.doctor?.doctorId;
-      const patientsRes = await fetch(`http://localhost:8080/${doctorId}/patients`, { headers: { Authorization: `Bearer ${token}` } });
-      if (patientsRes.ok) setPatients(await patientsRes.json());
+      // Refresh what changed, the patient included
+      await refreshDashboard();
     } catch (err) {
       toast({ title: "Error updating patient", variant: "destructive" });
     }
@@ -280,9 +295,9 @@ export default function DoctorDashboard() {
 
       {/* Dashboard Cards */}
       <div className="grid gap-4 md:grid-cols-2 lg:grid-cols-4">
-        <DashboardCard title="Appointments" value={appointments.length} icon={Calendar} description="Total doctor appointments" variant="primary" />
+        <DashboardCard title="Appointments" value={appointments.length} icon={Calendar} description="Today and upcoming" variant="primary" />
         <DashboardCard title="Patients" value={patients.length} icon={Users} description="Assigned to you" variant="success" />
-        <DashboardCard title="Prescriptions" value={prescriptions.length} icon={FileText} description="Total prescriptions" variant="secondary" />
+        <DashboardCard title="Prescriptions" value={prescriptions.length} icon={FileText} description="Most recent" variant="secondary" />
       </div>
 
       {/* Appointments */}
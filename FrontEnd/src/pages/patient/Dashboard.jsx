@@ -35,52 +35,38 @@ export default function PatientDashboard() {
       return;
     }
 
-    const fetchAppointments = async () => {
+    // The doctor list rarely changes: keep it with its version and only get it again when the server has a newer one
+    const fetchHome = async () => {
+      let directory = null;
       try {
-        const res = await fetch(
-          `http://localhost:8080/appointment/patient/${user.patient.patientId}`,
-          { headers: { Authorization: `Bearer ${token}` } }
-        );
-        if (!res.ok) throw new Error("Failed to load appointments");
-        const data = await res.json();
-        setAppointments(data || []);
-      } catch (err) {
-        console.error(err);
-        setAppointments([]);
+        directory = JSON.parse(localStorage.getItem("doctorDirectory"));
+      } catch {
+        directory = null;
       }
-    };
-
-    const fetchPrescriptions = async () => {
       try {
+        const query = directory?.version ? `?directoryVersion=${encodeURIComponent(directory.version)}` : "";
         const res = await fetch(
-          `http://localhost:8080/prescriptions/patient/${user.patient.patientId}`,
+          `http://localhost:8080/patient/${user.patient.patientId}/home${query}`,
           { headers: { Authorization: `Bearer ${token}` } }
         );
-        if (!res.ok) throw new Error("Failed to load prescriptions");
+        if (!res.ok) throw new Error("Failed to load dashboard");
         const data = await res.json();
-        setPrescriptions(data || []);
+        if (data.doctors) {
+          directory = { version: data.directoryVersion, doctors: data.doctors };
+          localStorage.setItem("doctorDirectory", JSON.stringify(directory));
+        }
+        setAppointments(data.upcomingAppointments || []);
+        setPrescriptions(data.recentPrescriptions || []);
+        setDoctors(directory?.doctors || []);
       } catch (err) {
         console.error(err);
+        setAppointments([]);
         setPrescriptions([]);
-      }
-    };
-
-    const fetchDoctors = async () => {
-      try {
-        const res = await fetch("http://localhost:8080/doctors", {
-          headers: { Authorization: `Bearer ${token}` },
-        });
-        if (!res.ok) throw new Error("Failed to load doctors");
-        const data = await res.json();
-        setDoctors(data || []);
-      } catch (err) {
-        console.error(err);
         setDoctors([]);
       }
     };
 
-    Promise.all([fetchAppointments(), fetchPrescriptions(), fetchDoctors()])
-      .finally(() => setLoading(false));
+    fetchHome().finally(() => setLoading(false));
   }, [user, token]);
 
 